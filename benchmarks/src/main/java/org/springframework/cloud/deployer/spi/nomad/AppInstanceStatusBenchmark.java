@@ -0,0 +1,98 @@
+package org.springframework.cloud.deployer.spi.nomad;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.deployer.spi.app.DeploymentState;
+
+import com.ecwid.consul.v1.health.model.Check;
+
+import io.github.zanella.nomad.v1.common.models.Job;
+import io.github.zanella.nomad.v1.nodes.models.NodeAllocation;
+import io.github.zanella.nomad.v1.nodes.models.Resources;
+
+/**
+ * App instance status mapping of {@link NomadAppInstanceStatus} and
+ * {@link NomadConsulAppInstanceStatus}, using fixture allocations and health checks.
+ *
+ * @author Donovan Muller
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AppInstanceStatusBenchmark {
+
+	@Param({ "pending", "running", "failed", "complete" })
+	private String clientStatus;
+
+	private NodeAllocation allocation;
+	private Check check;
+
+	@Setup
+	public void setup() {
+		allocation = new NodeAllocation();
+		allocation.setId("3c1b1e3e-93c6-4f3f-8a44-6d5a5c1f2a10");
+		allocation.setName("benchmark-test-app.benchmark-test-app[0]");
+		allocation.setJobId("benchmark-test-app");
+		allocation.setEvalId("8f0b6d3a-6f38-4c8e-9d0a-7f4a1c2b9e31");
+		allocation.setNodeId("f4c9d3a2-5b6e-4c1d-8a7f-2e3b4c5d6e7f");
+		allocation.setClientStatus(clientStatus);
+
+		Job job = new Job();
+		Map<String, String> meta = new HashMap<>();
+		meta.put("spring-deployment-id", "benchmark-test-app");
+		meta.put("spring-group-id", "benchmark");
+		meta.put("spring-app-id", "test-app");
+		job.setMeta(meta);
+		allocation.setJob(job);
+
+		List<Resources.Network> networks = new ArrayList<>();
+		for (int x = 0; x < 2; x++) {
+			Resources.Network network = new Resources.Network();
+			network.setIp("10.0.0." + x);
+			network.setMBits(10);
+			network.setDevice("eth" + x);
+			List<Resources.Network.DynamicPort> dynamicPorts = new ArrayList<>();
+			dynamicPorts.add(new Resources.Network.DynamicPort(20000 + x, "http"));
+			network.setDynamicPorts(dynamicPorts);
+			networks.add(network);
+		}
+		allocation.setResources(new Resources(1000, 512, 300, 0, networks));
+
+		check = new Check();
+		check.setServiceName("benchmark-test-app");
+		check.setStatus(Check.CheckStatus.PASSING);
+	}
+
+	@Benchmark
+	public Map<String, String> getAttributes() {
+		return new NomadAppInstanceStatus(allocation).getAttributes();
+	}
+
+	@Benchmark
+	public DeploymentState mapState() {
+		return new NomadAppInstanceStatus(allocation).mapState();
+	}
+
+	@Benchmark
+	public DeploymentState mapConsulState() {
+		return new NomadConsulAppInstanceStatus(allocation, check).mapState();
+	}
+}
@@ -0,0 +1,317 @@
+package org.springframework.cloud.deployer.spi.nomad;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.cloud.deployer.resource.docker.DockerResource;
+import org.springframework.cloud.deployer.spi.app.AppDeployer;
+import org.springframework.cloud.deployer.spi.app.AppStatus;
+import org.springframework.cloud.deployer.spi.app.DeploymentState;
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApi;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApiFactory;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadClientFactory;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadHttpTransport;
+import org.springframework.cloud.deployer.spi.nomad.docker.DockerNomadTaskLauncher;
+import org.springframework.cloud.deployer.spi.nomad.docker.IndexingDockerNomadAppDeployer;
+import org.springframework.cloud.deployer.spi.nomad.docker.IndexingDockerNomadWithConsulAppDeployer;
+import org.springframework.cloud.deployer.spi.nomad.maven.IndexingMavenNomadAppDeployer;
+import org.springframework.cloud.deployer.spi.nomad.maven.IndexingMavenNomadWithConsulAppDeployer;
+import org.springframework.cloud.deployer.spi.nomad.maven.MavenNomadTaskLauncher;
+import org.springframework.cloud.deployer.spi.nomad.stub.StubConsulServer;
+import org.springframework.cloud.deployer.spi.nomad.stub.StubHttpServer;
+import org.springframework.cloud.deployer.spi.nomad.stub.StubNomadServer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import com.ecwid.consul.v1.ConsulClient;
+
+import io.github.zanella.nomad.NomadClient;
+
+/**
+ * Drives a {@link ResourceAwareNomadAppDeployer} and {@link ResourceAwareNomadTaskLauncher} against
+ * the in-process {@link StubNomadServer} (and {@link StubConsulServer}) at a target rate and reports
+ * the latency percentiles of each SPI call and the number of Nomad and Consul requests they caused.
+ * <p>
+ * Scenarios are started at a fixed rate, regardless of how long earlier scenarios take, alternating
+ * between an app (deploy, status, undeploy) and a task (launch, status, cancel). Every tenth app
+ * scenario also requests the environment info. The status of an app is polled until it is known,
+ * which with the state cache only happens once the cache has observed the deployment. Latencies
+ * are the service time of each call, calls made during the warm up are not reported.
+ * <p>
+ * Options are passed as <code>name=value</code> (or <code>--name=value</code>) arguments:
+ * <ul>
+ * <li>rate: scenarios started per second (default 20)</li>
+ * <li>duration: seconds to run for (default 30)</li>
+ * <li>warmup: seconds to run for before measuring (default 5)</li>
+ * <li>concurrency: maximum scenarios in flight (default 32)</li>
+ * <li>latency, jitter: milliseconds added to every stub request (default 5, 0)</li>
+ * <li>clusterSize: the number of nodes in the stub cluster (default 10)</li>
+ * <li>count: app instances per deployment (default 1)</li>
+ * <li>consul: derive app status from Consul health checks (default false)</li>
+ * <li>stateCache: serve status from the {@link NomadClusterStateCache} (default false)</li>
+ * <li>taskDispatch: launch tasks by dispatching parameterized Jobs (default false)</li>
+ * </ul>
+ *
+ * @author Donovan Muller
+ */
+public class DeployerLoadTest {
+
+	private final Map<String, String> options;
+
+	private final Map<String, Latencies> latencies = new ConcurrentHashMap<>();
+
+	public DeployerLoadTest(Map<String, String> options) {
+		this.options = options;
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new HashMap<>();
+		for (String arg : args) {
+			String[] option = arg.replaceFirst("^--", "").split("=", 2);
+			options.put(option[0], option.length > 1 ? option[1] : "true");
+		}
+
+		new DeployerLoadTest(options).run();
+	}
+
+	public void run() throws Exception {
+		int rate = intOption("rate", 20);
+		int duration = intOption("duration", 30);
+		int warmup = intOption("warmup", 5);
+		boolean withConsul = booleanOption("consul");
+		boolean withStateCache = booleanOption("stateCache");
+
+		StubNomadServer nomad = new StubNomadServer(intOption("clusterSize", 10));
+		StubConsulServer consul = new StubConsulServer(nomad);
+		for (StubHttpServer server : new StubHttpServer[] { nomad, consul }) {
+			server.setLatency(intOption("latency", 5));
+			server.setLatencyJitter(intOption("jitter", 0));
+			server.start();
+		}
+
+		NomadDeployerProperties deployerProperties = new NomadDeployerProperties();
+		deployerProperties.setNomadHost(nomad.getHost());
+		deployerProperties.setNomadPort(nomad.getPort());
+		deployerProperties.setRuntimePlatformVersion("load-test");
+		deployerProperties.getTaskDispatch().setEnabled(booleanOption("taskDispatch"));
+		deployerProperties.getHttp().setMaxConnections(Math.max(50, intOption("concurrency", 32) * 2));
+		deployerProperties.getHttp().setMaxConnectionsPerRoute(Math.max(20, intOption("concurrency", 32) * 2));
+
+		NomadHttpTransport transport = new NomadHttpTransport(deployerProperties, NomadMetrics.NONE);
+		NomadClient client = new NomadClientFactory(deployerProperties, transport).create();
+		NomadApi nomadApi = new NomadApiFactory(deployerProperties, transport).create();
+		NomadJobIndex jobIndex = withStateCache
+				? new NomadClusterStateCache(client, nomadApi, deployerProperties.getJobIndex().getWaitTime())
+				: new NomadJobIndex(client);
+		jobIndex.start();
+
+		AppDeployer appDeployer;
+		ConsulHealthChecks healthChecks = null;
+		if (withConsul) {
+			ConsulClient consulClient = new ConsulClient(consul.getHost(), consul.getPort());
+			healthChecks = withStateCache
+					? new ConsulHealthCache(consulClient, deployerProperties.getHealthCache().getWaitTime())
+					: new ConsulHealthChecks(consulClient);
+			healthChecks.start();
+			appDeployer = new ResourceAwareNomadAppDeployer(
+					new IndexingDockerNomadWithConsulAppDeployer(client, consulClient, nomadApi, jobIndex, healthChecks,
+							deployerProperties),
+					new IndexingMavenNomadWithConsulAppDeployer(client, consulClient, nomadApi, jobIndex, healthChecks,
+							deployerProperties));
+		}
+		else {
+			appDeployer = new ResourceAwareNomadAppDeployer(
+					new IndexingDockerNomadAppDeployer(client, nomadApi, jobIndex, deployerProperties),
+					new IndexingMavenNomadAppDeployer(client, nomadApi, jobIndex, deployerProperties));
+		}
+		ResourceAwareNomadTaskLauncher taskLauncher = new ResourceAwareNomadTaskLauncher(
+				new DockerNomadTaskLauncher(client, nomadApi, jobIndex, deployerProperties),
+				new MavenNomadTaskLauncher(client, nomadApi, jobIndex, deployerProperties));
+
+		System.out.printf("Running %d scenarios/s for %ds against a %d node stub cluster (%s)%n", rate, duration,
+				nomad.getNodes().size(), options);
+		ExecutorService workers = Executors.newFixedThreadPool(intOption("concurrency", 32),
+				threadFactory("load-test-"));
+		ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory("load-rate-"));
+		AtomicLong scenarios = new AtomicLong();
+		scheduler.scheduleAtFixedRate(() -> {
+			long scenario = scenarios.getAndIncrement();
+			workers.execute(scenario % 2 == 0 ? () -> appScenario(appDeployer, scenario)
+					: () -> taskScenario(taskLauncher, scenario));
+		}, 0, TimeUnit.SECONDS.toNanos(1) / rate, TimeUnit.NANOSECONDS);
+
+		TimeUnit.SECONDS.sleep(warmup);
+		latencies.clear();
+		nomad.resetRequestCounts();
+		consul.resetRequestCounts();
+		long warmupScenarios = scenarios.get();
+		long start = System.nanoTime();
+
+		TimeUnit.SECONDS.sleep(duration);
+		scheduler.shutdownNow();
+		workers.shutdown();
+		workers.awaitTermination(1, TimeUnit.MINUTES);
+		long elapsed = System.nanoTime() - start;
+
+		report(scenarios.get() - warmupScenarios, elapsed, nomad, consul);
+
+		taskLauncher.shutdown();
+		if (healthChecks != null) {
+			healthChecks.stop();
+		}
+		jobIndex.stop();
+		transport.close();
+		consul.close();
+		nomad.close();
+	}
+
+	private void appScenario(AppDeployer appDeployer, long scenario) {
+		String deploymentId = record("AppDeployer.deploy", () -> appDeployer.deploy(request("app-" + scenario)));
+		if (deploymentId == null) {
+			return;
+		}
+		awaitKnownStatus(appDeployer, deploymentId);
+		if (scenario % 20 == 0) {
+			record("AppDeployer.environmentInfo", appDeployer::environmentInfo);
+		}
+		record("AppDeployer.undeploy", () -> {
+			appDeployer.undeploy(deploymentId);
+			return deploymentId;
+		});
+	}
+
+	private void awaitKnownStatus(AppDeployer appDeployer, String deploymentId) {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (System.nanoTime() < deadline) {
+			AppStatus status = record("AppDeployer.status", () -> appDeployer.status(deploymentId));
+			if (status != null && status.getState() != DeploymentState.unknown) {
+				return;
+			}
+			try {
+				TimeUnit.MILLISECONDS.sleep(10);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	private void taskScenario(ResourceAwareNomadTaskLauncher taskLauncher, long scenario) {
+		String taskId = record("TaskLauncher.launch", () -> taskLauncher.launch(request("task-" + scenario % 10)));
+		if (taskId == null) {
+			return;
+		}
+		record("TaskLauncher.status", () -> taskLauncher.status(taskId));
+		record("TaskLauncher.cancel", () -> {
+			taskLauncher.cancel(taskId);
+			return taskId;
+		});
+	}
+
+	private AppDeploymentRequest request(String name) {
+		Map<String, String> properties = new HashMap<>();
+		properties.put("server.port", "8080");
+		return new AppDeploymentRequest(new AppDefinition(name, properties),
+				new DockerResource("springcloud/spring-cloud-deployer-spi-test-app:latest"),
+				Collections.singletonMap(AppDeployer.COUNT_PROPERTY_KEY, options.getOrDefault("count", "1")));
+	}
+
+	/**
+	 * Time an SPI call.
+	 *
+	 * @return the result of the call or <code>null</code> if it failed
+	 */
+	private <T> T record(String call, Supplier<T> request) {
+		Latencies callLatencies = latencies.computeIfAbsent(call, key -> new Latencies());
+		long start = System.nanoTime();
+		try {
+			T result = request.get();
+			callLatencies.add(System.nanoTime() - start);
+			return result;
+		}
+		catch (RuntimeException e) {
+			callLatencies.error(e);
+			return null;
+		}
+	}
+
+	private void report(long scenarios, long elapsed, StubNomadServer nomad, StubConsulServer consul) {
+		double seconds = elapsed / 1e9;
+		System.out.printf("%n%d scenarios in %.1fs (%.1f/s)%n%n", scenarios, seconds, scenarios / seconds);
+		System.out.printf("%-30s %8s %8s %10s %10s %10s%n", "SPI call", "count", "errors", "p50 (ms)", "p99 (ms)",
+				"max (ms)");
+		new TreeMap<>(latencies).forEach((call, callLatencies) -> {
+			long[] sorted = callLatencies.sorted();
+			System.out.printf("%-30s %8d %8d %10.2f %10.2f %10.2f%n", call, sorted.length, callLatencies.errors,
+					percentile(sorted, 50), percentile(sorted, 99), percentile(sorted, 100));
+			if (callLatencies.firstError != null) {
+				System.out.printf("    first error: %s%n", callLatencies.firstError);
+			}
+		});
+
+		Map<String, Long> requests = new LinkedHashMap<>();
+		nomad.getRequestCounts().forEach((route, count) -> requests.put("nomad  " + route, count));
+		consul.getRequestCounts().forEach((route, count) -> requests.put("consul " + route, count));
+		System.out.printf("%n%-50s %10s %14s%n", "Stub requests", "count", "per scenario");
+		requests.forEach((route, count) -> System.out.printf("%-50s %10d %14.2f%n", route, count,
+				scenarios > 0 ? (double) count / scenarios : 0));
+	}
+
+	private static double percentile(long[] sorted, int percentile) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+		return sorted[Math.max(0, rank - 1)] / 1e6;
+	}
+
+	private int intOption(String name, int defaultValue) {
+		return Integer.parseInt(options.getOrDefault(name, String.valueOf(defaultValue)));
+	}
+
+	private boolean booleanOption(String name) {
+		return Boolean.parseBoolean(options.getOrDefault(name, "false"));
+	}
+
+	private static CustomizableThreadFactory threadFactory(String prefix) {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+		threadFactory.setDaemon(true);
+		return threadFactory;
+	}
+
+	private static class Latencies {
+
+		private final List<Long> nanos = new ArrayList<>();
+		private volatile long errors;
+		private volatile String firstError;
+
+		synchronized void add(long latency) {
+			nanos.add(latency);
+		}
+
+		synchronized void error(Exception e) {
+			if (firstError == null) {
+				firstError = e.toString();
+			}
+			errors++;
+		}
+
+		synchronized long[] sorted() {
+			return nanos.stream().mapToLong(Long::longValue).sorted().toArray();
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package org.springframework.cloud.deployer.spi.nomad.docker;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.deployer.resource.docker.DockerResource;
+import org.springframework.cloud.deployer.spi.app.AppDeployer;
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.nomad.NomadDeployerProperties;
+
+import io.github.zanella.nomad.v1.jobs.models.JobSpec;
+import io.github.zanella.nomad.v1.nodes.models.Task;
+import io.github.zanella.nomad.v1.nodes.models.TaskGroup;
+
+/**
+ * Job spec construction of the {@link IndexingDockerNomadAppDeployer}, for plain and indexed apps
+ * with an increasing number of instances. No requests are made to Nomad.
+ *
+ * @author Donovan Muller
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DockerJobSpecBenchmark {
+
+	@Param({ "1", "10", "100" })
+	private int count;
+
+	@Param({ "false", "true" })
+	private boolean indexed;
+
+	private NomadDeployerProperties deployerProperties;
+	private BenchmarkDeployer deployer;
+	private AppDeploymentRequest request;
+	private String deploymentId;
+
+	@Setup
+	public void setup() {
+		deployerProperties = new NomadDeployerProperties();
+		deployer = new BenchmarkDeployer(deployerProperties);
+
+		Map<String, String> properties = new HashMap<>();
+		for (int property = 0; property < 20; property++) {
+			properties.put("app.property" + property, "value" + property);
+		}
+		Map<String, String> deploymentProperties = new HashMap<>();
+		deploymentProperties.put(AppDeployer.GROUP_PROPERTY_KEY, "benchmark");
+		deploymentProperties.put(AppDeployer.COUNT_PROPERTY_KEY, String.valueOf(count));
+		deploymentProperties.put(AppDeployer.INDEXED_PROPERTY_KEY, String.valueOf(indexed));
+		deploymentProperties.put(AppDeployer.MEMORY_PROPERTY_KEY, "1024m");
+		request = new AppDeploymentRequest(new AppDefinition("test-app", properties),
+				new DockerResource("springcloud/spring-cloud-deployer-spi-test-app:latest"), deploymentProperties);
+		deploymentId = deployer.deploymentId(request);
+	}
+
+	@Benchmark
+	public JobSpec buildJobSpec() {
+		return deployer.jobSpec(deploymentId, request);
+	}
+
+	@Benchmark
+	public List<TaskGroup> buildTaskGroups() {
+		return deployer.taskGroups(deploymentId, request);
+	}
+
+	@Benchmark
+	public Task buildTask() {
+		return deployer.task(deploymentId, request);
+	}
+
+	@Benchmark
+	public List<String> createCommandLineArguments() {
+		return deployer.commandLineArguments(request);
+	}
+
+	/**
+	 * Exposes the Job spec construction of the deployer to the benchmarks.
+	 */
+	static class BenchmarkDeployer extends IndexingDockerNomadAppDeployer {
+
+		private final NomadDeployerProperties deployerProperties;
+
+		BenchmarkDeployer(NomadDeployerProperties deployerProperties) {
+			super(null, deployerProperties);
+			this.deployerProperties = deployerProperties;
+		}
+
+		String deploymentId(AppDeploymentRequest request) {
+			return createDeploymentId(request);
+		}
+
+		JobSpec jobSpec(String deploymentId, AppDeploymentRequest request) {
+			JobSpec jobSpec = buildJobSpec(deploymentId, deployerProperties, request);
+			jobSpec.setTaskGroups(buildTaskGroups(deploymentId, request, deployerProperties));
+			return jobSpec;
+		}
+
+		List<TaskGroup> taskGroups(String deploymentId, AppDeploymentRequest request) {
+			return buildTaskGroups(deploymentId, request, deployerProperties);
+		}
+
+		Task task(String deploymentId, AppDeploymentRequest request) {
+			return buildTask(request, deploymentId);
+		}
+
+		List<String> commandLineArguments(AppDeploymentRequest request) {
+			return createCommandLineArguments(request);
+		}
+	}
+}
@@ -0,0 +1,153 @@
+package org.springframework.cloud.deployer.spi.nomad.maven;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.deployer.resource.maven.MavenProperties;
+import org.springframework.cloud.deployer.resource.maven.MavenResource;
+import org.springframework.cloud.deployer.spi.app.AppDeployer;
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.nomad.NomadDeployerProperties;
+import org.springframework.util.FileSystemUtils;
+
+import io.github.zanella.nomad.v1.jobs.models.JobSpec;
+import io.github.zanella.nomad.v1.nodes.models.Task;
+import io.github.zanella.nomad.v1.nodes.models.TaskGroup;
+
+/**
+ * Job spec construction of the {@link IndexingMavenNomadAppDeployer}, for plain and indexed apps
+ * with an increasing number of instances. The artifact is resolved from a fixture local Maven
+ * repository in offline mode, no requests are made to Nomad or remote repositories.
+ *
+ * @author Donovan Muller
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MavenJobSpecBenchmark {
+
+	@Param({ "1", "10", "100" })
+	private int count;
+
+	@Param({ "false", "true" })
+	private boolean indexed;
+
+	private Path localRepository;
+	private NomadDeployerProperties deployerProperties;
+	private BenchmarkDeployer deployer;
+	private AppDeploymentRequest request;
+	private String deploymentId;
+
+	@Setup
+	public void setup() throws IOException {
+		localRepository = Files.createTempDirectory("benchmark-m2");
+		Path artifact = localRepository.resolve("io/switchbit/test-app/1.0.0/test-app-1.0.0.jar");
+		Files.createDirectories(artifact.getParent());
+		byte[] bytes = new byte[1024 * 1024];
+		new Random(42).nextBytes(bytes);
+		Files.write(artifact, bytes);
+
+		MavenProperties mavenProperties = new MavenProperties();
+		mavenProperties.setLocalRepository(localRepository.toString());
+		mavenProperties.setOffline(true);
+
+		deployerProperties = new NomadDeployerProperties();
+		deployerProperties.setDeployerHost("localhost");
+		deployerProperties.setDeployerPort(9393);
+		deployer = new BenchmarkDeployer(deployerProperties);
+
+		Map<String, String> properties = new HashMap<>();
+		for (int property = 0; property < 20; property++) {
+			properties.put("app.property" + property, "value" + property);
+		}
+		Map<String, String> deploymentProperties = new HashMap<>();
+		deploymentProperties.put(AppDeployer.GROUP_PROPERTY_KEY, "benchmark");
+		deploymentProperties.put(AppDeployer.COUNT_PROPERTY_KEY, String.valueOf(count));
+		deploymentProperties.put(AppDeployer.INDEXED_PROPERTY_KEY, String.valueOf(indexed));
+		request = new AppDeploymentRequest(new AppDefinition("test-app", properties),
+				MavenResource.parse("io.switchbit:test-app:1.0.0", mavenProperties), deploymentProperties);
+		deploymentId = deployer.deploymentId(request);
+	}
+
+	@TearDown
+	public void tearDown() {
+		FileSystemUtils.deleteRecursively(localRepository.toFile());
+	}
+
+	@Benchmark
+	public JobSpec buildJobSpec() {
+		return deployer.jobSpec(deploymentId, request);
+	}
+
+	@Benchmark
+	public List<TaskGroup> buildTaskGroups() {
+		return deployer.taskGroups(deploymentId, request);
+	}
+
+	@Benchmark
+	public Task buildTask() {
+		return deployer.task(deploymentId, request);
+	}
+
+	@Benchmark
+	public String toSpringApplicationJson() {
+		return deployer.springApplicationJson(request);
+	}
+
+	/**
+	 * Exposes the Job spec construction of the deployer to the benchmarks.
+	 */
+	static class BenchmarkDeployer extends IndexingMavenNomadAppDeployer {
+
+		private final NomadDeployerProperties deployerProperties;
+
+		BenchmarkDeployer(NomadDeployerProperties deployerProperties) {
+			super(null, deployerProperties);
+			this.deployerProperties = deployerProperties;
+		}
+
+		String deploymentId(AppDeploymentRequest request) {
+			return createDeploymentId(request);
+		}
+
+		JobSpec jobSpec(String deploymentId, AppDeploymentRequest request) {
+			JobSpec jobSpec = buildJobSpec(deploymentId, deployerProperties, request);
+			jobSpec.setTaskGroups(buildTaskGroups(deploymentId, request, deployerProperties));
+			return jobSpec;
+		}
+
+		List<TaskGroup> taskGroups(String deploymentId, AppDeploymentRequest request) {
+			return buildTaskGroups(deploymentId, request, deployerProperties);
+		}
+
+		Task task(String deploymentId, AppDeploymentRequest request) {
+			return buildTask(request, deploymentId);
+		}
+
+		String springApplicationJson(AppDeploymentRequest request) {
+			return toSpringApplicationJson(request);
+		}
+	}
+}
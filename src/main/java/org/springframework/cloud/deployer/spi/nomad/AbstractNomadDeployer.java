@@ -3,6 +3,7 @@ package org.springframework.cloud.deployer.spi.nomad;
 import static java.util.stream.Collectors.toList;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -10,26 +11,47 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import io.github.zanella.nomad.v1.agent.models.Self;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
 import org.springframework.cloud.deployer.spi.app.AppDeployer;
 import org.springframework.cloud.deployer.spi.app.AppStatus;
 import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
 import org.springframework.cloud.deployer.spi.core.RuntimeEnvironmentInfo;
+import org.springframework.cloud.deployer.spi.nomad.client.JobPlanRequest;
+import org.springframework.cloud.deployer.spi.nomad.client.JobPlanResponse;
+import org.springframework.cloud.deployer.spi.nomad.client.JobRegistration;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApi;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApiFactory;
+import org.springframework.cloud.deployer.spi.nomad.client.RollingUpdateStrategy;
 import org.springframework.cloud.deployer.spi.util.ByteSizeUtils;
 import org.springframework.cloud.deployer.spi.util.RuntimeVersionUtils;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import feign.FeignException;
+
 import io.github.zanella.nomad.NomadClient;
+import io.github.zanella.nomad.v1.agent.models.Self;
+import io.github.zanella.nomad.v1.common.models.AllocationSummary;
 import io.github.zanella.nomad.v1.common.models.Constraint;
+import io.github.zanella.nomad.v1.common.models.Job;
 import io.github.zanella.nomad.v1.jobs.models.JobAllocation;
+import io.github.zanella.nomad.v1.jobs.models.JobEvalResult;
 import io.github.zanella.nomad.v1.jobs.models.JobSpec;
 import io.github.zanella.nomad.v1.jobs.models.JobSummary;
+import io.github.zanella.nomad.v1.nodes.models.NodeAllocation;
 import io.github.zanella.nomad.v1.nodes.models.Task;
 import io.github.zanella.nomad.v1.nodes.models.TaskGroup;
 
@@ -49,20 +71,64 @@ public abstract class AbstractNomadDeployer implements NomadSupport {
 	private static final Logger logger = LoggerFactory.getLogger(AbstractNomadDeployer.class);
 
 	private NomadClient client;
+	private NomadApi nomadApi;
+	private NomadJobIndex jobIndex;
 	private NomadDeployerProperties deployerProperties;
 
+	private volatile RuntimeEnvironmentInfoCache environmentInfoCache;
+
 	protected AbstractNomadDeployer(NomadClient client, NomadDeployerProperties deployerProperties) {
+		this(client, new NomadJobIndex(client), deployerProperties);
+	}
+
+	/**
+	 * The {@link NomadApi} is created with the default transport, see
+	 * {@link NomadApiFactory#NomadApiFactory(NomadDeployerProperties)}.
+	 */
+	protected AbstractNomadDeployer(NomadClient client, NomadJobIndex jobIndex,
+			NomadDeployerProperties deployerProperties) {
+		this(client, new NomadApiFactory(deployerProperties).create(), jobIndex, deployerProperties);
+	}
+
+	/**
+	 * @param nomadApi used to plan and register Jobs and to wait for deployments, share the one
+	 * created with the deployer's transport
+	 */
+	protected AbstractNomadDeployer(NomadClient client, NomadApi nomadApi, NomadJobIndex jobIndex,
+			NomadDeployerProperties deployerProperties) {
+		Assert.notNull(nomadApi, "NomadApi must not be null");
 		this.client = client;
+		this.nomadApi = nomadApi;
+		this.jobIndex = jobIndex;
 		this.deployerProperties = deployerProperties;
 	}
 
+	protected NomadApi getNomadApi() {
+		return nomadApi;
+	}
+
 	/**
-	 * Create the RuntimeEnvironmentInfo.
+	 * Create the RuntimeEnvironmentInfo. The info is cached and refreshed in the background, see
+	 * {@link RuntimeEnvironmentInfoCache} and {@link NomadDeployerProperties#getEnvironmentInfoRefreshInterval()}.
 	 *
-	 * @return the Kubernetes runtime environment info
+	 * @return the Nomad runtime environment info
 	 */
 	protected RuntimeEnvironmentInfo createRuntimeEnvironmentInfo(Class spiClass, Class implementationClass) {
-		Set<String> hostVersions = client.v1.agent.getMembers().getMember().stream()
+		if (environmentInfoCache == null) {
+			synchronized (this) {
+				if (environmentInfoCache == null) {
+					environmentInfoCache = new RuntimeEnvironmentInfoCache(
+							() -> buildRuntimeEnvironmentInfo(spiClass, implementationClass),
+							deployerProperties.getEnvironmentInfoRefreshInterval());
+				}
+			}
+		}
+		return environmentInfoCache.get();
+	}
+
+	private RuntimeEnvironmentInfo buildRuntimeEnvironmentInfo(Class spiClass, Class implementationClass) {
+		List<Self.Member> members = client.v1.agent.getMembers().getMember();
+		Set<String> hostVersions = members.stream()
 			.map(member -> member.getTags().get("build"))
 			.collect(Collectors.toSet());
 
@@ -75,7 +141,7 @@ public abstract class AbstractNomadDeployer implements NomadSupport {
 			.platformClientVersion(deployerProperties.getRuntimePlatformVersion())
 			.platformHostVersion(StringUtils.collectionToCommaDelimitedString(hostVersions));
 
-		client.v1.agent.getMembers().getMember().forEach(member -> runtimeEnvironment
+		members.forEach(member -> runtimeEnvironment
             .addPlatformSpecificInfo(String.format("%s-build", member.getName()), member.getTags().get("build"))
             .addPlatformSpecificInfo(String.format("%s-region", member.getName()), member.getTags().get("region"))
             .addPlatformSpecificInfo(String.format("%s-datacenter", member.getName()), member.getTags().get("dc")));
@@ -97,6 +163,14 @@ public abstract class AbstractNomadDeployer implements NomadSupport {
 		return deploymentId.replace('.', '-');
 	}
 
+	/**
+	 * Whether the Job meta identifies a Job deployed by this deployer, i.e. has
+	 * <code>spring-*</code> keys.
+	 */
+	protected static boolean isDeployerMeta(Map<String, String> meta) {
+		return meta != null && meta.keySet().stream().anyMatch(key -> key.startsWith("spring-"));
+	}
+
 	protected JobSpec buildJobSpec(String deploymentId, NomadDeployerProperties deployerProperties,
 			AppDeploymentRequest request) {
 		return buildJobSpec(deploymentId, deployerProperties, request, JobTypes.SERVICE);
@@ -117,7 +191,7 @@ public abstract class AbstractNomadDeployer implements NomadSupport {
 		jobSpec.setDatacenters(deployerProperties.getDatacenters());
 		jobSpec.setPriority(Integer.valueOf(request.getDeploymentProperties()
 				.getOrDefault(NomadDeploymentPropertyKeys.JOB_PRIORITY, deployerProperties.getPriority().toString())));
-		jobSpec.setMeta(createMeta(request));
+		jobSpec.setMeta(createMeta(deploymentId, request));
 
 		List<Constraint> constraints = new ArrayList<>();
 		// At a minimum a Java runtime must be available
@@ -128,9 +202,38 @@ public abstract class AbstractNomadDeployer implements NomadSupport {
 		}
 		jobSpec.setConstraints(constraints);
 
+		if (jobType == JobTypes.SERVICE) {
+			jobSpec.setUpdate(buildUpdateStrategy(request, deployerProperties));
+		}
+
 		return jobSpec;
 	}
 
+	/**
+	 * Build the update stanza, which replaces the allocations of an updated app a few at a time
+	 * instead of all at once. Only built if the <code>maxParallel</code> deployer or deployment
+	 * property is set. Canaries are not configured, the deployer has no way to promote them.
+	 */
+	protected RollingUpdateStrategy buildUpdateStrategy(AppDeploymentRequest request,
+			NomadDeployerProperties deployerProperties) {
+		Map<String, String> deploymentProperties = request.getDeploymentProperties();
+		NomadDeployerProperties.Update update = deployerProperties.getUpdate();
+		String maxParallel = deploymentProperties.get(NomadDeploymentPropertyKeys.NOMAD_UPDATE_MAX_PARALLEL);
+		if (maxParallel == null && update.getMaxParallel() == null) {
+			return null;
+		}
+
+		RollingUpdateStrategy updateStrategy = new RollingUpdateStrategy();
+		updateStrategy.setMaxParallel(maxParallel != null ? Integer.valueOf(maxParallel) : update.getMaxParallel());
+		updateStrategy.setMinHealthyTime(milliToNanoseconds(Long.valueOf(deploymentProperties.getOrDefault(
+				NomadDeploymentPropertyKeys.NOMAD_UPDATE_MIN_HEALTHY_TIME, update.getMinHealthyTime().toString()))));
+		updateStrategy.setHealthyDeadline(milliToNanoseconds(Long.valueOf(deploymentProperties.getOrDefault(
+				NomadDeploymentPropertyKeys.NOMAD_UPDATE_HEALTHY_DEADLINE, update.getHealthyDeadline().toString()))));
+		updateStrategy.setAutoRevert(Boolean.valueOf(deploymentProperties.getOrDefault(
+				NomadDeploymentPropertyKeys.NOMAD_UPDATE_AUTO_REVERT, update.getAutoRevert().toString())));
+		return updateStrategy;
+	}
+
 	protected List<TaskGroup> buildTaskGroups(String deploymentId, AppDeploymentRequest request,
 			NomadDeployerProperties deployerProperties) {
 		TaskGroup taskGroup = buildTaskGroup(deploymentId, request, deployerProperties, getAppCount(request));
@@ -175,22 +278,270 @@ public abstract class AbstractNomadDeployer implements NomadSupport {
 	 * partitioned apps (<code>app.xxx.count > 1</code>).
 	 */
 	protected List<JobAllocation> getAllocationEvaluation(NomadClient client, JobSummary jobSummary) {
-		return client.v1.job.getJobAllocations(jobSummary.getId());
+		return jobIndex.getJobAllocations(jobSummary);
+	}
+
+	/**
+	 * See {@link NomadJobIndex#getJobAllocations(Collection)}
+	 */
+	protected Map<String, List<JobAllocation>> getAllocationEvaluations(Collection<JobSummary> jobs) {
+		return jobIndex.getJobAllocations(jobs);
 	}
 
 	/**
-	 * Build the {@link AppStatus} based on a Job allocations.
+	 * Build the {@link AppStatus} based on a Job allocations. The allocation details are only
+	 * fetched if the instance attributes are requested.
 	 */
 	protected AppStatus buildAppStatus(String id, List<JobAllocation> allocations) {
 		AppStatus.Builder statusBuilder = AppStatus.of(id);
-		allocations.forEach(allocation -> statusBuilder
-				.with(new NomadAppInstanceStatus(client.v1.allocation.getAllocation(allocation.getId()))));
+		allocations.forEach(
+				allocation -> statusBuilder.with(new NomadAppInstanceStatus(allocation, allocationDetails(allocation))));
 		return statusBuilder.build();
 	}
 
+	/**
+	 * Lazily fetch the full allocation (<code>/v1/allocation/:id</code>) for an allocation summary.
+	 */
+	protected Supplier<NodeAllocation> allocationDetails(AllocationSummary allocation) {
+		return () -> client.v1.allocation.getAllocation(allocation.getId());
+	}
+
+	/**
+	 * See {@link NomadJobIndex#find(String)}
+	 */
 	protected JobSummary getJobByName(final String deploymentId) {
-		return client.v1.jobs.getJobs().stream().filter(jobSummary -> jobSummary.getName().equals(deploymentId))
-				.findFirst().orElse(null);
+		return jobIndex.find(deploymentId);
+	}
+
+	/**
+	 * See {@link NomadJobIndex#findAll(Collection)}
+	 */
+	protected Map<String, JobSummary> getJobsByName(Collection<String> deploymentIds) {
+		return jobIndex.findAll(deploymentIds);
+	}
+
+	/**
+	 * Plan the Job (<code>/v1/job/:id/plan</code>) and only register it if it differs from the
+	 * registered Job. The Job is registered with check-and-set on the planned
+	 * <code>JobModifyIndex</code>, so a Job that was modified (or registered) after it was planned
+	 * is not overwritten.
+	 *
+	 * @return the evaluation of the registration, <code>null</code> if nothing changed
+	 * @throws IllegalStateException if the Job was modified concurrently
+	 */
+	protected JobEvalResult planAndRegisterJob(JobSpec jobSpec) {
+		JobPlanResponse plan = nomadApi.planJob(jobSpec.getId(), new JobPlanRequest(jobSpec));
+		if (!plan.hasChanges()) {
+			logger.info("Job '{}' is unchanged, not registering", jobSpec.getId());
+			return null;
+		}
+
+		if (plan.getAnnotations() != null) {
+			plan.getAnnotations().getDesiredTaskGroupUpdates().forEach((taskGroup, updates) -> logger
+					.info("Planned updates of TaskGroup '{}' of Job '{}': {}", taskGroup, jobSpec.getId(), updates));
+		}
+
+		try {
+			JobEvalResult jobEvalResult = nomadApi
+					.registerJob(new JobRegistration(jobSpec, plan.getJobModifyIndex()));
+			logger.info("Registered Job '{}' at JobModifyIndex {}: {}", jobSpec.getId(), plan.getJobModifyIndex(),
+					jobEvalResult);
+			return jobEvalResult;
+		}
+		catch (FeignException e) {
+			if (isCheckAndSetConflict(e)) {
+				throw new IllegalStateException(String.format(
+						"Job '%s' was modified after it was planned at JobModifyIndex %d", jobSpec.getId(),
+						plan.getJobModifyIndex()), e);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Nomad rejects a registration whose check-and-set index does not match the Job's
+	 * <code>JobModifyIndex</code> with a <code>500</code> and the error
+	 * <code>Enforcing job modify index X: job exists with conflicting job modify index: Y</code>.
+	 */
+	protected boolean isCheckAndSetConflict(FeignException e) {
+		return e.status() == 500 && e.getMessage() != null
+				&& e.getMessage().contains("job exists with conflicting job modify index");
+	}
+
+	/**
+	 * Build the Job of an app, with the TaskGroups of {@link #buildTaskGroups(String,
+	 * AppDeploymentRequest, NomadDeployerProperties)}. Nomad applies <code>max_parallel</code> per
+	 * TaskGroup, so it does not limit how many instances of an indexed app, with a TaskGroup of one
+	 * allocation per instance, are replaced at once.
+	 */
+	protected JobSpec buildAppJobSpec(String deploymentId, AppDeploymentRequest request) {
+		JobSpec jobSpec = buildJobSpec(deploymentId, deployerProperties, request);
+		jobSpec.setTaskGroups(buildTaskGroups(deploymentId, request, deployerProperties));
+		if (jobSpec.getUpdate() != null && jobSpec.getTaskGroups().size() > 1) {
+			logger.warn("App '{}' has a TaskGroup per instance, max_parallel {} applies to each TaskGroup and "
+					+ "all instances are replaced at once", deploymentId, jobSpec.getUpdate().getMaxParallel());
+		}
+		return jobSpec;
+	}
+
+	/**
+	 * Deploy the app, or update it if it is already deployed. The Job is only registered if it
+	 * differs from the registered Job, see {@link #planAndRegisterJob(JobSpec)}.
+	 *
+	 * @return the evaluation of the registration, <code>null</code> if the Job was unchanged
+	 */
+	protected JobEvalResult redeploy(String deploymentId, AppDeploymentRequest request) {
+		JobEvalResult jobEvalResult = planAndRegisterJob(buildAppJobSpec(deploymentId, request));
+		if (jobEvalResult != null) {
+			logger.info("Redeployed app '{}'", deploymentId);
+		}
+
+		return jobEvalResult;
+	}
+
+	/**
+	 * Wait for the deployment started by registering an app's Job, see
+	 * {@link NomadDeploymentWatcher}. Blocking queries wait at most as long as those of the
+	 * {@link NomadJobIndex}, which the read timeout of the {@link NomadApi} accommodates.
+	 *
+	 * @param jobEvalResult the result of the registration, <code>null</code> if the Job was
+	 * unchanged, in which case the already registered allocations must have started, see
+	 * {@link NomadDeploymentWatcher#awaitAllocations(String, String, long)}
+	 * @param timeout in milliseconds
+	 */
+	protected DeploymentResult awaitDeployment(String deploymentId, JobEvalResult jobEvalResult, long timeout) {
+		NomadDeploymentWatcher watcher = new NomadDeploymentWatcher(nomadApi,
+				deployerProperties.getJobIndex().getWaitTime());
+		DeploymentResult result = jobEvalResult != null
+				? watcher.await(deploymentId, jobEvalResult.getEvalID(), timeout)
+				: watcher.awaitAllocations(deploymentId, deploymentId, timeout);
+		logger.info("Deployment of app '{}' finished: {}", deploymentId, result);
+		return result;
+	}
+
+	/**
+	 * Scale a deployed app to <code>count</code> instances by updating its registered Job, instead
+	 * of redeploying it. See {@link #scaleTaskGroups(String, List, int)}. The updated Job is
+	 * registered with {@link #planAndRegisterJob(JobSpec)}, so Nomad only places or stops
+	 * the difference in allocations.
+	 *
+	 * @return <code>true</code> if the Job was updated, <code>false</code> if the app already had
+	 * <code>count</code> instances
+	 * @throws IllegalStateException if the app is not deployed
+	 */
+	protected boolean scaleJob(String deploymentId, int count) {
+		Assert.isTrue(count >= 0, "The instance count must not be negative");
+		JobSummary jobSummary = getJobByName(deploymentId);
+		if (jobSummary == null) {
+			throw new IllegalStateException(String.format("App '%s' is not deployed", deploymentId));
+		}
+
+		Job job = nomadApi.getJob(jobSummary.getId());
+		if (job == null) {
+			throw new IllegalStateException(String.format("App '%s' is not deployed", deploymentId));
+		}
+
+		JobSpec jobSpec = new JobSpec();
+		BeanUtils.copyProperties(job, jobSpec);
+		// set by Nomad, not part of the Job specification
+		jobSpec.setStatus(null);
+		jobSpec.setStatusDescription(null);
+		jobSpec.setCreateIndex(null);
+		jobSpec.setModifyIndex(null);
+		jobSpec.setTaskGroups(scaleTaskGroups(deploymentId, job.getTaskGroups(), count));
+
+		if (planAndRegisterJob(jobSpec) == null) {
+			return false;
+		}
+
+		logger.info("Scaled app '{}' to {} instance(s)", deploymentId, count);
+		return true;
+	}
+
+	/**
+	 * Scale the TaskGroups of a Job to <code>count</code> instances. The TaskGroup count is
+	 * updated, unless the app is indexed, i.e. has a TaskGroup per instance named
+	 * <code>deploymentId-index</code>. Indexed apps are scaled down by removing the TaskGroups of
+	 * the highest indexes and scaled up by adding TaskGroups copied from the TaskGroup with the
+	 * highest index.
+	 */
+	protected List<TaskGroup> scaleTaskGroups(String deploymentId, List<TaskGroup> taskGroups, int count) {
+		TreeMap<Integer, TaskGroup> indexedTaskGroups = new TreeMap<>();
+		Pattern indexedName = Pattern.compile(Pattern.quote(deploymentId) + "-(\\d+)");
+		for (TaskGroup taskGroup : taskGroups) {
+			Matcher matcher = indexedName.matcher(taskGroup.getName());
+			if (!matcher.matches()) {
+				taskGroups.forEach(nonIndexedTaskGroup -> nonIndexedTaskGroup.setCount(count));
+				return taskGroups;
+			}
+			indexedTaskGroups.put(Integer.valueOf(matcher.group(1)), taskGroup);
+		}
+
+		Assert.isTrue(count > 0, "Indexed apps must have at least one instance");
+		Map.Entry<Integer, TaskGroup> template = indexedTaskGroups.lastEntry();
+		List<TaskGroup> scaled = new ArrayList<>();
+		for (int index = 0; index < count; index++) {
+			TaskGroup taskGroup = indexedTaskGroups.get(index);
+			scaled.add(taskGroup != null ? taskGroup
+					: copyTaskGroup(deploymentId, template.getValue(), template.getKey(), index));
+		}
+		return scaled;
+	}
+
+	/**
+	 * Copy an indexed TaskGroup, replacing the indexed id of the template with that of the new index
+	 * in the TaskGroup, Task and Service names and the Service tags, and the instance index
+	 * environment variables. Other fields, e.g. the app's arguments, are copied as is.
+	 */
+	private TaskGroup copyTaskGroup(String deploymentId, TaskGroup template, int templateIndex, int index) {
+		ObjectMapper objectMapper = NomadApiFactory.objectMapper();
+		TaskGroup taskGroup;
+		try {
+			taskGroup = objectMapper.treeToValue(objectMapper.valueToTree(template), TaskGroup.class);
+		}
+		catch (JsonProcessingException e) {
+			throw new IllegalStateException("Unable to copy TaskGroup " + template.getName(), e);
+		}
+
+		Pattern templateId = Pattern.compile(Pattern.quote(deploymentId + "-" + templateIndex) + "\\b");
+		UnaryOperator<String> indexed = value -> value == null ? null
+				: templateId.matcher(value).replaceAll(Matcher.quoteReplacement(deploymentId + "-" + index));
+		taskGroup.setName(indexed.apply(taskGroup.getName()));
+		for (Task task : taskGroup.getTasks()) {
+			task.setName(indexed.apply(task.getName()));
+			if (task.getServices() != null) {
+				task.getServices().forEach(service -> {
+					service.setName(indexed.apply(service.getName()));
+					if (service.getTags() != null) {
+						service.setTags(service.getTags().stream().map(indexed).collect(toList()));
+					}
+				});
+			}
+			if (task.getEnv() != null) {
+				task.getEnv().replace(AppDeployer.INSTANCE_INDEX_PROPERTY_KEY, String.valueOf(templateIndex),
+						String.valueOf(index));
+				task.getEnv().replace("SPRING_APPLICATION_INDEX", String.valueOf(templateIndex),
+						String.valueOf(index));
+			}
+		}
+		return taskGroup;
+	}
+
+	/**
+	 * Decide if an app that is already deployed should be updated in place, instead of failing the
+	 * deployment. The following deployment/deployer properties enable this:
+	 *
+	 * <ul>
+	 * <li>spring.cloud.deployer.nomad.redeploy</li>
+	 * </ul>
+	 */
+	protected boolean isRedeploy(AppDeploymentRequest request) {
+		String redeployProperty = request.getDeploymentProperties().get(NomadDeploymentPropertyKeys.NOMAD_REDEPLOY);
+		if (StringUtils.isEmpty(redeployProperty)) {
+			return deployerProperties.isRedeploy();
+		}
+
+		return Boolean.parseBoolean(redeployProperty.toLowerCase());
 	}
 
 	protected Integer getAppCount(AppDeploymentRequest request) {
@@ -340,8 +691,17 @@ public abstract class AbstractNomadDeployer implements NomadSupport {
 		return Math.toIntExact(ByteSizeUtils.parseToMebibytes(mem));
 	}
 
-	private Map<String, String> createMeta(AppDeploymentRequest request) {
+	/**
+	 * The Job meta, identifying the Job as deployed by this deployer (see {@link #isDeployerMeta(Map)})
+	 * plus any meta from the deployment properties.
+	 */
+	private Map<String, String> createMeta(String deploymentId, AppDeploymentRequest request) {
 		Map<String, String> metaMap = new HashMap<>();
+		metaMap.put(SPRING_APP_KEY, deploymentId);
+		String groupId = request.getDeploymentProperties().get(AppDeployer.GROUP_PROPERTY_KEY);
+		if (groupId != null) {
+			metaMap.put(SPRING_GROUP_KEY, groupId);
+		}
 		String metaValue = request.getDeploymentProperties().get(NomadDeploymentPropertyKeys.NOMAD_META);
 		if (metaValue != null) {
 			String[] metaKeyValue = metaValue.split(",");
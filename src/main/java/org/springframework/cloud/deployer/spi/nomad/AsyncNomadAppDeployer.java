@@ -0,0 +1,120 @@
+package org.springframework.cloud.deployer.spi.nomad;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
+
+import org.springframework.cloud.deployer.spi.app.AppDeployer;
+import org.springframework.cloud.deployer.spi.app.AppStatus;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Asynchronous facade over an {@link AppDeployer}, typically a {@link ResourceAwareNomadAppDeployer}.
+ * Each operation (including the status check and Job submission of a deploy) runs on a bounded pool
+ * of threads, so that the apps of a stream can be submitted to Nomad in parallel instead of one
+ * after the other. Waiting for deployments, see {@link #deployAndAwait(AppDeploymentRequest, long)},
+ * happens on a separate pool, so that a long wait does not hold up other operations. That pool is
+ * bounded as well, as each wait holds a blocking query connection to Nomad.
+ *
+ * @author Donovan Muller
+ */
+public class AsyncNomadAppDeployer {
+
+	private final AppDeployer appDeployer;
+	private final ExecutorService executor;
+	private final ExecutorService awaitExecutor;
+
+	/**
+	 * @param concurrency the maximum number of operations that will run against Nomad at once
+	 */
+	public AsyncNomadAppDeployer(AppDeployer appDeployer, int concurrency) {
+		this(appDeployer, concurrency, concurrency);
+	}
+
+	/**
+	 * @param awaitConcurrency the maximum number of deployments that will be awaited at once,
+	 * further waits are queued
+	 */
+	public AsyncNomadAppDeployer(AppDeployer appDeployer, int concurrency, int awaitConcurrency) {
+		this(appDeployer, Executors.newFixedThreadPool(concurrency, threadFactory("nomad-deployer-")),
+				Executors.newFixedThreadPool(awaitConcurrency, threadFactory("nomad-deployer-await-")));
+	}
+
+	/**
+	 * @param awaitExecutor waits for deployments, each wait holds one of its threads until the
+	 * deployment finishes or the timeout elapses
+	 */
+	public AsyncNomadAppDeployer(AppDeployer appDeployer, ExecutorService executor, ExecutorService awaitExecutor) {
+		this.appDeployer = appDeployer;
+		this.executor = executor;
+		this.awaitExecutor = awaitExecutor;
+	}
+
+	/**
+	 * See {@link AppDeployer#deploy(AppDeploymentRequest)}
+	 *
+	 * @return the deployment id once the Job has been submitted
+	 */
+	public CompletableFuture<String> deploy(AppDeploymentRequest request) {
+		return CompletableFuture.supplyAsync(() -> appDeployer.deploy(request), executor);
+	}
+
+	/**
+	 * Deploy all the requests in parallel.
+	 *
+	 * @return the deployment ids, in the order of the requests, once all Jobs have been submitted.
+	 * Completes exceptionally if any deployment fails
+	 */
+	public CompletableFuture<List<String>> deployAll(List<AppDeploymentRequest> requests) {
+		List<CompletableFuture<String>> deployments = requests.stream().map(this::deploy).collect(toList());
+		return CompletableFuture.allOf(deployments.toArray(new CompletableFuture<?>[0]))
+				.thenApply(done -> deployments.stream().map(CompletableFuture::join).collect(toList()));
+	}
+
+	/**
+	 * See {@link AwaitableAppDeployer#deployAndAwait(AppDeploymentRequest, long)}. The Job is
+	 * registered on the bounded pool and the deployment awaited on the await pool, so waiting
+	 * deployments do not take threads from other operations.
+	 *
+	 * @return the result once the app is deployed, could not be placed, failed or the timeout
+	 * elapsed. Completes exceptionally if the app deployer cannot await deployments
+	 */
+	public CompletableFuture<DeploymentResult> deployAndAwait(AppDeploymentRequest request, long timeout) {
+		return CompletableFuture.supplyAsync(() -> {
+			Assert.isInstanceOf(AwaitableAppDeployer.class, appDeployer);
+			return ((AwaitableAppDeployer) appDeployer).deployAwaitable(request, timeout);
+		}, executor).thenApplyAsync(Supplier::get, awaitExecutor);
+	}
+
+	/**
+	 * See {@link AppDeployer#undeploy(String)}
+	 */
+	public CompletableFuture<Void> undeploy(String id) {
+		return CompletableFuture.runAsync(() -> appDeployer.undeploy(id), executor);
+	}
+
+	/**
+	 * See {@link AppDeployer#status(String)}
+	 */
+	public CompletableFuture<AppStatus> status(String id) {
+		return CompletableFuture.supplyAsync(() -> appDeployer.status(id), executor);
+	}
+
+	public void shutdown() {
+		executor.shutdown();
+		awaitExecutor.shutdown();
+	}
+
+	private static ThreadFactory threadFactory(String threadNamePrefix) {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+		threadFactory.setDaemon(true);
+		return threadFactory;
+	}
+}
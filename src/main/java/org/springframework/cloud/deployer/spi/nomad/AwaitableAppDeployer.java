@@ -0,0 +1,35 @@
+package org.springframework.cloud.deployer.spi.nomad;
+
+import java.util.function.Supplier;
+
+import org.springframework.cloud.deployer.spi.app.AppDeployer;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+
+/**
+ * An {@link AppDeployer} that can deploy an app and wait until Nomad has deployed it, instead of
+ * returning as soon as the Job is registered and leaving callers to poll {@link #status(String)}.
+ *
+ * @author Donovan Muller
+ */
+public interface AwaitableAppDeployer extends AppDeployer {
+
+	/**
+	 * Deploy the app, see {@link AppDeployer#deploy(AppDeploymentRequest)}, and wait until it is
+	 * deployed, could not be placed, failed or the timeout elapses. See
+	 * {@link NomadDeploymentWatcher}.
+	 *
+	 * @param timeout in milliseconds
+	 */
+	default DeploymentResult deployAndAwait(AppDeploymentRequest request, long timeout) {
+		return deployAwaitable(request, timeout).get();
+	}
+
+	/**
+	 * Deploy the app, see {@link AppDeployer#deploy(AppDeploymentRequest)}, without waiting. The
+	 * returned {@link Supplier} waits as {@link #deployAndAwait(AppDeploymentRequest, long)} does,
+	 * so that the Job can be registered and the deployment awaited on different threads.
+	 *
+	 * @param timeout in milliseconds, from when the {@link Supplier} is called
+	 */
+	Supplier<DeploymentResult> deployAwaitable(AppDeploymentRequest request, long timeout);
+}
@@ -0,0 +1,130 @@
+package org.springframework.cloud.deployer.spi.nomad;
+
+import static java.util.stream.Collectors.toMap;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.springframework.cloud.deployer.spi.nomad.client.BlockingQueryWatch;
+import org.springframework.cloud.deployer.spi.nomad.client.IndexedResponse;
+
+import com.ecwid.consul.v1.ConsulClient;
+import com.ecwid.consul.v1.QueryParams;
+import com.ecwid.consul.v1.Response;
+import com.ecwid.consul.v1.health.model.Check;
+
+/**
+ * Keeps the health checks of every service in memory, keyed by service name. The checks are kept
+ * current with a Consul
+ * <a href="https://www.consul.io/api/index.html#blocking-queries">blocking query</a> against
+ * <code>/v1/health/state/any</code>, so that app status requires no Consul requests. If the watch
+ * fails, checks are read directly until the watch recovers. Listeners can subscribe to health
+ * changes instead of issuing their own blocking queries.
+ *
+ * @author Donovan Muller
+ */
+public class ConsulHealthCache extends ConsulHealthChecks {
+
+	private final BlockingQueryWatch<List<Check>> checksWatch;
+
+	private volatile Map<String, Check> checks = Collections.emptyMap();
+
+	private final List<Consumer<Map<String, Check>>> listeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * @param waitTime the maximum time (in milliseconds) a blocking query will wait for changes.
+	 * Should be less than the read timeout of the {@link ConsulClient}
+	 */
+	public ConsulHealthCache(ConsulClient consul, long waitTime) {
+		this(consul, waitTime, NomadMetrics.NONE);
+	}
+
+	public ConsulHealthCache(ConsulClient consul, long waitTime, NomadMetrics metrics) {
+		super(consul, metrics);
+
+		long waitSeconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(waitTime));
+		this.checksWatch = new BlockingQueryWatch<>("consul-health-cache",
+				index -> toIndexedResponse(record("health.state", true,
+						() -> consul.getHealthChecksState(new QueryParams(waitSeconds, index)))),
+				this::onChecks);
+	}
+
+	/**
+	 * Get the first health check of each of the services. Served from memory when the cache is in
+	 * sync, otherwise from Consul.
+	 */
+	@Override
+	public Map<String, Check> getChecks(Collection<String> serviceNames) {
+		if (isSynced()) {
+			Map<String, Check> current = checks;
+			return serviceNames.stream()
+					.filter(current::containsKey)
+					.distinct()
+					.collect(toMap(Function.identity(), current::get));
+		}
+
+		return super.getChecks(serviceNames);
+	}
+
+	/**
+	 * The first health check of every service, keyed by service name, as last observed. Empty until
+	 * the cache is in sync.
+	 */
+	public Map<String, Check> getChecks() {
+		return checks;
+	}
+
+	/**
+	 * Called with the first health check of every service, keyed by service name, whenever the
+	 * checks change.
+	 */
+	public void addListener(Consumer<Map<String, Check>> listener) {
+		listeners.add(listener);
+	}
+
+	public void removeListener(Consumer<Map<String, Check>> listener) {
+		listeners.remove(listener);
+	}
+
+	@Override
+	public void start() {
+		checksWatch.start();
+	}
+
+	@Override
+	public void stop() {
+		checksWatch.stop();
+	}
+
+	public boolean isSynced() {
+		return checksWatch.isSynced();
+	}
+
+	/**
+	 * The <code>X-Consul-Index</code> of the last observed health state.
+	 */
+	public long getLastIndex() {
+		return checksWatch.getLastIndex();
+	}
+
+	private void onChecks(List<Check> allChecks) {
+		checks = Collections.unmodifiableMap(allChecks.stream()
+				.filter(check -> check.getServiceName() != null && !check.getServiceName().isEmpty())
+				.collect(toMap(Check::getServiceName, Function.identity(), (first, second) -> first)));
+
+		Map<String, Check> current = checks;
+		listeners.forEach(listener -> listener.accept(current));
+	}
+
+	private IndexedResponse<List<Check>> toIndexedResponse(Response<List<Check>> response) {
+		return new IndexedResponse<>(response.getValue(),
+				response.getConsulIndex() != null ? response.getConsulIndex() : 0,
+				response.getConsulLastContact() != null ? response.getConsulLastContact() : 0);
+	}
+}
@@ -0,0 +1,108 @@
+package org.springframework.cloud.deployer.spi.nomad;
+
+import static java.util.stream.Collectors.toMap;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ecwid.consul.v1.ConsulClient;
+import com.ecwid.consul.v1.QueryParams;
+import com.ecwid.consul.v1.health.model.Check;
+
+/**
+ * Resolves the Consul health checks of several services at once. Checks for a single service are
+ * read with <code>/v1/health/checks/:service</code>, checks for multiple services (e.g. the
+ * TaskGroups of an indexed app) are read with a single <code>/v1/health/state/any</code> query and
+ * joined by service name, instead of a query per service. Every request is recorded with
+ * {@link NomadMetrics}.
+ *
+ * @author Donovan Muller
+ */
+public class ConsulHealthChecks {
+
+	private static final Logger logger = LoggerFactory.getLogger(ConsulHealthChecks.class);
+
+	private final ConsulClient consul;
+	private final NomadMetrics metrics;
+
+	public ConsulHealthChecks(ConsulClient consul) {
+		this(consul, NomadMetrics.NONE);
+	}
+
+	public ConsulHealthChecks(ConsulClient consul, NomadMetrics metrics) {
+		this.consul = consul;
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Get the first health check of each of the services.
+	 *
+	 * @return the health check keyed by service name, services without a check are absent
+	 */
+	public Map<String, Check> getChecks(Collection<String> serviceNames) {
+		Set<String> services = new HashSet<>(serviceNames);
+		if (services.isEmpty()) {
+			return Collections.emptyMap();
+		}
+
+		List<Check> checks;
+		if (services.size() == 1) {
+			String service = services.iterator().next();
+			checks = record("health.checks", false,
+					() -> consul.getHealthChecksForService(service, QueryParams.DEFAULT).getValue());
+		}
+		else {
+			checks = getAllChecks();
+		}
+		logger.debug("Health checks for '{}': {}", services, checks);
+
+		return checks.stream()
+				.filter(check -> services.contains(check.getServiceName()))
+				.collect(toMap(Check::getServiceName, Function.identity(), (first, second) -> first));
+	}
+
+	/**
+	 * Has no effect, see {@link ConsulHealthCache#start()}.
+	 */
+	public void start() {
+	}
+
+	public void stop() {
+	}
+
+	/**
+	 * All health checks in the Consul datacenter.
+	 */
+	protected List<Check> getAllChecks() {
+		return record("health.state", false, () -> consul.getHealthChecksState(QueryParams.DEFAULT).getValue());
+	}
+
+	/**
+	 * Make a Consul request, recording its duration and outcome.
+	 */
+	protected <T> T record(String operation, boolean blocking, Supplier<T> request) {
+		long start = System.nanoTime();
+		try {
+			T result = request.get();
+			metrics.recordConsulRequest(operation, blocking, System.nanoTime() - start, null);
+			return result;
+		}
+		catch (RuntimeException e) {
+			metrics.recordConsulRequest(operation, blocking, System.nanoTime() - start, e);
+			throw e;
+		}
+	}
+
+	protected ConsulClient getConsul() {
+		return consul;
+	}
+}
@@ -0,0 +1,67 @@
+package org.springframework.cloud.deployer.spi.nomad;
+
+/**
+ * The outcome of waiting for an app deployment, see {@link NomadDeploymentWatcher}.
+ *
+ * @author Donovan Muller
+ */
+public class DeploymentResult {
+
+	public enum Outcome {
+
+		/**
+		 * The Nomad deployment succeeded or, for Jobs without an update stanza, all allocations
+		 * started, i.e. are <code>running</code> (or <code>complete</code>, for batch Jobs).
+		 */
+		DEPLOYED,
+
+		/**
+		 * Some allocations could not be placed, e.g. because no node has enough resources. Nomad
+		 * keeps a blocked evaluation, which places them once resources become available.
+		 */
+		PLACEMENT_FAILED,
+
+		/**
+		 * The evaluation or the Nomad deployment failed, e.g. because allocations were unhealthy, or,
+		 * for Jobs without an update stanza, an allocation failed or was lost.
+		 */
+		FAILED,
+
+		/**
+		 * The deployment did not finish in time, e.g. because canaries still have to be promoted.
+		 */
+		TIMED_OUT
+	}
+
+	private final String deploymentId;
+	private final Outcome outcome;
+	private final String description;
+
+	public DeploymentResult(String deploymentId, Outcome outcome, String description) {
+		this.deploymentId = deploymentId;
+		this.outcome = outcome;
+		this.description = description;
+	}
+
+	public boolean isDeployed() {
+		return outcome == Outcome.DEPLOYED;
+	}
+
+	public String getDeploymentId() {
+		return deploymentId;
+	}
+
+	public Outcome getOutcome() {
+		return outcome;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	@Override
+	public String toString() {
+		return "DeploymentResult{" + "deploymentId='" + deploymentId + '\'' + ", outcome=" + outcome
+				+ ", description='" + description + '\'' + '}';
+	}
+}
@@ -0,0 +1,100 @@
+package org.springframework.cloud.deployer.spi.nomad;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Publishes {@link NomadMetrics} to a Micrometer {@link MeterRegistry}:
+ * <ul>
+ * <li><code>nomad.requests</code>: timer tagged with <code>method</code>, <code>uri</code>,
+ * <code>status</code>, <code>outcome</code> and <code>blocking</code></li>
+ * <li><code>consul.requests</code>: timer tagged with <code>operation</code>,
+ * <code>outcome</code>, <code>exception</code> and <code>blocking</code></li>
+ * <li><code>nomad.artifact.download.bytes</code>: distribution summary of every download, tagged
+ * with <code>status</code>, <code>outcome</code> and <code>sendfile</code></li>
+ * <li><code>nomad.artifact.downloads</code>: timer tagged with <code>status</code> and
+ * <code>outcome</code>. Downloads served with sendfile are not timed, the container writes them
+ * after the request has been handled</li>
+ * </ul>
+ *
+ * @author Donovan Muller
+ */
+public class MicrometerNomadMetrics implements NomadMetrics {
+
+	private final MeterRegistry registry;
+
+	public MicrometerNomadMetrics(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	public void recordNomadRequest(String method, String uri, int status, boolean blocking, long durationNanos,
+			Throwable exception) {
+		//@formatter:off
+		Timer.builder("nomad.requests")
+			.description("Requests made to the Nomad HTTP API")
+			.tag("method", method)
+			.tag("uri", uri)
+			.tag("status", exception != null ? "IO_ERROR" : String.valueOf(status))
+			.tag("outcome", outcome(status, exception))
+			.tag("blocking", String.valueOf(blocking))
+			.register(registry)
+			.record(durationNanos, TimeUnit.NANOSECONDS);
+		//@formatter:on
+	}
+
+	@Override
+	public void recordConsulRequest(String operation, boolean blocking, long durationNanos, Throwable exception) {
+		//@formatter:off
+		Timer.builder("consul.requests")
+			.description("Requests made to the Consul HTTP API")
+			.tag("operation", operation)
+			.tag("outcome", exception != null ? "ERROR" : "SUCCESS")
+			.tag("exception", exception != null ? exception.getClass().getSimpleName() : "None")
+			.tag("blocking", String.valueOf(blocking))
+			.register(registry)
+			.record(durationNanos, TimeUnit.NANOSECONDS);
+		//@formatter:on
+	}
+
+	@Override
+	public void recordArtifactDownload(int status, long bytes, long durationNanos, boolean sendfile) {
+		//@formatter:off
+		DistributionSummary.builder("nomad.artifact.download.bytes")
+			.description("Bytes of artifacts served to Nomad clients")
+			.baseUnit("bytes")
+			.tag("status", String.valueOf(status))
+			.tag("outcome", outcome(status, null))
+			.tag("sendfile", String.valueOf(sendfile))
+			.register(registry)
+			.record(bytes);
+		if (!sendfile) {
+			Timer.builder("nomad.artifact.downloads")
+				.description("Artifacts written to Nomad clients")
+				.tag("status", String.valueOf(status))
+				.tag("outcome", outcome(status, null))
+				.register(registry)
+				.record(durationNanos, TimeUnit.NANOSECONDS);
+		}
+		//@formatter:on
+	}
+
+	private String outcome(int status, Throwable exception) {
+		if (exception != null) {
+			return "UNKNOWN";
+		}
+		if (status >= 500) {
+			return "SERVER_ERROR";
+		}
+		if (status >= 400) {
+			return "CLIENT_ERROR";
+		}
+		if (status >= 300) {
+			return "REDIRECTION";
+		}
+		return "SUCCESS";
+	}
+}
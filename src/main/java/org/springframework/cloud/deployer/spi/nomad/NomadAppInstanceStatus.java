@@ -3,22 +3,35 @@ package org.springframework.cloud.deployer.spi.nomad;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import org.springframework.cloud.deployer.spi.app.AppInstanceStatus;
 import org.springframework.cloud.deployer.spi.app.DeploymentState;
 
+import io.github.zanella.nomad.v1.common.models.AllocationSummary;
 import io.github.zanella.nomad.v1.nodes.models.NodeAllocation;
 import io.github.zanella.nomad.v1.nodes.models.Resources;
 
 /**
+ * The id and state are derived from the allocation summary (as returned by
+ * <code>/v1/job/:id/allocations</code>). The full allocation, only required for the attributes, is
+ * fetched lazily the first time {@link #getAttributes()} is called.
+ *
  * @author Donovan Muller
  */
 public class NomadAppInstanceStatus implements AppInstanceStatus {
 
-	private NodeAllocation allocation;
+	private AllocationSummary allocation;
+	private Supplier<NodeAllocation> allocationDetails;
+	private volatile NodeAllocation nodeAllocation;
 
 	public NomadAppInstanceStatus(NodeAllocation allocation) {
+		this(allocation, () -> allocation);
+	}
+
+	public NomadAppInstanceStatus(AllocationSummary allocation, Supplier<NodeAllocation> allocationDetails) {
 		this.allocation = allocation;
+		this.allocationDetails = allocationDetails;
 	}
 
 	@Override
@@ -68,6 +81,10 @@ public class NomadAppInstanceStatus implements AppInstanceStatus {
 		result.put("job_id", allocation.getJobId());
 		result.put("evaluation_id", allocation.getEvalId());
 		result.put("node_id", allocation.getNodeId());
+		NodeAllocation allocation = getAllocationDetails();
+		if (allocation == null) {
+			return result;
+		}
 		if (allocation.getJob() != null) {
 			Map<String, String> meta = allocation.getJob().getMeta();
 			if (meta != null && !meta.isEmpty()) {
@@ -106,4 +123,16 @@ public class NomadAppInstanceStatus implements AppInstanceStatus {
 		}
 		return result;
 	}
+
+	protected NodeAllocation getAllocationDetails() {
+		if (nodeAllocation == null && allocationDetails != null) {
+			synchronized (this) {
+				if (nodeAllocation == null) {
+					nodeAllocation = allocationDetails.get();
+				}
+			}
+		}
+
+		return nodeAllocation;
+	}
 }
@@ -4,19 +4,29 @@ import java.net.SocketException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.AutoConfigureOrder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.embedded.EmbeddedServletContainerInitializedEvent;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.deployer.resource.maven.MavenProperties;
 import org.springframework.cloud.deployer.spi.app.AppDeployer;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApi;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApiFactory;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadClientFactory;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadHttpTransport;
 import org.springframework.cloud.deployer.spi.nomad.docker.DockerNomadTaskLauncher;
 import org.springframework.cloud.deployer.spi.nomad.docker.IndexingDockerNomadAppDeployer;
 import org.springframework.cloud.deployer.spi.nomad.maven.IndexingMavenNomadAppDeployer;
 import org.springframework.cloud.deployer.spi.nomad.maven.MavenNomadTaskLauncher;
 import org.springframework.cloud.deployer.spi.nomad.maven.MavenResourceController;
 import org.springframework.cloud.deployer.spi.nomad.maven.MavenResourceResolver;
+import org.springframework.cloud.deployer.spi.nomad.maven.ResourceChecksum;
 import org.springframework.cloud.deployer.spi.task.TaskLauncher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -27,6 +37,7 @@ import org.springframework.core.env.Environment;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import io.github.zanella.nomad.NomadClient;
+import io.micrometer.core.instrument.MeterRegistry;
 
 /**
  * @author Donovan Muller
@@ -34,6 +45,9 @@ import io.github.zanella.nomad.NomadClient;
 @Configuration
 @EnableConfigurationProperties(NomadDeployerProperties.class)
 @AutoConfigureOrder(Ordered.HIGHEST_PRECEDENCE)
+// the MeterRegistry must be defined before NomadMetricsConfiguration is evaluated
+@AutoConfigureAfter(name = { "io.micrometer.spring.autoconfigure.MetricsAutoConfiguration",
+		"io.micrometer.spring.autoconfigure.CompositeMeterRegistryAutoConfiguration" })
 public class NomadAutoConfiguration {
 
 	private NomadDeployerProperties deployerProperties;
@@ -42,32 +56,116 @@ public class NomadAutoConfiguration {
 		this.deployerProperties = deployerProperties;
 	}
 
+	/**
+	 * Records nothing, unless {@link NomadMetricsConfiguration} (a member class, so its beans are
+	 * registered before this one) or the application defines {@link NomadMetrics}.
+	 */
 	@Bean
-	public NomadClient nomadClient() {
-		return new NomadClient(deployerProperties.getNomadHost(), deployerProperties.getNomadPort());
+	@ConditionalOnMissingBean
+	public NomadMetrics nomadMetrics() {
+		return NomadMetrics.NONE;
+	}
+
+	@Bean(destroyMethod = "close")
+	public NomadHttpTransport nomadHttpTransport(NomadMetrics nomadMetrics) {
+		return new NomadHttpTransport(deployerProperties, nomadMetrics);
+	}
+
+	@Bean
+	public NomadClient nomadClient(NomadHttpTransport nomadHttpTransport) {
+		return new NomadClientFactory(deployerProperties, nomadHttpTransport).create();
+	}
+
+	@Bean
+	public NomadApi nomadApi(NomadHttpTransport nomadHttpTransport) {
+		return new NomadApiFactory(deployerProperties, nomadHttpTransport).create();
+	}
+
+	@Bean(initMethod = "start", destroyMethod = "stop")
+	public NomadJobIndex nomadJobIndex(NomadClient nomadClient, NomadApi nomadApi) {
+		if (deployerProperties.getStateCache().isEnabled() || deployerProperties.getStateEvents().isEnabled()) {
+			return new NomadClusterStateCache(nomadClient, nomadApi,
+					deployerProperties.getJobIndex().getWaitTime());
+		}
+
+		if (deployerProperties.getJobIndex().isEnabled()) {
+			return new NomadJobIndex(nomadClient, nomadApi, deployerProperties.getJobIndex().getWaitTime());
+		}
+
+		return new NomadJobIndex(nomadClient);
+	}
+
+	@Bean
+	public AppDeployer appDeployer(NomadClient nomadClient, NomadApi nomadApi, NomadJobIndex jobIndex,
+			ResourceChecksum resourceChecksum) {
+		return new ResourceAwareNomadAppDeployer(
+				new IndexingDockerNomadAppDeployer(nomadClient, nomadApi, jobIndex, deployerProperties),
+				new IndexingMavenNomadAppDeployer(nomadClient, nomadApi, jobIndex, resourceChecksum,
+						deployerProperties));
+	}
+
+	@Bean(destroyMethod = "shutdown")
+	public AsyncNomadAppDeployer asyncAppDeployer(AppDeployer appDeployer) {
+		return new AsyncNomadAppDeployer(appDeployer, deployerProperties.getDeploymentConcurrency(),
+				deployerProperties.getAwaitConcurrency());
+	}
+
+	@Bean(destroyMethod = "shutdown")
+	public TaskLauncher taskLauncher(NomadClient nomadClient, NomadApi nomadApi, NomadJobIndex jobIndex) {
+		return new ResourceAwareNomadTaskLauncher(
+				new DockerNomadTaskLauncher(nomadClient, nomadApi, jobIndex, deployerProperties),
+				new MavenNomadTaskLauncher(nomadClient, nomadApi, jobIndex, deployerProperties),
+				deployerProperties.getLaunchConcurrency());
+	}
+
+	@Bean(initMethod = "start", destroyMethod = "stop")
+	@ConditionalOnProperty(prefix = "spring.cloud.deployer.nomad.stateEvents", name = "enabled")
+	public NomadStateEvents nomadStateEvents(NomadClient nomadClient, NomadJobIndex jobIndex,
+			ObjectProvider<ConsulHealthChecks> healthChecks, AppDeployer appDeployer, TaskLauncher taskLauncher) {
+		ConsulHealthChecks consulHealthChecks = healthChecks.getIfAvailable();
+		return new NomadStateEvents(nomadClient, (NomadClusterStateCache) jobIndex,
+				consulHealthChecks instanceof ConsulHealthCache ? (ConsulHealthCache) consulHealthChecks : null,
+				appDeployer, taskLauncher);
 	}
 
 	@Bean
-	public AppDeployer appDeployer(NomadClient nomadClient) {
-		return new ResourceAwareNomadAppDeployer(new IndexingDockerNomadAppDeployer(nomadClient, deployerProperties),
-				new IndexingMavenNomadAppDeployer(nomadClient, deployerProperties));
+	@ConditionalOnProperty(prefix = "spring.cloud.deployer.nomad.stateEvents", name = "enabled")
+	public NomadStateEventController nomadStateEventController(NomadStateEvents stateEvents) {
+		return new NomadStateEventController(stateEvents);
 	}
 
 	@Bean
-	public TaskLauncher taskLauncher(NomadClient nomadClient) {
-		return new ResourceAwareNomadTaskLauncher(new DockerNomadTaskLauncher(nomadClient, deployerProperties),
-				new MavenNomadTaskLauncher(nomadClient, deployerProperties));
+	public ResourceChecksum resourceChecksum() {
+		return new ResourceChecksum();
 	}
 
 	@Bean
 	public MavenResourceResolver mavenResourceResolver(MavenProperties mavenProperties) {
-		return new MavenResourceResolver(mavenProperties);
+		return new MavenResourceResolver(mavenProperties, deployerProperties.getResolverCache().getMaxEntries(),
+				deployerProperties.getResolverCache().getSnapshotTtl());
 	}
 
 	@Bean
 	@ConditionalOnMissingBean
-	public MavenResourceController mavenResourceController(MavenResourceResolver mavenResourceResolver) {
-		return new MavenResourceController(mavenResourceResolver);
+	public MavenResourceController mavenResourceController(MavenResourceResolver mavenResourceResolver,
+			ResourceChecksum resourceChecksum, NomadMetrics nomadMetrics) {
+		return new MavenResourceController(mavenResourceResolver, resourceChecksum, nomadMetrics);
+	}
+
+	/**
+	 * Publishes {@link NomadMetrics} to the {@link MeterRegistry}, if Micrometer is on the classpath
+	 * and a registry is configured.
+	 */
+	@Configuration
+	@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+	@ConditionalOnBean(type = "io.micrometer.core.instrument.MeterRegistry")
+	public static class NomadMetricsConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		public NomadMetrics nomadMetrics(MeterRegistry meterRegistry) {
+			return new MicrometerNomadMetrics(meterRegistry);
+		}
 	}
 
 	@Configuration
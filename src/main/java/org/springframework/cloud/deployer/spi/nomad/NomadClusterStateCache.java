@@ -0,0 +1,139 @@
+package org.springframework.cloud.deployer.spi.nomad;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toMap;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.springframework.cloud.deployer.spi.nomad.client.BlockingQueryWatch;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApi;
+
+import io.github.zanella.nomad.NomadClient;
+import io.github.zanella.nomad.v1.jobs.models.JobAllocation;
+import io.github.zanella.nomad.v1.jobs.models.JobSummary;
+
+/**
+ * A {@link NomadJobIndex} that also keeps every allocation in the cluster in memory, grouped by
+ * Job ID. Both <code>/v1/jobs</code> and <code>/v1/allocations</code> are long polled with
+ * <a href="https://www.nomadproject.io/docs/http/index.html#blocking-queries">blocking
+ * queries</a>, so that app and task status can be served without calling Nomad.
+ * <p>
+ * Staleness is bounded by the blocking queries themselves: any change is observed as soon as Nomad
+ * reports it. If either watch fails, lookups fall back to direct reads until the watch recovers.
+ * Listeners can subscribe to allocation changes instead of issuing their own blocking queries.
+ *
+ * @author Donovan Muller
+ */
+public class NomadClusterStateCache extends NomadJobIndex {
+
+	private final BlockingQueryWatch<List<JobAllocation>> allocationsWatch;
+
+	private final Map<String, List<JobAllocation>> allocations = new ConcurrentHashMap<>();
+
+	private final List<Consumer<Map<String, List<JobAllocation>>>> listeners = new CopyOnWriteArrayList<>();
+
+	public NomadClusterStateCache(NomadClient client, NomadApi nomadApi, long waitTime) {
+		super(client, nomadApi, waitTime);
+
+		this.allocationsWatch = new BlockingQueryWatch<>("nomad-allocations-cache",
+				index -> nomadApi.getAllocations(index, String.format("%dms", waitTime)), this::onAllocations);
+	}
+
+	/**
+	 * The allocations for the specified Job. Served from memory when the cache is in sync,
+	 * otherwise with a direct read.
+	 */
+	@Override
+	public List<JobAllocation> getJobAllocations(JobSummary job) {
+		if (isSynced()) {
+			return allocations.getOrDefault(job.getId(), Collections.emptyList());
+		}
+
+		return super.getJobAllocations(job);
+	}
+
+	/**
+	 * The allocations for all the specified Jobs, keyed by Job ID. Served from memory when the
+	 * cache is in sync, otherwise with a single list of all allocations.
+	 */
+	@Override
+	public Map<String, List<JobAllocation>> getJobAllocations(Collection<JobSummary> jobs) {
+		if (isSynced()) {
+			return jobs.stream()
+					.map(JobSummary::getId)
+					.filter(allocations::containsKey)
+					.distinct()
+					.collect(toMap(Function.identity(), allocations::get));
+		}
+
+		return super.getJobAllocations(jobs);
+	}
+
+	/**
+	 * All the allocations in the cluster, keyed by Job ID, as last observed. Empty until the cache
+	 * is in sync.
+	 */
+	public Map<String, List<JobAllocation>> getAllocations() {
+		return Collections.unmodifiableMap(allocations);
+	}
+
+	/**
+	 * Called with all the allocations in the cluster, keyed by Job ID, whenever they change.
+	 */
+	public void addListener(Consumer<Map<String, List<JobAllocation>>> listener) {
+		listeners.add(listener);
+	}
+
+	public void removeListener(Consumer<Map<String, List<JobAllocation>>> listener) {
+		listeners.remove(listener);
+	}
+
+	@Override
+	public void start() {
+		super.start();
+		allocationsWatch.start();
+	}
+
+	@Override
+	public void stop() {
+		allocationsWatch.stop();
+		super.stop();
+	}
+
+	@Override
+	public boolean isSynced() {
+		return super.isSynced() && allocationsWatch.isSynced();
+	}
+
+	/**
+	 * The <code>X-Nomad-Index</code> of the last observed allocation state.
+	 */
+	public long getLastAllocationIndex() {
+		return allocationsWatch.getLastIndex();
+	}
+
+	/**
+	 * How far behind the Nomad leader (in milliseconds) the cached state was when last updated,
+	 * based on the <code>X-Nomad-LastContact</code> of the Job and allocation queries.
+	 */
+	public long getLag() {
+		return Math.max(getJobsWatch().getLastContact(), allocationsWatch.getLastContact());
+	}
+
+	private void onAllocations(List<JobAllocation> jobAllocations) {
+		Map<String, List<JobAllocation>> allocationsByJob = jobAllocations.stream()
+				.collect(groupingBy(JobAllocation::getJobId));
+		allocations.putAll(allocationsByJob);
+		allocations.keySet().retainAll(allocationsByJob.keySet());
+
+		Map<String, List<JobAllocation>> current = Collections.unmodifiableMap(allocationsByJob);
+		listeners.forEach(listener -> listener.accept(current));
+	}
+}
@@ -1,11 +1,13 @@
 package org.springframework.cloud.deployer.spi.nomad;
 
 import java.util.Map;
+import java.util.function.Supplier;
 
 import org.springframework.cloud.deployer.spi.app.DeploymentState;
 
 import com.ecwid.consul.v1.health.model.Check;
 
+import io.github.zanella.nomad.v1.common.models.AllocationSummary;
 import io.github.zanella.nomad.v1.nodes.models.NodeAllocation;
 
 /**
@@ -13,11 +15,16 @@ import io.github.zanella.nomad.v1.nodes.models.NodeAllocation;
  */
 public class NomadConsulAppInstanceStatus extends NomadAppInstanceStatus {
 
-	private NodeAllocation allocation;
+	private AllocationSummary allocation;
 	private Check check;
 
 	public NomadConsulAppInstanceStatus(NodeAllocation allocation, Check check) {
-		super(allocation);
+		this(allocation, () -> allocation, check);
+	}
+
+	public NomadConsulAppInstanceStatus(AllocationSummary allocation, Supplier<NodeAllocation> allocationDetails,
+			Check check) {
+		super(allocation, allocationDetails);
 
 		this.allocation = allocation;
 		this.check = check;
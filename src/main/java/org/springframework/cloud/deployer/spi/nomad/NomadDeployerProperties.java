@@ -129,6 +129,445 @@ public class NomadDeployerProperties {
 
 	}
 
+	/**
+	 * Configuration properties for the {@link NomadJobIndex}.
+	 */
+	public static class JobIndex {
+
+		/**
+		 * Keep an in-memory index of Jobs current using blocking queries against
+		 * <code>/v1/jobs</code>. When disabled, Jobs are resolved with a direct read. Default is
+		 * <code>false</code>.
+		 */
+		private boolean enabled;
+
+		/**
+		 * The maximum time a blocking query will wait for changes. Specified in
+		 * <b>milliseconds</b>. Default is 60000 milliseconds (60 seconds). See
+		 * https://www.nomadproject.io/docs/http/index.html#blocking-queries
+		 */
+		private Long waitTime = 60000L;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Long getWaitTime() {
+			return waitTime;
+		}
+
+		public void setWaitTime(Long waitTime) {
+			this.waitTime = waitTime;
+		}
+
+	}
+
+	/**
+	 * Configuration properties for the {@link ConsulHealthCache}. Only applicable
+	 * when Consul is enabled.
+	 */
+	public static class HealthCache {
+
+		/**
+		 * Keep the health checks of all services in memory using blocking queries against
+		 * <code>/v1/health/state/any</code>. When disabled, health checks are read from Consul on every
+		 * status request. Default is <code>false</code>.
+		 */
+		private boolean enabled;
+
+		/**
+		 * The maximum time a blocking query will wait for changes. Specified in
+		 * <b>milliseconds</b>, with a resolution of seconds. Must be less than the Consul client read
+		 * timeout. Default is 30000 milliseconds (30 seconds). See
+		 * https://www.consul.io/api/index.html#blocking-queries
+		 */
+		private Long waitTime = 30000L;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Long getWaitTime() {
+			return waitTime;
+		}
+
+		public void setWaitTime(Long waitTime) {
+			this.waitTime = waitTime;
+		}
+
+	}
+
+	/**
+	 * Configuration properties for {@link NomadStateEvents}.
+	 */
+	public static class StateEvents {
+
+		/**
+		 * Publish app and task state transitions as server-sent events on
+		 * <code>/events/states</code>. Implies the state cache, whose allocation changes are
+		 * published, and when Consul is enabled the health cache. Default is <code>false</code>.
+		 */
+		private boolean enabled;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+	}
+
+	/**
+	 * Configuration properties for the {@link NomadClusterStateCache}.
+	 */
+	public static class StateCache {
+
+		/**
+		 * Keep both Jobs and allocations in memory using blocking queries against
+		 * <code>/v1/jobs</code> and <code>/v1/allocations</code>, serving app and task status without
+		 * calling Nomad. Implies the Job index, the wait time is taken from
+		 * <code>jobIndex.waitTime</code>. Default is <code>false</code>.
+		 */
+		private boolean enabled;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+	}
+
+	/**
+	 * Configuration properties for the HTTP transport used to talk to Nomad, see
+	 * {@link org.springframework.cloud.deployer.spi.nomad.client.NomadHttpTransport}.
+	 */
+	public static class Http {
+
+		/**
+		 * Send requests with a pooled Apache HttpClient, reusing connections to the Nomad agent.
+		 * If <code>false</code>, a new <code>HttpURLConnection</code> is opened per request (subject
+		 * to the JVM wide keep-alive cache). Default is <code>true</code>.
+		 */
+		private boolean pooled = true;
+
+		/**
+		 * The maximum number of pooled connections. Default is 50.
+		 */
+		private int maxConnections = 50;
+
+		/**
+		 * The maximum number of pooled connections per Nomad agent, excluding blocking queries.
+		 * Default is 20.
+		 */
+		private int maxConnectionsPerRoute = 20;
+
+		/**
+		 * The maximum number of connections per Nomad agent for blocking queries, i.e. the cache
+		 * watches and deployment and artifact cache waits. These are pooled separately, so that
+		 * long polls cannot take the connections of other requests. Default is 20.
+		 */
+		private int maxBlockingConnections = 20;
+
+		/**
+		 * How long, in milliseconds, a request waits for a pooled connection before failing when
+		 * all connections are in use. Default is 10000ms (10 seconds).
+		 */
+		private int connectionRequestTimeout = 10000;
+
+		/**
+		 * Connect timeout in milliseconds. Default is 10000ms (10 seconds).
+		 */
+		private int connectTimeout = 10000;
+
+		/**
+		 * Read timeout in milliseconds. Blocking queries use at least their wait time plus jitter.
+		 * Default is 60000ms (1 minute).
+		 */
+		private int readTimeout = 60000;
+
+		/**
+		 * How long, in milliseconds, an idle connection is kept alive in the pool. Default is
+		 * 30000ms (30 seconds).
+		 */
+		private long keepAlive = 30000L;
+
+		public boolean isPooled() {
+			return pooled;
+		}
+
+		public void setPooled(boolean pooled) {
+			this.pooled = pooled;
+		}
+
+		public int getMaxConnections() {
+			return maxConnections;
+		}
+
+		public void setMaxConnections(int maxConnections) {
+			this.maxConnections = maxConnections;
+		}
+
+		public int getMaxConnectionsPerRoute() {
+			return maxConnectionsPerRoute;
+		}
+
+		public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+			this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+		}
+
+		public int getMaxBlockingConnections() {
+			return maxBlockingConnections;
+		}
+
+		public void setMaxBlockingConnections(int maxBlockingConnections) {
+			this.maxBlockingConnections = maxBlockingConnections;
+		}
+
+		public int getConnectionRequestTimeout() {
+			return connectionRequestTimeout;
+		}
+
+		public void setConnectionRequestTimeout(int connectionRequestTimeout) {
+			this.connectionRequestTimeout = connectionRequestTimeout;
+		}
+
+		public int getConnectTimeout() {
+			return connectTimeout;
+		}
+
+		public void setConnectTimeout(int connectTimeout) {
+			this.connectTimeout = connectTimeout;
+		}
+
+		public int getReadTimeout() {
+			return readTimeout;
+		}
+
+		public void setReadTimeout(int readTimeout) {
+			this.readTimeout = readTimeout;
+		}
+
+		public long getKeepAlive() {
+			return keepAlive;
+		}
+
+		public void setKeepAlive(long keepAlive) {
+			this.keepAlive = keepAlive;
+		}
+
+	}
+
+	/**
+	 * Configuration properties for launching tasks by dispatching
+	 * <a href="https://www.nomadproject.io/docs/job-specification/parameterized.html">parameterized
+	 * Jobs</a>.
+	 */
+	public static class TaskDispatch {
+
+		/**
+		 * Register a single parameterized Job per task definition and dispatch it for every launch,
+		 * instead of registering a new batch Job per launch. Launch properties and arguments are
+		 * passed to the task as <code>SPRING_APPLICATION_JSON</code> via dispatch meta, so only Maven
+		 * tasks and Docker tasks with the <code>boot</code> entry point style are dispatched.
+		 * Destroying a task definition deregisters its parameterized Jobs. Default is
+		 * <code>false</code>.
+		 */
+		private boolean enabled;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+	}
+
+	/**
+	 * Configuration properties for the
+	 * <a href="https://www.nomadproject.io/docs/job-specification/update.html">update</a> stanza of
+	 * app Jobs. Each can be overridden per app with the <code>spring.cloud.deployer.nomad.update.*</code>
+	 * deployment properties.
+	 */
+	public static class Update {
+
+		/**
+		 * The number of allocations replaced at once when an app is updated. The update stanza is
+		 * only added if this is set, otherwise Nomad replaces all allocations at once. Nomad applies
+		 * this per TaskGroup, so it has no effect on indexed apps, which have a TaskGroup per
+		 * instance.
+		 */
+		private Integer maxParallel;
+
+		/**
+		 * How long an updated allocation must be healthy before the next ones are replaced.
+		 * Specified in <b>milliseconds</b>. Default is 10000 milliseconds (10 seconds).
+		 */
+		private Long minHealthyTime = 10000L;
+
+		/**
+		 * How long an updated allocation has to become healthy before it is marked unhealthy.
+		 * Specified in <b>milliseconds</b>. Default is 300000 milliseconds (5 minutes).
+		 */
+		private Long healthyDeadline = 300000L;
+
+		/**
+		 * Revert to the last stable Job version if an update fails. Default is <code>false</code>.
+		 */
+		private Boolean autoRevert = false;
+
+		public Integer getMaxParallel() {
+			return maxParallel;
+		}
+
+		public void setMaxParallel(Integer maxParallel) {
+			this.maxParallel = maxParallel;
+		}
+
+		public Long getMinHealthyTime() {
+			return minHealthyTime;
+		}
+
+		public void setMinHealthyTime(Long minHealthyTime) {
+			this.minHealthyTime = minHealthyTime;
+		}
+
+		public Long getHealthyDeadline() {
+			return healthyDeadline;
+		}
+
+		public void setHealthyDeadline(Long healthyDeadline) {
+			this.healthyDeadline = healthyDeadline;
+		}
+
+		public Boolean getAutoRevert() {
+			return autoRevert;
+		}
+
+		public void setAutoRevert(Boolean autoRevert) {
+			this.autoRevert = autoRevert;
+		}
+
+	}
+
+	/**
+	 * Configuration properties for pre-warming the artifacts of Maven resource based apps. Before
+	 * the app Job is registered, a batch Job downloads the artifact into a cache directory on the
+	 * host of every eligible client node, and the app then runs the cached jar on those nodes
+	 * instead of downloading it into every allocation. Only applicable to the Maven resource
+	 * deployer implementation.
+	 * <p>
+	 * The pre-warm Job uses the
+	 * <a href="https://www.nomadproject.io/docs/drivers/raw_exec.html">raw_exec</a> driver, which
+	 * must be enabled on the clients, and the {@link #hostPath} must be part of the client
+	 * <a href="https://www.nomadproject.io/docs/agent/configuration/client.html#chroot_env">chroot_env</a>
+	 * for the Java driver to read the cached jar.
+	 */
+	public static class ArtifactCache {
+
+		/**
+		 * Pre-warm the artifacts of apps. Can be overridden per app with the
+		 * <code>spring.cloud.deployer.nomad.artifactCache.enabled</code> deployment property.
+		 * Every deploy of a Maven app then lists all nodes, reads new or changed nodes to find the
+		 * nodes with the <code>raw_exec</code> driver and plans the pre-warm Job, even if the
+		 * artifact is already cached. Default is <code>false</code>.
+		 */
+		private boolean enabled;
+
+		/**
+		 * The directory on the client hosts the artifacts are cached in, one sub-directory per
+		 * artifact checksum. Must be an absolute path of letters, digits, <code>.</code>,
+		 * <code>_</code> and <code>-</code>, otherwise artifacts are not cached. Artifacts that are
+		 * no longer used are only removed by <code>MavenNomadAppDeployer.purgeArtifactCache()</code>.
+		 * Default is <code>/var/cache/spring-cloud-deployer-nomad</code>.
+		 */
+		private String hostPath = "/var/cache/spring-cloud-deployer-nomad";
+
+		/**
+		 * How long to wait for the pre-warm Job to cache the artifact before the app is deployed.
+		 * The app is only placed on the nodes that cached the artifact in time, if none did, the
+		 * artifact is downloaded by every allocation as usual. Specified in <b>milliseconds</b>.
+		 * Default is 120000 milliseconds (2 minutes).
+		 */
+		private Long timeout = 120000L;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public String getHostPath() {
+			return hostPath;
+		}
+
+		public void setHostPath(String hostPath) {
+			this.hostPath = hostPath;
+		}
+
+		public Long getTimeout() {
+			return timeout;
+		}
+
+		public void setTimeout(Long timeout) {
+			this.timeout = timeout;
+		}
+
+	}
+
+	/**
+	 * Configuration properties for the cache of resolved Maven artifacts, see
+	 * {@link org.springframework.cloud.deployer.spi.nomad.maven.MavenResourceResolver}.
+	 */
+	public static class ResolverCache {
+
+		/**
+		 * The maximum number of resolved artifacts to cache. The least recently used artifact is
+		 * evicted once the cache is full. Default is 256.
+		 */
+		private int maxEntries = 256;
+
+		/**
+		 * How long a resolved SNAPSHOT artifact is cached for, before it is resolved again to pick
+		 * up newly published SNAPSHOTs. Release artifacts are cached until evicted. Specified in
+		 * <b>milliseconds</b>. Default is 60000 milliseconds (1 minute).
+		 */
+		private Long snapshotTtl = 60000L;
+
+		public int getMaxEntries() {
+			return maxEntries;
+		}
+
+		public void setMaxEntries(int maxEntries) {
+			this.maxEntries = maxEntries;
+		}
+
+		public Long getSnapshotTtl() {
+			return snapshotTtl;
+		}
+
+		public void setSnapshotTtl(Long snapshotTtl) {
+			this.snapshotTtl = snapshotTtl;
+		}
+
+	}
+
 	/**
 	 * The hostname/IP address where a Nomad client is listening. Default is localhost.
 	 */
@@ -327,6 +766,60 @@ public class NomadDeployerProperties {
 	 */
 	private String runtimePlatformVersion;
 
+	/**
+	 * The maximum number of deploy, undeploy or status operations the
+	 * {@link AsyncNomadAppDeployer} will run against Nomad at once. Default is 8.
+	 */
+	private Integer deploymentConcurrency = 8;
+
+	/**
+	 * The maximum number of deployments the {@link AsyncNomadAppDeployer} will await at once, each
+	 * holding a blocking query connection. Keep it below <code>http.maxBlockingConnections</code>,
+	 * which the cache watches share. Default is 10.
+	 */
+	private Integer awaitConcurrency = 10;
+
+	/**
+	 * The maximum number of task launches
+	 * {@link ResourceAwareNomadTaskLauncher#launchAll(java.util.List)} will have in flight against
+	 * Nomad at once. Default is 8.
+	 */
+	private Integer launchConcurrency = 8;
+
+	/**
+	 * How long the runtime environment info, built from the Nomad agent members, is cached before
+	 * it is refreshed in the background. Specified in <b>milliseconds</b>. Zero disables caching.
+	 * Default is 60000 milliseconds (60 seconds).
+	 */
+	private Long environmentInfoRefreshInterval = 60000L;
+
+	/**
+	 * Update apps that are already deployed instead of failing the deployment. The new Job is
+	 * planned against the registered Job and only registered, with check-and-set on its
+	 * <code>JobModifyIndex</code>, if something changed. Can be overridden per app with the
+	 * <code>spring.cloud.deployer.nomad.redeploy</code> deployment property. Default is
+	 * <code>false</code>.
+	 */
+	private boolean redeploy;
+
+	private JobIndex jobIndex = new JobIndex();
+
+	private StateCache stateCache = new StateCache();
+
+	private HealthCache healthCache = new HealthCache();
+
+	private StateEvents stateEvents = new StateEvents();
+
+	private TaskDispatch taskDispatch = new TaskDispatch();
+
+	private Update update = new Update();
+
+	private ArtifactCache artifactCache = new ArtifactCache();
+
+	private ResolverCache resolverCache = new ResolverCache();
+
+	private Http http = new Http();
+
 	public String getNomadHost() {
 		return nomadHost;
 	}
@@ -558,4 +1051,116 @@ public class NomadDeployerProperties {
 	public String getRuntimePlatformVersion() {
 		return runtimePlatformVersion;
 	}
+
+	public JobIndex getJobIndex() {
+		return jobIndex;
+	}
+
+	public void setJobIndex(JobIndex jobIndex) {
+		this.jobIndex = jobIndex;
+	}
+
+	public StateCache getStateCache() {
+		return stateCache;
+	}
+
+	public void setStateCache(StateCache stateCache) {
+		this.stateCache = stateCache;
+	}
+
+	public Integer getDeploymentConcurrency() {
+		return deploymentConcurrency;
+	}
+
+	public void setDeploymentConcurrency(Integer deploymentConcurrency) {
+		this.deploymentConcurrency = deploymentConcurrency;
+	}
+
+	public Integer getAwaitConcurrency() {
+		return awaitConcurrency;
+	}
+
+	public void setAwaitConcurrency(Integer awaitConcurrency) {
+		this.awaitConcurrency = awaitConcurrency;
+	}
+
+	public Integer getLaunchConcurrency() {
+		return launchConcurrency;
+	}
+
+	public void setLaunchConcurrency(Integer launchConcurrency) {
+		this.launchConcurrency = launchConcurrency;
+	}
+
+	public boolean isRedeploy() {
+		return redeploy;
+	}
+
+	public void setRedeploy(boolean redeploy) {
+		this.redeploy = redeploy;
+	}
+
+	public Long getEnvironmentInfoRefreshInterval() {
+		return environmentInfoRefreshInterval;
+	}
+
+	public void setEnvironmentInfoRefreshInterval(Long environmentInfoRefreshInterval) {
+		this.environmentInfoRefreshInterval = environmentInfoRefreshInterval;
+	}
+
+	public HealthCache getHealthCache() {
+		return healthCache;
+	}
+
+	public void setHealthCache(HealthCache healthCache) {
+		this.healthCache = healthCache;
+	}
+
+	public StateEvents getStateEvents() {
+		return stateEvents;
+	}
+
+	public void setStateEvents(StateEvents stateEvents) {
+		this.stateEvents = stateEvents;
+	}
+
+	public TaskDispatch getTaskDispatch() {
+		return taskDispatch;
+	}
+
+	public void setTaskDispatch(TaskDispatch taskDispatch) {
+		this.taskDispatch = taskDispatch;
+	}
+
+	public Update getUpdate() {
+		return update;
+	}
+
+	public void setUpdate(Update update) {
+		this.update = update;
+	}
+
+	public ArtifactCache getArtifactCache() {
+		return artifactCache;
+	}
+
+	public void setArtifactCache(ArtifactCache artifactCache) {
+		this.artifactCache = artifactCache;
+	}
+
+	public ResolverCache getResolverCache() {
+		return resolverCache;
+	}
+
+	public void setResolverCache(ResolverCache resolverCache) {
+		this.resolverCache = resolverCache;
+	}
+
+	public Http getHttp() {
+		return http;
+	}
+
+	public void setHttp(Http http) {
+		this.http = http;
+	}
 }
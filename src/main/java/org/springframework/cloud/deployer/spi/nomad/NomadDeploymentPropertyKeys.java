@@ -84,4 +84,44 @@ public interface NomadDeploymentPropertyKeys {
 	 * for reference.
 	 */
 	String NOMAD_JAVA_OPTS = "spring.cloud.deployer.nomad.javaOpts";
+
+	/**
+	 * Update an app that is already deployed instead of failing the deployment. The new Job is
+	 * planned against the registered Job (<code>/v1/job/:id/plan</code>) and only registered if
+	 * something changed. Valid values are <code>true</code> or <code>false</code>.
+	 */
+	String NOMAD_REDEPLOY = "spring.cloud.deployer.nomad.redeploy";
+
+	/**
+	 * The number of allocations replaced at once when an app is updated. Setting it adds an
+	 * <a href="https://www.nomadproject.io/docs/job-specification/update.html">update</a> stanza to
+	 * the Job, without it Nomad replaces all allocations at once. Applied per TaskGroup, so it has no
+	 * effect on indexed apps.
+	 */
+	String NOMAD_UPDATE_MAX_PARALLEL = "spring.cloud.deployer.nomad.update.maxParallel";
+
+	/**
+	 * How long (in <b>milliseconds</b>) an updated allocation must be healthy before the next ones
+	 * are replaced. See https://www.nomadproject.io/docs/job-specification/update.html#min_healthy_time
+	 */
+	String NOMAD_UPDATE_MIN_HEALTHY_TIME = "spring.cloud.deployer.nomad.update.minHealthyTime";
+
+	/**
+	 * How long (in <b>milliseconds</b>) an updated allocation has to become healthy before it is
+	 * marked unhealthy. See https://www.nomadproject.io/docs/job-specification/update.html#healthy_deadline
+	 */
+	String NOMAD_UPDATE_HEALTHY_DEADLINE = "spring.cloud.deployer.nomad.update.healthyDeadline";
+
+	/**
+	 * Revert to the last stable Job version if an update fails. Valid values are <code>true</code>
+	 * or <code>false</code>. See https://www.nomadproject.io/docs/job-specification/update.html#auto_revert
+	 */
+	String NOMAD_UPDATE_AUTO_REVERT = "spring.cloud.deployer.nomad.update.autoRevert";
+
+	/**
+	 * Pre-warm the artifact of a Maven resource based app into a cache directory on the client
+	 * hosts before the app is deployed, see {@link NomadDeployerProperties.ArtifactCache}. Valid
+	 * values are <code>true</code> or <code>false</code>.
+	 */
+	String NOMAD_ARTIFACT_CACHE = "spring.cloud.deployer.nomad.artifactCache.enabled";
 }
@@ -0,0 +1,205 @@
+package org.springframework.cloud.deployer.spi.nomad;
+
+import static java.util.stream.Collectors.joining;
+
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.deployer.spi.nomad.DeploymentResult.Outcome;
+import org.springframework.cloud.deployer.spi.nomad.client.Deployment;
+import org.springframework.cloud.deployer.spi.nomad.client.Evaluation;
+import org.springframework.cloud.deployer.spi.nomad.client.IndexedResponse;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApi;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+
+import io.github.zanella.nomad.v1.jobs.models.JobAllocation;
+
+/**
+ * Follows the evaluation of a Job registration (<code>/v1/evaluation/:id</code>) and, if the Job
+ * has an update stanza, the Nomad deployment it creates (<code>/v1/deployment/:id</code>), or
+ * otherwise the Job's allocations (<code>/v1/job/:id/allocations</code>), with
+ * <a href="https://www.nomadproject.io/docs/http/index.html#blocking-queries">blocking queries</a>,
+ * until the app is deployed, could not be placed, failed or the timeout elapses.
+ *
+ * @author Donovan Muller
+ */
+public class NomadDeploymentWatcher {
+
+	private static final Logger logger = LoggerFactory.getLogger(NomadDeploymentWatcher.class);
+
+	private final NomadApi nomadApi;
+	private final long queryWait;
+
+	/**
+	 * @param queryWait the maximum time (in milliseconds) a single blocking query waits for a
+	 * change. Must be shorter than the read timeout of the <code>nomadApi</code>
+	 */
+	public NomadDeploymentWatcher(NomadApi nomadApi, long queryWait) {
+		this.nomadApi = nomadApi;
+		this.queryWait = queryWait;
+	}
+
+	/**
+	 * Wait for the app deployment started by an evaluation.
+	 *
+	 * @param deploymentId the id of the deployed app
+	 * @param evalId the evaluation created by registering the app's Job
+	 * @param timeout in milliseconds
+	 */
+	public DeploymentResult await(String deploymentId, String evalId, long timeout) {
+		long deadline = System.currentTimeMillis() + timeout;
+
+		Evaluation evaluation = watch((index, wait) -> nomadApi.getEvaluation(evalId, index, wait),
+				eval -> !"pending".equals(eval.getStatus()), deadline);
+		if (evaluation == null) {
+			return new DeploymentResult(deploymentId, Outcome.FAILED, "Evaluation " + evalId + " not found");
+		}
+		logger.debug("Evaluation of app '{}': {}", deploymentId, evaluation);
+		if ("pending".equals(evaluation.getStatus())) {
+			return new DeploymentResult(deploymentId, Outcome.TIMED_OUT, "Evaluation " + evalId + " is pending");
+		}
+		if (!CollectionUtils.isEmpty(evaluation.getFailedTaskGroupAllocations())) {
+			return new DeploymentResult(deploymentId, Outcome.PLACEMENT_FAILED, describePlacementFailure(evaluation));
+		}
+		if (!"complete".equals(evaluation.getStatus())) {
+			return new DeploymentResult(deploymentId, Outcome.FAILED,
+					String.format("Evaluation %s is %s: %s", evalId, evaluation.getStatus(),
+							evaluation.getStatusDescription()));
+		}
+		if (StringUtils.isEmpty(evaluation.getDeploymentId())) {
+			return watchAllocations(deploymentId, evaluation.getJobId(), deadline);
+		}
+
+		String nomadDeploymentId = evaluation.getDeploymentId();
+		Deployment deployment = watch((index, wait) -> nomadApi.getDeployment(nomadDeploymentId, index, wait),
+				this::isFinished, deadline);
+		if (deployment == null) {
+			return new DeploymentResult(deploymentId, Outcome.FAILED,
+					"Deployment " + nomadDeploymentId + " not found");
+		}
+		logger.debug("Deployment of app '{}': {}", deploymentId, deployment);
+		String description = String.format("Deployment %s is %s: %s", nomadDeploymentId, deployment.getStatus(),
+				deployment.getStatusDescription());
+		if (!isFinished(deployment)) {
+			return new DeploymentResult(deploymentId, Outcome.TIMED_OUT, description);
+		}
+		return new DeploymentResult(deploymentId,
+				"successful".equals(deployment.getStatus()) ? Outcome.DEPLOYED : Outcome.FAILED, description);
+	}
+
+	/**
+	 * Wait for the allocations of a Job to start, for Jobs without a Nomad deployment, e.g. Jobs
+	 * without an update stanza or a Job that was not registered again because it was unchanged.
+	 *
+	 * @param deploymentId the id of the deployed app
+	 * @param jobId the id of the app's Job
+	 * @param timeout in milliseconds
+	 */
+	public DeploymentResult awaitAllocations(String deploymentId, String jobId, long timeout) {
+		return watchAllocations(deploymentId, jobId, System.currentTimeMillis() + timeout);
+	}
+
+	/**
+	 * The app is deployed once every allocation that should run is <code>running</code> (or
+	 * <code>complete</code>, for batch Jobs). It failed as soon as one of them is
+	 * <code>failed</code> or <code>lost</code>.
+	 */
+	private DeploymentResult watchAllocations(String deploymentId, String jobId, long deadline) {
+		List<JobAllocation> allocations = watch((index, wait) -> nomadApi.getJobAllocations(jobId, index, wait),
+				jobAllocations -> failed(jobAllocations).count() > 0 || pending(jobAllocations).count() == 0,
+				deadline);
+		if (allocations == null) {
+			return new DeploymentResult(deploymentId, Outcome.FAILED, "Job " + jobId + " not found");
+		}
+		logger.debug("Allocations of app '{}': {}", deploymentId, allocations);
+
+		String failed = failed(allocations)
+				.map(allocation -> String.format("%s is %s: %s", allocation.getName(), allocation.getClientStatus(),
+						allocation.getClientDescription()))
+				.collect(joining(", "));
+		if (!failed.isEmpty()) {
+			return new DeploymentResult(deploymentId, Outcome.FAILED, "Allocation(s) failed: " + failed);
+		}
+		long pending = pending(allocations).count();
+		long total = toRun(allocations).count();
+		if (pending > 0) {
+			return new DeploymentResult(deploymentId, Outcome.TIMED_OUT,
+					String.format("%d/%d allocation(s) pending", pending, total));
+		}
+		return new DeploymentResult(deploymentId, Outcome.DEPLOYED, String.format("%d allocation(s) started", total));
+	}
+
+	private Stream<JobAllocation> toRun(List<JobAllocation> allocations) {
+		return allocations.stream().filter(allocation -> "run".equals(allocation.getDesiredStatus()));
+	}
+
+	private Stream<JobAllocation> pending(List<JobAllocation> allocations) {
+		return toRun(allocations).filter(allocation -> "pending".equals(allocation.getClientStatus()));
+	}
+
+	private Stream<JobAllocation> failed(List<JobAllocation> allocations) {
+		return toRun(allocations).filter(allocation -> "failed".equals(allocation.getClientStatus())
+				|| "lost".equals(allocation.getClientStatus()));
+	}
+
+	/**
+	 * Issue blocking queries until the value is done or the deadline has passed.
+	 *
+	 * @return the last value, <code>null</code> if it does not exist
+	 */
+	private <T> T watch(BiFunction<Long, String, IndexedResponse<T>> query, Predicate<T> done, long deadline) {
+		long index = 0;
+		while (true) {
+			long remaining = deadline - System.currentTimeMillis();
+			IndexedResponse<T> response = query.apply(index, Math.max(1, Math.min(queryWait, remaining)) + "ms");
+			T value = response.getValue();
+			if (value == null || done.test(value) || remaining <= 0) {
+				return value;
+			}
+			// the index can go backwards, e.g. after a leader election, in which case we start over
+			index = response.getIndex() >= index ? response.getIndex() : 0;
+		}
+	}
+
+	private boolean isFinished(Deployment deployment) {
+		return !"running".equals(deployment.getStatus()) && !"paused".equals(deployment.getStatus());
+	}
+
+	/**
+	 * Describe why TaskGroups could not be placed, the way <code>nomad status</code> does, e.g.
+	 * <code>TaskGroup 'app': 2 allocation(s) not placed, 0/3 nodes filtered, 3/3 nodes exhausted
+	 * (memory: 3)</code>.
+	 */
+	private String describePlacementFailure(Evaluation evaluation) {
+		StringJoiner description = new StringJoiner("; ");
+		evaluation.getFailedTaskGroupAllocations().forEach((taskGroup, metric) -> {
+			StringBuilder failure = new StringBuilder(String.format(
+					"TaskGroup '%s': %d allocation(s) not placed, %d/%d nodes filtered", taskGroup,
+					metric.getCoalescedFailures() + 1, metric.getNodesFiltered(), metric.getNodesEvaluated()));
+			appendCounts(failure, metric.getConstraintFiltered());
+			failure.append(String.format(", %d/%d nodes exhausted", metric.getNodesExhausted(),
+					metric.getNodesEvaluated()));
+			appendCounts(failure, metric.getDimensionExhausted());
+			description.add(failure);
+		});
+		if (!StringUtils.isEmpty(evaluation.getBlockedEval())) {
+			description.add("blocked evaluation " + evaluation.getBlockedEval());
+		}
+		return description.toString();
+	}
+
+	private void appendCounts(StringBuilder description, Map<String, Integer> counts) {
+		if (!CollectionUtils.isEmpty(counts)) {
+			StringJoiner joiner = new StringJoiner(", ", " (", ")");
+			counts.forEach((reason, count) -> joiner.add(reason + ": " + count));
+			description.append(joiner);
+		}
+	}
+}
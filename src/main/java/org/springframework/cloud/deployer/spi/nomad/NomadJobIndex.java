@@ -0,0 +1,159 @@
+package org.springframework.cloud.deployer.spi.nomad;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.cloud.deployer.spi.nomad.client.BlockingQueryWatch;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApi;
+
+import feign.FeignException;
+
+import io.github.zanella.nomad.NomadClient;
+import io.github.zanella.nomad.v1.jobs.models.JobAllocation;
+import io.github.zanella.nomad.v1.jobs.models.JobSummary;
+
+/**
+ * Resolves a Job by name without listing every Job in the cluster.
+ * <p>
+ * By default a Job is resolved with a direct read (<code>/v1/job/:id</code>), deployment ids are
+ * used as both the Job ID and name. If a {@link NomadApi} is provided and the index is
+ * {@link #start() started}, an in-memory name to {@link JobSummary} index is kept current with
+ * <a href="https://www.nomadproject.io/docs/http/index.html#blocking-queries">blocking
+ * queries</a> against <code>/v1/jobs</code> and lookups are served from memory.
+ *
+ * @author Donovan Muller
+ */
+public class NomadJobIndex {
+
+	private final NomadClient client;
+	private final BlockingQueryWatch<List<JobSummary>> jobsWatch;
+
+	private volatile Map<String, JobSummary> jobs = Collections.emptyMap();
+
+	public NomadJobIndex(NomadClient client) {
+		this(client, null, 0);
+	}
+
+	public NomadJobIndex(NomadClient client, NomadApi nomadApi, long waitTime) {
+		this.client = client;
+		this.jobsWatch = nomadApi == null ? null
+				: new BlockingQueryWatch<>("nomad-job-index",
+						index -> nomadApi.getJobs(index, String.format("%dms", waitTime)), this::onJobs);
+	}
+
+	/**
+	 * Find the Job with the given name. Served from the index when it is in sync, otherwise with a
+	 * direct read.
+	 *
+	 * @return the Job or <code>null</code> if no Job exists with that name
+	 */
+	public JobSummary find(String name) {
+		if (isSynced()) {
+			return jobs.get(name);
+		}
+
+		return read(name);
+	}
+
+	/**
+	 * Find all Jobs with the given names. Served from the index when it is in sync, otherwise with a
+	 * single list of all Jobs (<code>/v1/jobs</code>).
+	 *
+	 * @return the found Jobs keyed by name, names without a Job are absent
+	 */
+	public Map<String, JobSummary> findAll(Collection<String> names) {
+		Map<String, JobSummary> source = isSynced() ? jobs : byName(client.v1.jobs.getJobs());
+		return names.stream()
+				.filter(source::containsKey)
+				.distinct()
+				.collect(toMap(Function.identity(), source::get));
+	}
+
+	/**
+	 * The allocations for the specified Job. Always a direct read
+	 * (<code>/v1/job/:id/allocations</code>).
+	 */
+	public List<JobAllocation> getJobAllocations(JobSummary job) {
+		return client.v1.job.getJobAllocations(job.getId());
+	}
+
+	/**
+	 * The allocations for all the specified Jobs, keyed by Job ID. Always a single list of all
+	 * allocations (<code>/v1/allocations</code>), regardless of how many Jobs are specified.
+	 */
+	public Map<String, List<JobAllocation>> getJobAllocations(Collection<JobSummary> jobs) {
+		Set<String> jobIds = jobs.stream().map(JobSummary::getId).collect(toSet());
+		return client.v1.allocations.getAllocations().stream()
+				.filter(allocation -> jobIds.contains(allocation.getJobId()))
+				.map(allocation -> {
+					JobAllocation jobAllocation = new JobAllocation();
+					BeanUtils.copyProperties(allocation, jobAllocation);
+					return jobAllocation;
+				})
+				.collect(groupingBy(JobAllocation::getJobId));
+	}
+
+	/**
+	 * Starts watching <code>/v1/jobs</code>. Has no effect if no {@link NomadApi} was provided.
+	 */
+	public void start() {
+		if (jobsWatch != null) {
+			jobsWatch.start();
+		}
+	}
+
+	public void stop() {
+		if (jobsWatch != null) {
+			jobsWatch.stop();
+		}
+	}
+
+	public boolean isSynced() {
+		return jobsWatch != null && jobsWatch.isSynced();
+	}
+
+	/**
+	 * The <code>X-Nomad-Index</code> of the last observed Job state.
+	 */
+	public long getLastIndex() {
+		return jobsWatch != null ? jobsWatch.getLastIndex() : 0;
+	}
+
+	protected NomadClient getClient() {
+		return client;
+	}
+
+	protected BlockingQueryWatch<List<JobSummary>> getJobsWatch() {
+		return jobsWatch;
+	}
+
+	private void onJobs(List<JobSummary> jobSummaries) {
+		jobs = Collections.unmodifiableMap(byName(jobSummaries));
+	}
+
+	private Map<String, JobSummary> byName(List<JobSummary> jobSummaries) {
+		return jobSummaries.stream()
+				.collect(toMap(JobSummary::getName, Function.identity(), (first, second) -> first));
+	}
+
+	private JobSummary read(String name) {
+		try {
+			return client.v1.job.getJob(name);
+		}
+		catch (FeignException e) {
+			if (e.status() == 404) {
+				return null;
+			}
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package org.springframework.cloud.deployer.spi.nomad;
+
+/**
+ * Records the requests made to Nomad and Consul and the artifacts served to Nomad clients. The
+ * default methods record nothing, see {@link MicrometerNomadMetrics} for an implementation that
+ * publishes to a Micrometer <code>MeterRegistry</code>.
+ *
+ * @author Donovan Muller
+ */
+public interface NomadMetrics {
+
+	/**
+	 * Records nothing.
+	 */
+	NomadMetrics NONE = new NomadMetrics() {
+	};
+
+	/**
+	 * @param uri the request path, with Job, allocation etc. ids replaced by <code>{id}</code>
+	 * @param status the response status, or <code>0</code> if no response was received
+	 * @param blocking whether the request was a blocking query
+	 * @param exception the exception thrown if no response was received, otherwise <code>null</code>
+	 */
+	default void recordNomadRequest(String method, String uri, int status, boolean blocking, long durationNanos,
+			Throwable exception) {
+	}
+
+	/**
+	 * @param operation the Consul operation, e.g. <code>health.checks</code>
+	 * @param exception the exception thrown by the Consul client, otherwise <code>null</code>
+	 */
+	default void recordConsulRequest(String operation, boolean blocking, long durationNanos, Throwable exception) {
+	}
+
+	/**
+	 * @param status the response status
+	 * @param bytes the number of bytes of the artifact served. For sendfile downloads, the number of
+	 * bytes handed to the container, which may not all be sent
+	 * @param durationNanos the time taken to write the artifact, <code>-1</code> for sendfile
+	 * downloads, which are written by the container after the request has been handled
+	 * @param sendfile whether the artifact was served with the container's sendfile support
+	 */
+	default void recordArtifactDownload(int status, long bytes, long durationNanos, boolean sendfile) {
+	}
+}
@@ -0,0 +1,67 @@
+package org.springframework.cloud.deployer.spi.nomad;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.deployer.spi.nomad.NomadStateEvents.StateEvent;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Streams app and task state transitions as
+ * <a href="https://www.w3.org/TR/eventsource/">server-sent events</a>, so that clients do not have
+ * to poll for status. Each new subscriber first receives the current state of every known app and
+ * task, followed by every transition. Events are named after the type (<code>app</code> or
+ * <code>task</code>) and carry the {@link StateEvent} as JSON.
+ *
+ * @author Donovan Muller
+ */
+@RestController
+public class NomadStateEventController {
+
+	private static final Logger logger = LoggerFactory.getLogger(NomadStateEventController.class);
+
+	private final NomadStateEvents stateEvents;
+
+	private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+	public NomadStateEventController(NomadStateEvents stateEvents) {
+		this.stateEvents = stateEvents;
+		this.stateEvents.addListener(this::publish);
+	}
+
+	@GetMapping(path = "/events/states", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter states() throws IOException {
+		SseEmitter emitter = new SseEmitter(0L);
+		emitter.onCompletion(() -> emitters.remove(emitter));
+		emitter.onTimeout(() -> emitters.remove(emitter));
+		emitters.add(emitter);
+
+		for (StateEvent event : stateEvents.getStates()) {
+			send(emitter, event);
+		}
+
+		return emitter;
+	}
+
+	private void publish(StateEvent event) {
+		for (SseEmitter emitter : emitters) {
+			try {
+				send(emitter, event);
+			}
+			catch (IOException | IllegalStateException e) {
+				logger.debug("Removing disconnected state event subscriber", e);
+				emitters.remove(emitter);
+			}
+		}
+	}
+
+	private void send(SseEmitter emitter, StateEvent event) throws IOException {
+		emitter.send(SseEmitter.event().name(event.getType()).data(event, MediaType.APPLICATION_JSON));
+	}
+}
@@ -0,0 +1,381 @@
+package org.springframework.cloud.deployer.spi.nomad;
+
+import static java.util.stream.Collectors.toSet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.deployer.spi.app.AppDeployer;
+import org.springframework.cloud.deployer.spi.app.DeploymentState;
+import org.springframework.cloud.deployer.spi.task.LaunchState;
+import org.springframework.cloud.deployer.spi.task.TaskLauncher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import com.ecwid.consul.v1.health.model.Check;
+
+import feign.FeignException;
+
+import io.github.zanella.nomad.NomadClient;
+import io.github.zanella.nomad.v1.common.models.Job;
+import io.github.zanella.nomad.v1.jobs.models.JobAllocation;
+import io.github.zanella.nomad.v1.jobs.models.JobSummary;
+
+/**
+ * Publishes app {@link DeploymentState} and task {@link LaunchState} transitions. Rather than
+ * issuing its own blocking queries, it subscribes to the allocation changes of the
+ * {@link NomadClusterStateCache} and, when Consul is enabled, the health changes of the
+ * {@link ConsulHealthCache}. Whenever the allocations or health checks of a Job change, the status
+ * of that app (or task, for <code>batch</code> Jobs) is resolved again and listeners are notified
+ * if the state differs from the last published state.
+ * <p>
+ * Only Jobs deployed by this deployer, i.e. with <code>spring-*</code> meta, are published. The
+ * state observed when subscribing is recorded without publishing events.
+ * <p>
+ * The caches notify their listeners on their watch threads, so changes are only handed over there.
+ * Resolving the status, reading the meta of new Jobs and notifying listeners happens on a single
+ * event thread. Only the latest allocations and health checks are kept while that thread is busy,
+ * so a slow listener delays events but neither blocks the watches nor builds up a backlog.
+ *
+ * @author Donovan Muller
+ */
+public class NomadStateEvents {
+
+	private static final Logger logger = LoggerFactory.getLogger(NomadStateEvents.class);
+
+	private static final Pattern INDEXED_SERVICE_NAME = Pattern.compile("(.+)-\\d+");
+
+	private final NomadClient client;
+	private final NomadClusterStateCache stateCache;
+	private final ConsulHealthCache healthCache;
+	private final AppDeployer appDeployer;
+	private final TaskLauncher taskLauncher;
+
+	private final Map<String, StateEvent> states = new ConcurrentHashMap<>();
+	private final Map<String, Boolean> deployerJobs = new ConcurrentHashMap<>();
+	private final List<Consumer<StateEvent>> listeners = new CopyOnWriteArrayList<>();
+
+	private final ExecutorService executor;
+	private final AtomicReference<Map<String, List<JobAllocation>>> pendingAllocations = new AtomicReference<>();
+	private final AtomicReference<Map<String, Check>> pendingChecks = new AtomicReference<>();
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+
+	private final Consumer<Map<String, List<JobAllocation>>> allocationsListener = allocations -> {
+		pendingAllocations.set(allocations);
+		schedule();
+	};
+	private final Consumer<Map<String, Check>> checksListener = checks -> {
+		pendingChecks.set(checks);
+		schedule();
+	};
+
+	private long lastModifyIndex = -1;
+	private Map<String, String> checkStatuses;
+
+	public NomadStateEvents(NomadClient client, NomadClusterStateCache stateCache, AppDeployer appDeployer,
+			TaskLauncher taskLauncher) {
+		this(client, stateCache, null, appDeployer, taskLauncher);
+	}
+
+	/**
+	 * @param healthCache when Consul is enabled, so that health changes are published. May be
+	 * <code>null</code>
+	 */
+	public NomadStateEvents(NomadClient client, NomadClusterStateCache stateCache, ConsulHealthCache healthCache,
+			AppDeployer appDeployer, TaskLauncher taskLauncher) {
+		this(client, stateCache, healthCache, appDeployer, taskLauncher,
+				Executors.newSingleThreadExecutor(threadFactory()));
+	}
+
+	NomadStateEvents(NomadClient client, NomadClusterStateCache stateCache, ConsulHealthCache healthCache,
+			AppDeployer appDeployer, TaskLauncher taskLauncher, ExecutorService executor) {
+		this.client = client;
+		this.stateCache = stateCache;
+		this.healthCache = healthCache;
+		this.appDeployer = appDeployer;
+		this.taskLauncher = taskLauncher;
+		this.executor = executor;
+	}
+
+	/**
+	 * Subscribe to the caches. If a cache is already in sync, its current state is recorded
+	 * straight away, otherwise on its first change.
+	 */
+	public synchronized void start() {
+		stateCache.addListener(allocationsListener);
+		if (stateCache.isSynced()) {
+			allocationsListener.accept(stateCache.getAllocations());
+		}
+
+		if (healthCache != null) {
+			healthCache.addListener(checksListener);
+			if (healthCache.isSynced()) {
+				checksListener.accept(healthCache.getChecks());
+			}
+		}
+	}
+
+	public synchronized void stop() {
+		stateCache.removeListener(allocationsListener);
+		if (healthCache != null) {
+			healthCache.removeListener(checksListener);
+		}
+		executor.shutdownNow();
+	}
+
+	public void addListener(Consumer<StateEvent> listener) {
+		listeners.add(listener);
+	}
+
+	public void removeListener(Consumer<StateEvent> listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * The last published state of every app and task that is still known.
+	 */
+	public Collection<StateEvent> getStates() {
+		return new ArrayList<>(states.values());
+	}
+
+	/**
+	 * Called on the watch threads, at most one run is queued as it takes the latest changes.
+	 */
+	private void schedule() {
+		if (scheduled.compareAndSet(false, true)) {
+			try {
+				executor.execute(this::processPending);
+			}
+			catch (RejectedExecutionException e) {
+				scheduled.set(false);
+				logger.debug("State events are stopped, ignoring changes");
+			}
+		}
+	}
+
+	private void processPending() {
+		scheduled.set(false);
+		Map<String, List<JobAllocation>> allocations = pendingAllocations.getAndSet(null);
+		if (allocations != null) {
+			onAllocations(allocations);
+		}
+		Map<String, Check> checks = pendingChecks.getAndSet(null);
+		if (checks != null) {
+			onChecks(checks);
+		}
+	}
+
+	private synchronized void onAllocations(Map<String, List<JobAllocation>> allocations) {
+		try {
+			long modifyIndex = allocations.values().stream()
+					.flatMap(List::stream)
+					.mapToLong(JobAllocation::getModifyIndex)
+					.max()
+					.orElse(0);
+			if (lastModifyIndex < 0) {
+				allocations.keySet().forEach(id -> update(id, false));
+				lastModifyIndex = modifyIndex;
+				return;
+			}
+
+			// Jobs with new or modified allocations, plus Jobs whose allocations have all been removed
+			Set<String> changedJobIds = allocations.values().stream()
+					.flatMap(List::stream)
+					.filter(allocation -> allocation.getModifyIndex() > lastModifyIndex)
+					.map(JobAllocation::getJobId)
+					.collect(toSet());
+			states.keySet().stream().filter(id -> !allocations.containsKey(id)).forEach(changedJobIds::add);
+
+			changedJobIds.forEach(id -> update(id, true));
+			lastModifyIndex = modifyIndex;
+		}
+		catch (Exception e) {
+			logger.warn("Could not publish allocation changes", e);
+		}
+	}
+
+	private synchronized void onChecks(Map<String, Check> checks) {
+		try {
+			Map<String, String> statuses = new HashMap<>();
+			checks.forEach((serviceName, check) -> statuses.put(serviceName, String.valueOf(check.getStatus())));
+			if (checkStatuses == null) {
+				checkStatuses = statuses;
+				return;
+			}
+
+			Set<String> changedServiceNames = new HashSet<>(checkStatuses.keySet());
+			changedServiceNames.addAll(statuses.keySet());
+			changedServiceNames.removeIf(name -> Objects.equals(checkStatuses.get(name), statuses.get(name)));
+			checkStatuses = statuses;
+
+			changedServiceNames.stream()
+					.map(this::toJobId)
+					.distinct()
+					.forEach(id -> update(id, true));
+		}
+		catch (Exception e) {
+			logger.warn("Could not publish health changes", e);
+		}
+	}
+
+	/**
+	 * The Job of a service, services of indexed apps are named <code>&lt;id&gt;-&lt;index&gt;</code>.
+	 */
+	private String toJobId(String serviceName) {
+		if (states.containsKey(serviceName) || deployerJobs.containsKey(serviceName)) {
+			return serviceName;
+		}
+		Matcher matcher = INDEXED_SERVICE_NAME.matcher(serviceName);
+		return matcher.matches() && stateCache.find(serviceName) == null ? matcher.group(1) : serviceName;
+	}
+
+	private void update(String id, boolean publish) {
+		JobSummary job = stateCache.find(id);
+		if (job == null) {
+			deployerJobs.remove(id);
+			if (!states.containsKey(id)) {
+				return;
+			}
+		}
+		else if (!isDeployerJob(id)) {
+			return;
+		}
+
+		StateEvent event;
+		if (job == null) {
+			event = new StateEvent(id, states.get(id).getType(), DeploymentState.unknown.name());
+		}
+		else if ("batch".equals(job.getType())) {
+			event = new StateEvent(id, StateEvent.TASK, taskLauncher.status(id).getState().name());
+		}
+		else {
+			event = new StateEvent(id, StateEvent.APP, appDeployer.status(id).getState().name());
+		}
+
+		if (event.equals(states.get(id))) {
+			return;
+		}
+		if (job == null) {
+			states.remove(id);
+		}
+		else {
+			states.put(id, event);
+		}
+
+		if (publish) {
+			logger.debug("State changed: {}", event);
+			for (Consumer<StateEvent> listener : listeners) {
+				try {
+					listener.accept(event);
+				}
+				catch (Exception e) {
+					logger.warn("State event listener failed", e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Whether the Job was deployed by this deployer, see
+	 * {@link AbstractNomadDeployer#isDeployerMeta(Map)}. The Job list does not include meta, so each
+	 * Job is read once.
+	 */
+	private boolean isDeployerJob(String id) {
+		return deployerJobs.computeIfAbsent(id, jobId -> {
+			try {
+				Job job = client.v1.job.getJob(jobId);
+				return AbstractNomadDeployer.isDeployerMeta(job.getMeta());
+			}
+			catch (FeignException e) {
+				if (e.status() == 404) {
+					return false;
+				}
+				throw e;
+			}
+		});
+	}
+
+	private static ThreadFactory threadFactory() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("nomad-state-events-");
+		threadFactory.setDaemon(true);
+		return threadFactory;
+	}
+
+	/**
+	 * The state of an app or task at a point in time.
+	 */
+	public static class StateEvent {
+
+		public static final String APP = "app";
+
+		public static final String TASK = "task";
+
+		private final String id;
+		private final String type;
+		private final String state;
+
+		public StateEvent(String id, String type, String state) {
+			this.id = id;
+			this.type = type;
+			this.state = state;
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		/**
+		 * Either {@link #APP} or {@link #TASK}.
+		 */
+		public String getType() {
+			return type;
+		}
+
+		/**
+		 * The name of the {@link DeploymentState} of an app or the {@link LaunchState} of a task.
+		 */
+		public String getState() {
+			return state;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof StateEvent)) {
+				return false;
+			}
+			StateEvent that = (StateEvent) o;
+			return Objects.equals(id, that.id) && Objects.equals(type, that.type) && Objects.equals(state, that.state);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(id, type, state);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("StateEvent{id='%s', type='%s', state='%s'}", id, type, state);
+		}
+	}
+}
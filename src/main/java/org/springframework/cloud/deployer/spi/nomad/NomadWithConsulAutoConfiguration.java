@@ -3,8 +3,10 @@ package org.springframework.cloud.deployer.spi.nomad;
 import org.springframework.boot.autoconfigure.AutoConfigureOrder;
 import org.springframework.cloud.consul.ConditionalOnConsulEnabled;
 import org.springframework.cloud.deployer.spi.app.AppDeployer;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApi;
 import org.springframework.cloud.deployer.spi.nomad.docker.IndexingDockerNomadWithConsulAppDeployer;
 import org.springframework.cloud.deployer.spi.nomad.maven.IndexingMavenNomadWithConsulAppDeployer;
+import org.springframework.cloud.deployer.spi.nomad.maven.ResourceChecksum;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -29,10 +31,23 @@ public class NomadWithConsulAutoConfiguration {
 		this.deployerProperties = deployerProperties;
 	}
 
+	@Bean(initMethod = "start", destroyMethod = "stop")
+	public ConsulHealthChecks consulHealthChecks(ConsulClient consulClient, NomadMetrics nomadMetrics) {
+		if (deployerProperties.getHealthCache().isEnabled() || deployerProperties.getStateEvents().isEnabled()) {
+			return new ConsulHealthCache(consulClient, deployerProperties.getHealthCache().getWaitTime(),
+					nomadMetrics);
+		}
+
+		return new ConsulHealthChecks(consulClient, nomadMetrics);
+	}
+
 	@Bean
-	public AppDeployer appDeployer(NomadClient nomadClient, ConsulClient consulClient) {
+	public AppDeployer appDeployer(NomadClient nomadClient, NomadApi nomadApi, ConsulClient consulClient,
+			NomadJobIndex jobIndex, ResourceChecksum resourceChecksum, ConsulHealthChecks healthChecks) {
 		return new ResourceAwareNomadAppDeployer(
-				new IndexingDockerNomadWithConsulAppDeployer(nomadClient, consulClient, deployerProperties),
-				new IndexingMavenNomadWithConsulAppDeployer(nomadClient, consulClient, deployerProperties));
+				new IndexingDockerNomadWithConsulAppDeployer(nomadClient, consulClient, nomadApi, jobIndex,
+						healthChecks, deployerProperties),
+				new IndexingMavenNomadWithConsulAppDeployer(nomadClient, consulClient, nomadApi, jobIndex,
+						resourceChecksum, healthChecks, deployerProperties));
 	}
 }
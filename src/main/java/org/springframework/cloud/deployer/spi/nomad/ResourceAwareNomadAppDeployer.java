@@ -1,5 +1,9 @@
 package org.springframework.cloud.deployer.spi.nomad;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Supplier;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.deployer.resource.maven.MavenResource;
@@ -10,7 +14,7 @@ import org.springframework.cloud.deployer.spi.core.RuntimeEnvironmentInfo;
 import org.springframework.cloud.deployer.spi.nomad.docker.DockerNomadAppDeployer;
 import org.springframework.cloud.deployer.spi.nomad.maven.MavenNomadAppDeployer;
 
-public class ResourceAwareNomadAppDeployer implements AppDeployer {
+public class ResourceAwareNomadAppDeployer implements AwaitableAppDeployer {
 
 	private static final Logger logger = LoggerFactory.getLogger(ResourceAwareNomadAppDeployer.class);
 
@@ -43,6 +47,14 @@ public class ResourceAwareNomadAppDeployer implements AppDeployer {
 		return appId;
 	}
 
+	@Override
+	public Supplier<DeploymentResult> deployAwaitable(AppDeploymentRequest request, long timeout) {
+		if (request.getResource() instanceof MavenResource) {
+			return mavenAppDeployer.deployAwaitable(request, timeout);
+		}
+		return dockerAppDeployer.deployAwaitable(request, timeout);
+	}
+
 	@Override
 	public void undeploy(String appId) {
 		dockerAppDeployer.undeploy(appId);
@@ -53,6 +65,20 @@ public class ResourceAwareNomadAppDeployer implements AppDeployer {
 		return dockerAppDeployer.status(appId);
 	}
 
+	/**
+	 * See {@link DockerNomadAppDeployer#statuses(Collection)}
+	 */
+	public Map<String, AppStatus> statuses(Collection<String> appIds) {
+		return dockerAppDeployer.statuses(appIds);
+	}
+
+	/**
+	 * See {@link DockerNomadAppDeployer#scale(String, int)}
+	 */
+	public void scale(String appId, int count) {
+		dockerAppDeployer.scale(appId, count);
+	}
+
 	@Override
 	public RuntimeEnvironmentInfo environmentInfo() {
 		return dockerAppDeployer.environmentInfo();
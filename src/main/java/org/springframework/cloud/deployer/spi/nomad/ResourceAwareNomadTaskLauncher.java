@@ -1,5 +1,13 @@
 package org.springframework.cloud.deployer.spi.nomad;
 
+import static java.util.stream.Collectors.toList;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.deployer.resource.maven.MavenResource;
@@ -9,18 +17,37 @@ import org.springframework.cloud.deployer.spi.nomad.docker.DockerNomadTaskLaunch
 import org.springframework.cloud.deployer.spi.nomad.maven.MavenNomadTaskLauncher;
 import org.springframework.cloud.deployer.spi.task.TaskLauncher;
 import org.springframework.cloud.deployer.spi.task.TaskStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
+/**
+ * Launches tasks with the {@link MavenNomadTaskLauncher} or {@link DockerNomadTaskLauncher},
+ * depending on the resource. Batches of tasks can be launched concurrently with
+ * {@link #launchAll(List)}.
+ *
+ * @author Donovan Muller
+ */
 public class ResourceAwareNomadTaskLauncher implements TaskLauncher {
 
 	private static final Logger logger = LoggerFactory.getLogger(ResourceAwareNomadTaskLauncher.class);
 
 	private final DockerNomadTaskLauncher dockerTaskLauncher;
 	private final MavenNomadTaskLauncher mavenTaskLauncher;
+	private final ExecutorService executor;
 
 	public ResourceAwareNomadTaskLauncher(DockerNomadTaskLauncher dockerTaskLauncher,
 			MavenNomadTaskLauncher mavenTaskLauncher) {
+		this(dockerTaskLauncher, mavenTaskLauncher, 8);
+	}
+
+	/**
+	 * @param launchConcurrency the maximum number of launches {@link #launchAll(List)} will have in
+	 * flight against Nomad at once
+	 */
+	public ResourceAwareNomadTaskLauncher(DockerNomadTaskLauncher dockerTaskLauncher,
+			MavenNomadTaskLauncher mavenTaskLauncher, int launchConcurrency) {
 		this.dockerTaskLauncher = dockerTaskLauncher;
 		this.mavenTaskLauncher = mavenTaskLauncher;
+		this.executor = Executors.newFixedThreadPool(launchConcurrency, threadFactory());
 	}
 
 	@Override
@@ -43,6 +70,23 @@ public class ResourceAwareNomadTaskLauncher implements TaskLauncher {
 		return taskId;
 	}
 
+	/**
+	 * Launch all the requests concurrently. Each Job is built and submitted on a bounded pool of
+	 * threads, so that at most <code>launchConcurrency</code> launches are in flight at once. A
+	 * failed launch does not affect the other launches.
+	 *
+	 * @return the result of each launch, in the order of the requests
+	 */
+	public List<LaunchResult> launchAll(List<AppDeploymentRequest> requests) {
+		List<CompletableFuture<LaunchResult>> launches = requests.stream()
+				.map(request -> CompletableFuture
+						.supplyAsync(() -> new LaunchResult(request, launch(request), null), executor)
+						.exceptionally(e -> new LaunchResult(request, null, e.getCause() != null ? e.getCause() : e)))
+				.collect(toList());
+
+		return launches.stream().map(CompletableFuture::join).collect(toList());
+	}
+
 	@Override
 	public void cancel(String taskId) {
 		dockerTaskLauncher.cancel(taskId);
@@ -67,4 +111,46 @@ public class ResourceAwareNomadTaskLauncher implements TaskLauncher {
 	public RuntimeEnvironmentInfo environmentInfo() {
 		return dockerTaskLauncher.environmentInfo();
 	}
+
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	private static ThreadFactory threadFactory() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("nomad-task-launcher-");
+		threadFactory.setDaemon(true);
+		return threadFactory;
+	}
+
+	/**
+	 * The outcome of a launch, either the task id or the failure.
+	 */
+	public static class LaunchResult {
+
+		private final AppDeploymentRequest request;
+		private final String taskId;
+		private final Throwable failure;
+
+		public LaunchResult(AppDeploymentRequest request, String taskId, Throwable failure) {
+			this.request = request;
+			this.taskId = taskId;
+			this.failure = failure;
+		}
+
+		public boolean isLaunched() {
+			return failure == null;
+		}
+
+		public AppDeploymentRequest getRequest() {
+			return request;
+		}
+
+		public String getTaskId() {
+			return taskId;
+		}
+
+		public Throwable getFailure() {
+			return failure;
+		}
+	}
 }
@@ -0,0 +1,97 @@
+package org.springframework.cloud.deployer.spi.nomad;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.deployer.spi.core.RuntimeEnvironmentInfo;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Caches a {@link RuntimeEnvironmentInfo}, so that <code>environmentInfo()</code> does not call the
+ * Nomad agent (<code>/v1/agent/members</code>) on every invocation.
+ * <p>
+ * Only the first call builds the info in the calling thread. Once the cached info is older than the
+ * refresh interval it is still returned, and a single refresh is started in the background. If the
+ * refresh fails, the stale info is kept and the refresh is retried after another interval.
+ *
+ * @author Donovan Muller
+ */
+public class RuntimeEnvironmentInfoCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(RuntimeEnvironmentInfoCache.class);
+
+	private static final ExecutorService REFRESH_EXECUTOR = Executors.newSingleThreadExecutor(threadFactory());
+
+	private final Supplier<RuntimeEnvironmentInfo> loader;
+	private final long refreshInterval;
+	private final Executor executor;
+	private final LongSupplier clock;
+	private final AtomicBoolean refreshing = new AtomicBoolean();
+
+	private volatile RuntimeEnvironmentInfo environmentInfo;
+	private volatile long loadedAt;
+
+	/**
+	 * @param refreshInterval the time (in milliseconds) after which the info is refreshed. Zero or
+	 * less disables caching
+	 */
+	public RuntimeEnvironmentInfoCache(Supplier<RuntimeEnvironmentInfo> loader, long refreshInterval) {
+		this(loader, refreshInterval, REFRESH_EXECUTOR, System::currentTimeMillis);
+	}
+
+	RuntimeEnvironmentInfoCache(Supplier<RuntimeEnvironmentInfo> loader, long refreshInterval, Executor executor,
+			LongSupplier clock) {
+		this.loader = loader;
+		this.refreshInterval = refreshInterval;
+		this.executor = executor;
+		this.clock = clock;
+	}
+
+	public RuntimeEnvironmentInfo get() {
+		if (refreshInterval <= 0) {
+			return loader.get();
+		}
+
+		RuntimeEnvironmentInfo current = environmentInfo;
+		if (current == null) {
+			synchronized (this) {
+				if (environmentInfo == null) {
+					environmentInfo = loader.get();
+					loadedAt = clock.getAsLong();
+				}
+				return environmentInfo;
+			}
+		}
+
+		if (clock.getAsLong() - loadedAt >= refreshInterval && refreshing.compareAndSet(false, true)) {
+			executor.execute(this::refresh);
+		}
+		return current;
+	}
+
+	private void refresh() {
+		try {
+			environmentInfo = loader.get();
+		}
+		catch (RuntimeException e) {
+			logger.warn("Failed to refresh the runtime environment info, keeping the previous info", e);
+		}
+		finally {
+			loadedAt = clock.getAsLong();
+			refreshing.set(false);
+		}
+	}
+
+	private static ThreadFactory threadFactory() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("nomad-environment-info-");
+		threadFactory.setDaemon(true);
+		return threadFactory;
+	}
+}
@@ -0,0 +1,116 @@
+package org.springframework.cloud.deployer.spi.nomad.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Repeatedly issues a Nomad
+ * <a href="https://www.nomadproject.io/docs/http/index.html#blocking-queries">blocking query</a>
+ * on a daemon thread, passing the result to a listener whenever the <code>X-Nomad-Index</code>
+ * changes. Consul blocking queries (<code>X-Consul-Index</code>) work the same way.
+ *
+ * @author Donovan Muller
+ */
+public class BlockingQueryWatch<T> {
+
+	private static final Logger logger = LoggerFactory.getLogger(BlockingQueryWatch.class);
+
+	private final String name;
+	private final LongFunction<IndexedResponse<T>> query;
+	private final Consumer<T> listener;
+
+	private volatile long lastIndex;
+	private volatile long lastContact;
+	private volatile boolean synced;
+	private volatile Thread watcher;
+
+	/**
+	 * @param name used to name the watching thread
+	 * @param query issues the blocking query for the given index
+	 * @param listener called with the result every time the index changes
+	 */
+	public BlockingQueryWatch(String name, LongFunction<IndexedResponse<T>> query, Consumer<T> listener) {
+		this.name = name;
+		this.query = query;
+		this.listener = listener;
+	}
+
+	public synchronized void start() {
+		if (watcher != null) {
+			return;
+		}
+
+		watcher = new Thread(this::watch, name);
+		watcher.setDaemon(true);
+		watcher.start();
+	}
+
+	public synchronized void stop() {
+		if (watcher != null) {
+			watcher.interrupt();
+			watcher = null;
+		}
+		synced = false;
+	}
+
+	/**
+	 * Issue a single blocking query and notify the listener if the index has changed.
+	 */
+	public void refresh() {
+		IndexedResponse<T> response = query.apply(lastIndex);
+		// the index can go backwards, e.g. after a leader election, in which case we start over
+		if (response.getIndex() != lastIndex && response.getValue() != null) {
+			listener.accept(response.getValue());
+			logger.trace("'{}' updated to index {}", name, response.getIndex());
+		}
+		lastIndex = response.getIndex();
+		lastContact = response.getLastContact();
+		synced = watcher != null;
+	}
+
+	/**
+	 * Whether the last blocking query succeeded, i.e. the listener has observed the current state.
+	 */
+	public boolean isSynced() {
+		return synced;
+	}
+
+	/**
+	 * The <code>X-Nomad-Index</code> of the last observed state.
+	 */
+	public long getLastIndex() {
+		return lastIndex;
+	}
+
+	/**
+	 * The <code>X-Nomad-LastContact</code> of the last response, i.e. how stale (in
+	 * milliseconds) the serving Nomad server's view of the state was.
+	 */
+	public long getLastContact() {
+		return lastContact;
+	}
+
+	private void watch() {
+		while (watcher == Thread.currentThread()) {
+			try {
+				refresh();
+			}
+			catch (Exception e) {
+				synced = false;
+				lastIndex = 0;
+				logger.warn(String.format("Blocking query '%s' failed, retrying", name), e);
+				try {
+					TimeUnit.SECONDS.sleep(5);
+				}
+				catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+}
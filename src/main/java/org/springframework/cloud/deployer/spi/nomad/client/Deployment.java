@@ -0,0 +1,148 @@
+package org.springframework.cloud.deployer.spi.nomad.client;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Response of <code>GET /v1/deployment/:id</code>. Nomad (0.6+) creates a deployment for every
+ * registered version of a Job with an update stanza and tracks the health of its allocations. See
+ * https://www.nomadproject.io/api/deployments.html
+ *
+ * @author Donovan Muller
+ */
+public class Deployment {
+
+	@JsonProperty("ID")
+	private String id;
+
+	@JsonProperty("JobID")
+	private String jobId;
+
+	/**
+	 * One of <code>running</code>, <code>paused</code>, <code>successful</code>,
+	 * <code>failed</code> or <code>cancelled</code>.
+	 */
+	@JsonProperty("Status")
+	private String status;
+
+	@JsonProperty("StatusDescription")
+	private String statusDescription;
+
+	@JsonProperty("TaskGroups")
+	private Map<String, TaskGroupState> taskGroups;
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getJobId() {
+		return jobId;
+	}
+
+	public void setJobId(String jobId) {
+		this.jobId = jobId;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	public String getStatusDescription() {
+		return statusDescription;
+	}
+
+	public void setStatusDescription(String statusDescription) {
+		this.statusDescription = statusDescription;
+	}
+
+	public Map<String, TaskGroupState> getTaskGroups() {
+		return taskGroups;
+	}
+
+	public void setTaskGroups(Map<String, TaskGroupState> taskGroups) {
+		this.taskGroups = taskGroups;
+	}
+
+	@Override
+	public String toString() {
+		return "Deployment{" + "id='" + id + '\'' + ", jobId='" + jobId + '\'' + ", status='" + status + '\''
+				+ ", statusDescription='" + statusDescription + '\'' + ", taskGroups=" + taskGroups + '}';
+	}
+
+	/**
+	 * The progress of the deployment of a TaskGroup.
+	 */
+	public static class TaskGroupState {
+
+		@JsonProperty("DesiredTotal")
+		private int desiredTotal;
+
+		@JsonProperty("DesiredCanaries")
+		private int desiredCanaries;
+
+		@JsonProperty("PlacedAllocs")
+		private int placedAllocs;
+
+		@JsonProperty("HealthyAllocs")
+		private int healthyAllocs;
+
+		@JsonProperty("UnhealthyAllocs")
+		private int unhealthyAllocs;
+
+		public int getDesiredTotal() {
+			return desiredTotal;
+		}
+
+		public void setDesiredTotal(int desiredTotal) {
+			this.desiredTotal = desiredTotal;
+		}
+
+		public int getDesiredCanaries() {
+			return desiredCanaries;
+		}
+
+		public void setDesiredCanaries(int desiredCanaries) {
+			this.desiredCanaries = desiredCanaries;
+		}
+
+		public int getPlacedAllocs() {
+			return placedAllocs;
+		}
+
+		public void setPlacedAllocs(int placedAllocs) {
+			this.placedAllocs = placedAllocs;
+		}
+
+		public int getHealthyAllocs() {
+			return healthyAllocs;
+		}
+
+		public void setHealthyAllocs(int healthyAllocs) {
+			this.healthyAllocs = healthyAllocs;
+		}
+
+		public int getUnhealthyAllocs() {
+			return unhealthyAllocs;
+		}
+
+		public void setUnhealthyAllocs(int unhealthyAllocs) {
+			this.unhealthyAllocs = unhealthyAllocs;
+		}
+
+		@Override
+		public String toString() {
+			return "TaskGroupState{" + "desiredTotal=" + desiredTotal + ", desiredCanaries=" + desiredCanaries
+					+ ", placedAllocs=" + placedAllocs + ", healthyAllocs=" + healthyAllocs + ", unhealthyAllocs="
+					+ unhealthyAllocs + '}';
+		}
+	}
+}
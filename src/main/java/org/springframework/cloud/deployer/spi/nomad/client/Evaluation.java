@@ -0,0 +1,192 @@
+package org.springframework.cloud.deployer.spi.nomad.client;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Response of <code>GET /v1/evaluation/:id</code>. See
+ * https://www.nomadproject.io/api/evaluations.html
+ *
+ * @author Donovan Muller
+ */
+public class Evaluation {
+
+	@JsonProperty("ID")
+	private String id;
+
+	@JsonProperty("JobID")
+	private String jobId;
+
+	/**
+	 * One of <code>pending</code>, <code>complete</code>, <code>failed</code>, <code>blocked</code>
+	 * or <code>canceled</code>.
+	 */
+	@JsonProperty("Status")
+	private String status;
+
+	@JsonProperty("StatusDescription")
+	private String statusDescription;
+
+	/**
+	 * The Nomad deployment created for the Job version, if the Job has an update stanza.
+	 */
+	@JsonProperty("DeploymentID")
+	private String deploymentId;
+
+	/**
+	 * The evaluation created to place the allocations that could not be placed, once resources
+	 * become available.
+	 */
+	@JsonProperty("BlockedEval")
+	private String blockedEval;
+
+	/**
+	 * The metrics of the TaskGroups that could not be placed, keyed by TaskGroup name.
+	 */
+	@JsonProperty("FailedTGAllocs")
+	private Map<String, AllocationMetric> failedTaskGroupAllocations;
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getJobId() {
+		return jobId;
+	}
+
+	public void setJobId(String jobId) {
+		this.jobId = jobId;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	public String getStatusDescription() {
+		return statusDescription;
+	}
+
+	public void setStatusDescription(String statusDescription) {
+		this.statusDescription = statusDescription;
+	}
+
+	public String getDeploymentId() {
+		return deploymentId;
+	}
+
+	public void setDeploymentId(String deploymentId) {
+		this.deploymentId = deploymentId;
+	}
+
+	public String getBlockedEval() {
+		return blockedEval;
+	}
+
+	public void setBlockedEval(String blockedEval) {
+		this.blockedEval = blockedEval;
+	}
+
+	public Map<String, AllocationMetric> getFailedTaskGroupAllocations() {
+		return failedTaskGroupAllocations;
+	}
+
+	public void setFailedTaskGroupAllocations(Map<String, AllocationMetric> failedTaskGroupAllocations) {
+		this.failedTaskGroupAllocations = failedTaskGroupAllocations;
+	}
+
+	@Override
+	public String toString() {
+		return "Evaluation{" + "id='" + id + '\'' + ", jobId='" + jobId + '\'' + ", status='" + status + '\''
+				+ ", deploymentId='" + deploymentId + '\'' + ", blockedEval='" + blockedEval + '\'' + '}';
+	}
+
+	/**
+	 * Why the allocations of a TaskGroup could not be placed.
+	 */
+	public static class AllocationMetric {
+
+		@JsonProperty("NodesEvaluated")
+		private int nodesEvaluated;
+
+		@JsonProperty("NodesFiltered")
+		private int nodesFiltered;
+
+		@JsonProperty("NodesExhausted")
+		private int nodesExhausted;
+
+		/**
+		 * The number of nodes filtered, keyed by constraint.
+		 */
+		@JsonProperty("ConstraintFiltered")
+		private Map<String, Integer> constraintFiltered;
+
+		/**
+		 * The number of nodes exhausted, keyed by resource dimension, e.g. <code>memory</code>.
+		 */
+		@JsonProperty("DimensionExhausted")
+		private Map<String, Integer> dimensionExhausted;
+
+		/**
+		 * The number of further allocations of the TaskGroup that failed for the same reasons.
+		 */
+		@JsonProperty("CoalescedFailures")
+		private int coalescedFailures;
+
+		public int getNodesEvaluated() {
+			return nodesEvaluated;
+		}
+
+		public void setNodesEvaluated(int nodesEvaluated) {
+			this.nodesEvaluated = nodesEvaluated;
+		}
+
+		public int getNodesFiltered() {
+			return nodesFiltered;
+		}
+
+		public void setNodesFiltered(int nodesFiltered) {
+			this.nodesFiltered = nodesFiltered;
+		}
+
+		public int getNodesExhausted() {
+			return nodesExhausted;
+		}
+
+		public void setNodesExhausted(int nodesExhausted) {
+			this.nodesExhausted = nodesExhausted;
+		}
+
+		public Map<String, Integer> getConstraintFiltered() {
+			return constraintFiltered;
+		}
+
+		public void setConstraintFiltered(Map<String, Integer> constraintFiltered) {
+			this.constraintFiltered = constraintFiltered;
+		}
+
+		public Map<String, Integer> getDimensionExhausted() {
+			return dimensionExhausted;
+		}
+
+		public void setDimensionExhausted(Map<String, Integer> dimensionExhausted) {
+			this.dimensionExhausted = dimensionExhausted;
+		}
+
+		public int getCoalescedFailures() {
+			return coalescedFailures;
+		}
+
+		public void setCoalescedFailures(int coalescedFailures) {
+			this.coalescedFailures = coalescedFailures;
+		}
+	}
+}
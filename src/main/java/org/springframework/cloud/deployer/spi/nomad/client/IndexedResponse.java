@@ -0,0 +1,43 @@
+package org.springframework.cloud.deployer.spi.nomad.client;
+
+/**
+ * The response of a Nomad
+ * <a href="https://www.nomadproject.io/docs/http/index.html#blocking-queries">blocking query</a>,
+ * the decoded body along with the <code>X-Nomad-Index</code> and <code>X-Nomad-LastContact</code>
+ * header values.
+ *
+ * @author Donovan Muller
+ */
+public class IndexedResponse<T> {
+
+	private final T value;
+	private final long index;
+	private final long lastContact;
+
+	public IndexedResponse(T value, long index) {
+		this(value, index, 0);
+	}
+
+	public IndexedResponse(T value, long index, long lastContact) {
+		this.value = value;
+		this.index = index;
+		this.lastContact = lastContact;
+	}
+
+	public T getValue() {
+		return value;
+	}
+
+	public long getIndex() {
+		return index;
+	}
+
+	public long getLastContact() {
+		return lastContact;
+	}
+
+	@Override
+	public String toString() {
+		return "IndexedResponse{" + "index=" + index + ", lastContact=" + lastContact + ", value=" + value + '}';
+	}
+}
@@ -0,0 +1,52 @@
+package org.springframework.cloud.deployer.spi.nomad.client;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Map;
+
+import feign.Response;
+import feign.codec.Decoder;
+
+/**
+ * {@link Decoder} that decodes {@link IndexedResponse} return types by delegating the body to the
+ * wrapped decoder and capturing the <code>X-Nomad-Index</code> and
+ * <code>X-Nomad-LastContact</code> headers.
+ *
+ * @author Donovan Muller
+ */
+public class IndexedResponseDecoder implements Decoder {
+
+	static final String NOMAD_INDEX_HEADER = "X-Nomad-Index";
+
+	static final String NOMAD_LAST_CONTACT_HEADER = "X-Nomad-LastContact";
+
+	private final Decoder delegate;
+
+	public IndexedResponseDecoder(Decoder delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public Object decode(Response response, Type type) throws IOException {
+		if (type instanceof ParameterizedType
+				&& ((ParameterizedType) type).getRawType().equals(IndexedResponse.class)) {
+			Type valueType = ((ParameterizedType) type).getActualTypeArguments()[0];
+			return new IndexedResponse<>(delegate.decode(response, valueType),
+					getHeader(response, NOMAD_INDEX_HEADER), getHeader(response, NOMAD_LAST_CONTACT_HEADER));
+		}
+
+		return delegate.decode(response, type);
+	}
+
+	private long getHeader(Response response, String name) {
+		for (Map.Entry<String, Collection<String>> header : response.headers().entrySet()) {
+			if (name.equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty()) {
+				return Long.parseLong(header.getValue().iterator().next());
+			}
+		}
+
+		return 0;
+	}
+}
@@ -0,0 +1,40 @@
+package org.springframework.cloud.deployer.spi.nomad.client;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Request body of <code>POST /v1/job/:id/dispatch</code>. See
+ * https://www.nomadproject.io/api/jobs.html#dispatch-job
+ *
+ * @author Donovan Muller
+ */
+public class JobDispatchRequest {
+
+	/**
+	 * Base64 encoded payload, limited to 16KiB by Nomad.
+	 */
+	@JsonProperty("Payload")
+	private final String payload;
+
+	@JsonProperty("Meta")
+	private final Map<String, String> meta;
+
+	public JobDispatchRequest(Map<String, String> meta) {
+		this(null, meta);
+	}
+
+	public JobDispatchRequest(String payload, Map<String, String> meta) {
+		this.payload = payload;
+		this.meta = meta;
+	}
+
+	public String getPayload() {
+		return payload;
+	}
+
+	public Map<String, String> getMeta() {
+		return meta;
+	}
+}
@@ -0,0 +1,72 @@
+package org.springframework.cloud.deployer.spi.nomad.client;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Response of <code>POST /v1/job/:id/dispatch</code>.
+ *
+ * @author Donovan Muller
+ */
+public class JobDispatchResponse {
+
+	@JsonProperty("DispatchedJobID")
+	private String dispatchedJobId;
+
+	@JsonProperty("EvalID")
+	private String evalId;
+
+	@JsonProperty("EvalCreateIndex")
+	private long evalCreateIndex;
+
+	@JsonProperty("JobCreateIndex")
+	private long jobCreateIndex;
+
+	@JsonProperty("Index")
+	private long index;
+
+	public String getDispatchedJobId() {
+		return dispatchedJobId;
+	}
+
+	public void setDispatchedJobId(String dispatchedJobId) {
+		this.dispatchedJobId = dispatchedJobId;
+	}
+
+	public String getEvalId() {
+		return evalId;
+	}
+
+	public void setEvalId(String evalId) {
+		this.evalId = evalId;
+	}
+
+	public long getEvalCreateIndex() {
+		return evalCreateIndex;
+	}
+
+	public void setEvalCreateIndex(long evalCreateIndex) {
+		this.evalCreateIndex = evalCreateIndex;
+	}
+
+	public long getJobCreateIndex() {
+		return jobCreateIndex;
+	}
+
+	public void setJobCreateIndex(long jobCreateIndex) {
+		this.jobCreateIndex = jobCreateIndex;
+	}
+
+	public long getIndex() {
+		return index;
+	}
+
+	public void setIndex(long index) {
+		this.index = index;
+	}
+
+	@Override
+	public String toString() {
+		return "JobDispatchResponse{" + "dispatchedJobId='" + dispatchedJobId + '\'' + ", evalId='" + evalId + '\''
+				+ ", index=" + index + '}';
+	}
+}
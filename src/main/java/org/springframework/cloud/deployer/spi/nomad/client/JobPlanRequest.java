@@ -0,0 +1,32 @@
+package org.springframework.cloud.deployer.spi.nomad.client;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.github.zanella.nomad.v1.jobs.models.JobSpec;
+
+/**
+ * Request body of <code>POST /v1/job/:id/plan</code>. See
+ * https://www.nomadproject.io/api/jobs.html#create-job-plan
+ *
+ * @author Donovan Muller
+ */
+public class JobPlanRequest {
+
+	@JsonProperty("Job")
+	private final JobSpec job;
+
+	@JsonProperty("Diff")
+	private final boolean diff = true;
+
+	public JobPlanRequest(JobSpec job) {
+		this.job = job;
+	}
+
+	public JobSpec getJob() {
+		return job;
+	}
+
+	public boolean isDiff() {
+		return diff;
+	}
+}
@@ -0,0 +1,187 @@
+package org.springframework.cloud.deployer.spi.nomad.client;
+
+import java.util.Collections;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Response of <code>POST /v1/job/:id/plan</code>. Only the Job level diff type, the scheduler
+ * annotations and the <code>JobModifyIndex</code> (used to register the planned Job with
+ * check-and-set) are mapped.
+ *
+ * @author Donovan Muller
+ */
+public class JobPlanResponse {
+
+	/**
+	 * The Job diff type when the planned Job is identical to the registered Job.
+	 */
+	public static final String DIFF_NONE = "None";
+
+	@JsonProperty("JobModifyIndex")
+	private long jobModifyIndex;
+
+	@JsonProperty("Diff")
+	private Diff diff;
+
+	@JsonProperty("Annotations")
+	private Annotations annotations;
+
+	@JsonProperty("Warnings")
+	private String warnings;
+
+	/**
+	 * @return <code>true</code> if the planned Job differs from the registered Job, or no Job is
+	 * registered yet
+	 */
+	public boolean hasChanges() {
+		return diff == null || !DIFF_NONE.equals(diff.getType());
+	}
+
+	/**
+	 * The <code>JobModifyIndex</code> of the registered Job, <code>0</code> if the Job does not
+	 * exist.
+	 */
+	public long getJobModifyIndex() {
+		return jobModifyIndex;
+	}
+
+	public void setJobModifyIndex(long jobModifyIndex) {
+		this.jobModifyIndex = jobModifyIndex;
+	}
+
+	public Diff getDiff() {
+		return diff;
+	}
+
+	public void setDiff(Diff diff) {
+		this.diff = diff;
+	}
+
+	public Annotations getAnnotations() {
+		return annotations;
+	}
+
+	public void setAnnotations(Annotations annotations) {
+		this.annotations = annotations;
+	}
+
+	public String getWarnings() {
+		return warnings;
+	}
+
+	public void setWarnings(String warnings) {
+		this.warnings = warnings;
+	}
+
+	public static class Diff {
+
+		/**
+		 * One of <code>None</code>, <code>Added</code>, <code>Deleted</code> or
+		 * <code>Edited</code>.
+		 */
+		@JsonProperty("Type")
+		private String type;
+
+		public String getType() {
+			return type;
+		}
+
+		public void setType(String type) {
+			this.type = type;
+		}
+	}
+
+	public static class Annotations {
+
+		@JsonProperty("DesiredTGUpdates")
+		private Map<String, DesiredUpdates> desiredTaskGroupUpdates;
+
+		/**
+		 * The allocation changes the scheduler would make, keyed by TaskGroup name.
+		 */
+		public Map<String, DesiredUpdates> getDesiredTaskGroupUpdates() {
+			return desiredTaskGroupUpdates != null ? desiredTaskGroupUpdates : Collections.emptyMap();
+		}
+
+		public void setDesiredTaskGroupUpdates(Map<String, DesiredUpdates> desiredTaskGroupUpdates) {
+			this.desiredTaskGroupUpdates = desiredTaskGroupUpdates;
+		}
+	}
+
+	public static class DesiredUpdates {
+
+		@JsonProperty("Ignore")
+		private int ignore;
+
+		@JsonProperty("Place")
+		private int place;
+
+		@JsonProperty("Migrate")
+		private int migrate;
+
+		@JsonProperty("Stop")
+		private int stop;
+
+		@JsonProperty("InPlaceUpdate")
+		private int inPlaceUpdate;
+
+		@JsonProperty("DestructiveUpdate")
+		private int destructiveUpdate;
+
+		public int getIgnore() {
+			return ignore;
+		}
+
+		public void setIgnore(int ignore) {
+			this.ignore = ignore;
+		}
+
+		public int getPlace() {
+			return place;
+		}
+
+		public void setPlace(int place) {
+			this.place = place;
+		}
+
+		public int getMigrate() {
+			return migrate;
+		}
+
+		public void setMigrate(int migrate) {
+			this.migrate = migrate;
+		}
+
+		public int getStop() {
+			return stop;
+		}
+
+		public void setStop(int stop) {
+			this.stop = stop;
+		}
+
+		public int getInPlaceUpdate() {
+			return inPlaceUpdate;
+		}
+
+		public void setInPlaceUpdate(int inPlaceUpdate) {
+			this.inPlaceUpdate = inPlaceUpdate;
+		}
+
+		public int getDestructiveUpdate() {
+			return destructiveUpdate;
+		}
+
+		public void setDestructiveUpdate(int destructiveUpdate) {
+			this.destructiveUpdate = destructiveUpdate;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("place=%d, stop=%d, migrate=%d, in-place=%d, destructive=%d, ignore=%d", place,
+					stop, migrate, inPlaceUpdate, destructiveUpdate, ignore);
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package org.springframework.cloud.deployer.spi.nomad.client;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.github.zanella.nomad.v1.jobs.models.JobSpec;
+
+/**
+ * Request body of <code>POST /v1/jobs</code>. The Job is wrapped explicitly, so that the fields of
+ * {@link JobSpec} subclasses (e.g. {@link ParameterizedJobSpec}) are serialized.
+ *
+ * @author Donovan Muller
+ */
+public class JobRegistration {
+
+	@JsonProperty("Job")
+	private final JobSpec job;
+
+	@JsonProperty("EnforceIndex")
+	private final Boolean enforceIndex;
+
+	@JsonProperty("JobModifyIndex")
+	private final Long jobModifyIndex;
+
+	public JobRegistration(JobSpec job) {
+		this.job = job;
+		this.enforceIndex = null;
+		this.jobModifyIndex = null;
+	}
+
+	/**
+	 * Register the Job only if its current <code>JobModifyIndex</code> matches (check-and-set). A
+	 * <code>jobModifyIndex</code> of <code>0</code> registers the Job only if it does not exist yet.
+	 */
+	public JobRegistration(JobSpec job, long jobModifyIndex) {
+		this.job = job;
+		this.enforceIndex = true;
+		this.jobModifyIndex = jobModifyIndex;
+	}
+
+	public JobSpec getJob() {
+		return job;
+	}
+
+	public Boolean getEnforceIndex() {
+		return enforceIndex;
+	}
+
+	public Long getJobModifyIndex() {
+		return jobModifyIndex;
+	}
+}
@@ -0,0 +1,103 @@
+package org.springframework.cloud.deployer.spi.nomad.client;
+
+import java.util.List;
+
+import feign.Headers;
+import feign.Param;
+import feign.RequestLine;
+
+import io.github.zanella.nomad.v1.common.models.Job;
+import io.github.zanella.nomad.v1.jobs.models.JobAllocation;
+import io.github.zanella.nomad.v1.jobs.models.JobEvalResult;
+import io.github.zanella.nomad.v1.jobs.models.JobSpec;
+import io.github.zanella.nomad.v1.jobs.models.JobSummary;
+
+/**
+ * Nomad <a href="https://www.nomadproject.io/docs/http/index.html">HTTP API</a> endpoints that
+ * are not (yet) covered by the <a href="https://github.com/zanella/nomad-api">nomad-api</a>
+ * client. Most notably, support for
+ * <a href="https://www.nomadproject.io/docs/http/index.html#blocking-queries">blocking
+ * queries</a>, parameterized Job dispatch and Job plans.
+ *
+ * @author Donovan Muller
+ */
+public interface NomadApi {
+
+	/**
+	 * Read a Job (<code>/v1/job/:id</code>). Unlike <code>NomadClient.v1.job.getJob</code>, the
+	 * update strategy is read as a {@link RollingUpdateStrategy}, so the Job can be registered again
+	 * without losing it. The value is <code>null</code> if the Job does not exist.
+	 */
+	@RequestLine("GET /v1/job/{id}")
+	Job getJob(@Param("id") String id);
+
+	/**
+	 * Blocking query variant of <code>/v1/jobs</code>. The request will block until the job state
+	 * changes beyond the provided <code>index</code> or the <code>wait</code> duration elapses.
+	 */
+	@RequestLine("GET /v1/jobs?index={index}&wait={wait}")
+	IndexedResponse<List<JobSummary>> getJobs(@Param("index") long index, @Param("wait") String wait);
+
+	/**
+	 * Blocking query variant of <code>/v1/allocations</code>. See
+	 * https://www.nomadproject.io/docs/http/allocs.html
+	 */
+	@RequestLine("GET /v1/allocations?index={index}&wait={wait}")
+	IndexedResponse<List<JobAllocation>> getAllocations(@Param("index") long index, @Param("wait") String wait);
+
+	/**
+	 * Blocking query variant of <code>/v1/job/:id/allocations</code>. See
+	 * https://www.nomadproject.io/api/jobs.html#list-job-allocations
+	 */
+	@RequestLine("GET /v1/job/{id}/allocations?index={index}&wait={wait}")
+	IndexedResponse<List<JobAllocation>> getJobAllocations(@Param("id") String id, @Param("index") long index,
+			@Param("wait") String wait);
+
+	/**
+	 * Register a Job. Unlike <code>NomadClient.v1.jobs.postJob</code>, fields of {@link JobSpec}
+	 * subclasses like {@link ParameterizedJobSpec} are included in the request.
+	 */
+	@RequestLine("POST /v1/jobs")
+	@Headers("Content-Type: application/json")
+	JobEvalResult registerJob(JobRegistration registration);
+
+	/**
+	 * Deregister a Job and purge it, so that it is no longer listed and registering it again places
+	 * new allocations. The value is <code>null</code> if the Job does not exist. See
+	 * https://www.nomadproject.io/api/jobs.html#stop-a-job
+	 */
+	@RequestLine("DELETE /v1/job/{id}?purge=true")
+	JobEvalResult purgeJob(@Param("id") String id);
+
+	/**
+	 * Plan a Job registration without submitting it: the scheduler dry-runs the Job and reports the
+	 * diff against the registered Job. See https://www.nomadproject.io/api/jobs.html#create-job-plan
+	 */
+	@RequestLine("POST /v1/job/{id}/plan")
+	@Headers("Content-Type: application/json")
+	JobPlanResponse planJob(@Param("id") String id, JobPlanRequest request);
+
+	/**
+	 * Dispatch a new instance of a parameterized Job. See
+	 * https://www.nomadproject.io/api/jobs.html#dispatch-job
+	 */
+	@RequestLine("POST /v1/job/{id}/dispatch")
+	@Headers("Content-Type: application/json")
+	JobDispatchResponse dispatchJob(@Param("id") String id, JobDispatchRequest request);
+
+	/**
+	 * Blocking query variant of <code>/v1/evaluation/:id</code>. The value is <code>null</code> if
+	 * the evaluation does not exist. See https://www.nomadproject.io/api/evaluations.html
+	 */
+	@RequestLine("GET /v1/evaluation/{id}?index={index}&wait={wait}")
+	IndexedResponse<Evaluation> getEvaluation(@Param("id") String id, @Param("index") long index,
+			@Param("wait") String wait);
+
+	/**
+	 * Blocking query variant of <code>/v1/deployment/:id</code>. The value is <code>null</code> if
+	 * the deployment does not exist. See https://www.nomadproject.io/api/deployments.html
+	 */
+	@RequestLine("GET /v1/deployment/{id}?index={index}&wait={wait}")
+	IndexedResponse<Deployment> getDeployment(@Param("id") String id, @Param("index") long index,
+			@Param("wait") String wait);
+}
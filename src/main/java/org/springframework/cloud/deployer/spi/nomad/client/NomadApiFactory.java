@@ -0,0 +1,83 @@
+package org.springframework.cloud.deployer.spi.nomad.client;
+
+import org.springframework.cloud.deployer.spi.nomad.NomadDeployerProperties;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.xebia.jacksonlombok.JacksonLombokAnnotationIntrospector;
+
+import feign.Client;
+import feign.Feign;
+import feign.Logger;
+import feign.Request;
+import feign.jackson.JacksonDecoder;
+import feign.jackson.JacksonEncoder;
+
+import io.github.zanella.nomad.v1.common.models.UpdateStrategy;
+
+/**
+ * Creates {@link NomadApi} clients, configured the same way the nomad-api
+ * {@link io.github.zanella.nomad.v1.V1Client} is, so that the nomad-api models can be reused.
+ *
+ * @author Donovan Muller
+ */
+public class NomadApiFactory {
+
+	private final NomadDeployerProperties deployerProperties;
+	private final Client client;
+
+	public NomadApiFactory(NomadDeployerProperties deployerProperties) {
+		this(deployerProperties, new Client.Default(null, null));
+	}
+
+	/**
+	 * @param client the transport requests are sent with, e.g. a {@link NomadHttpTransport}
+	 */
+	public NomadApiFactory(NomadDeployerProperties deployerProperties, Client client) {
+		this.deployerProperties = deployerProperties;
+		this.client = client;
+	}
+
+	public NomadApi create() {
+		ObjectMapper objectMapper = objectMapper();
+
+		//@formatter:off
+		return Feign.builder()
+			.client(client)
+			.decoder(new IndexedResponseDecoder(new JacksonDecoder(objectMapper)))
+			.encoder(new JacksonEncoder(objectMapper))
+			.decode404()
+			.options(new Request.Options(deployerProperties.getHttp().getConnectTimeout(), readTimeout()))
+			.logger(new Logger.ErrorLogger())
+			.target(NomadApi.class, String.format("http://%s:%d",
+				deployerProperties.getNomadHost(), deployerProperties.getNomadPort()));
+		//@formatter:on
+	}
+
+	/**
+	 * Nomad adds up to <code>wait / 16</code> of jitter to blocking queries, the read timeout must
+	 * accommodate the longest blocking query we will issue.
+	 */
+	protected int readTimeout() {
+		long waitTime = deployerProperties.getJobIndex().getWaitTime();
+		return (int) Math.max(deployerProperties.getHttp().getReadTimeout(), waitTime + (waitTime / 16) + 10 * 1000);
+	}
+
+	/**
+	 * See <code>io.github.zanella.nomad.v1.V1Client#customObjectMapper</code>. Root value wrapping
+	 * is not enabled, request bodies are wrapped explicitly where the Nomad API requires it. Update
+	 * strategies are deserialized as {@link RollingUpdateStrategy}.
+	 */
+	public static ObjectMapper objectMapper() {
+		return new ObjectMapper().setAnnotationIntrospector(new JacksonLombokAnnotationIntrospector())
+				.setSerializationInclusion(JsonInclude.Include.NON_NULL)
+				.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+				.addMixIn(UpdateStrategy.class, RollingUpdateStrategyMixIn.class);
+	}
+
+	@JsonDeserialize(as = RollingUpdateStrategy.class)
+	private interface RollingUpdateStrategyMixIn {
+	}
+}
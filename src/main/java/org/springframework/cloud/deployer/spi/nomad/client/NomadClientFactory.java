@@ -0,0 +1,66 @@
+package org.springframework.cloud.deployer.spi.nomad.client;
+
+import java.lang.reflect.Modifier;
+
+import org.springframework.cloud.deployer.spi.nomad.NomadDeployerProperties;
+import org.springframework.util.ReflectionUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import feign.Client;
+import feign.Feign;
+import feign.Logger;
+import feign.Request;
+import feign.jackson.JacksonDecoder;
+import feign.jackson.JacksonEncoder;
+
+import io.github.zanella.nomad.NomadClient;
+import io.github.zanella.nomad.v1.V1Client;
+import io.github.zanella.nomad.v1.client.ClientApi;
+
+/**
+ * Creates {@link NomadClient}s that send requests with the provided Feign {@link Client}, e.g. a
+ * {@link NomadHttpTransport}, and the configured timeouts.
+ * <p>
+ * {@link V1Client} does not allow the Feign client to be configured, so its API clients are
+ * replaced with clients built the same way, except for the transport. The {@link ClientApi}, which
+ * relies on a private decoder to stream logs, keeps using the default transport.
+ *
+ * @author Donovan Muller
+ */
+public class NomadClientFactory {
+
+	private final NomadDeployerProperties deployerProperties;
+	private final Client client;
+
+	public NomadClientFactory(NomadDeployerProperties deployerProperties, Client client) {
+		this.deployerProperties = deployerProperties;
+		this.client = client;
+	}
+
+	public NomadClient create() {
+		NomadClient nomadClient = new NomadClient(deployerProperties.getNomadHost(),
+				deployerProperties.getNomadPort());
+		ObjectMapper objectMapper = NomadApiFactory.objectMapper().configure(SerializationFeature.WRAP_ROOT_VALUE,
+				true);
+
+		//@formatter:off
+		Feign.Builder builder = Feign.builder()
+			.client(client)
+			.decoder(new JacksonDecoder(objectMapper))
+			.encoder(new JacksonEncoder(objectMapper))
+			.options(new Request.Options(deployerProperties.getHttp().getConnectTimeout(),
+				deployerProperties.getHttp().getReadTimeout()))
+			.logger(new Logger.ErrorLogger());
+		//@formatter:on
+
+		ReflectionUtils.doWithFields(V1Client.class, field -> {
+			ReflectionUtils.makeAccessible(field);
+			field.set(nomadClient.v1, builder.target(field.getType(), nomadClient.v1.getAgentAddress()));
+		}, field -> Modifier.isPublic(field.getModifiers()) && field.getType().isInterface()
+				&& field.getType() != ClientApi.class);
+
+		return nomadClient;
+	}
+}
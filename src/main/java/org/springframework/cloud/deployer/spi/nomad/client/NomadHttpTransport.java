@@ -0,0 +1,169 @@
+package org.springframework.cloud.deployer.spi.nomad.client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.cloud.deployer.spi.nomad.NomadDeployerProperties;
+import org.springframework.cloud.deployer.spi.nomad.NomadMetrics;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.httpclient.ApacheHttpClient;
+
+/**
+ * The HTTP transport shared by the {@link io.github.zanella.nomad.NomadClient} and {@link NomadApi}
+ * clients. By default requests are sent with a pooled Apache HttpClient, so connections to the
+ * Nomad agent are kept alive and reused instead of being opened per request. Connect and read
+ * timeouts are applied per request by Feign, see {@link Request.Options}.
+ * <p>
+ * Blocking queries, i.e. requests with an <code>index</code> parameter, are sent with a separate
+ * pool, as each holds its connection for up to the wait time. Requests fail if no connection
+ * becomes available within {@link NomadDeployerProperties.Http#getConnectionRequestTimeout()}.
+ * <p>
+ * If {@link NomadDeployerProperties.Http#isPooled()} is disabled, Feign's default
+ * <code>HttpURLConnection</code> based transport is used.
+ * <p>
+ * Every request is recorded with {@link NomadMetrics}.
+ *
+ * @author Donovan Muller
+ */
+public class NomadHttpTransport implements Client, Closeable {
+
+	/**
+	 * Resources addressed by id, i.e. <code>/v1/job/:id</code>.
+	 */
+	private static final Set<String> ID_RESOURCES = new HashSet<>(
+			Arrays.asList("job", "allocation", "evaluation", "deployment", "node"));
+
+	private final Client delegate;
+	private final Client blockingDelegate;
+	private final NomadMetrics metrics;
+	private final CloseableHttpClient httpClient;
+	private final CloseableHttpClient blockingHttpClient;
+	private final PoolingHttpClientConnectionManager connectionManager;
+	private final PoolingHttpClientConnectionManager blockingConnectionManager;
+
+	public NomadHttpTransport(NomadDeployerProperties deployerProperties) {
+		this(deployerProperties, NomadMetrics.NONE);
+	}
+
+	public NomadHttpTransport(NomadDeployerProperties deployerProperties, NomadMetrics metrics) {
+		this.metrics = metrics;
+		NomadDeployerProperties.Http http = deployerProperties.getHttp();
+		if (http.isPooled()) {
+			this.connectionManager = connectionManager(http, http.getMaxConnections(),
+					http.getMaxConnectionsPerRoute());
+			this.blockingConnectionManager = connectionManager(http, http.getMaxBlockingConnections(),
+					http.getMaxBlockingConnections());
+			this.httpClient = httpClient(http, connectionManager);
+			this.blockingHttpClient = httpClient(http, blockingConnectionManager);
+			this.delegate = new ApacheHttpClient(httpClient);
+			this.blockingDelegate = new ApacheHttpClient(blockingHttpClient);
+		}
+		else {
+			this.connectionManager = null;
+			this.blockingConnectionManager = null;
+			this.httpClient = null;
+			this.blockingHttpClient = null;
+			this.delegate = new Client.Default(null, null);
+			this.blockingDelegate = delegate;
+		}
+	}
+
+	@Override
+	public Response execute(Request request, Request.Options options) throws IOException {
+		String uri = uriTemplate(request.url());
+		boolean blocking = request.url().contains("index=");
+		long start = System.nanoTime();
+		try {
+			Response response = (blocking ? blockingDelegate : delegate).execute(request, options);
+			metrics.recordNomadRequest(request.method(), uri, response.status(), blocking, System.nanoTime() - start,
+					null);
+			return response;
+		}
+		catch (IOException | RuntimeException e) {
+			metrics.recordNomadRequest(request.method(), uri, 0, blocking, System.nanoTime() - start, e);
+			throw e;
+		}
+	}
+
+	/**
+	 * The connection pool statistics, excluding blocking queries, or <code>null</code> if the
+	 * transport is not pooled.
+	 */
+	public PoolStats getPoolStats() {
+		return connectionManager != null ? connectionManager.getTotalStats() : null;
+	}
+
+	/**
+	 * The connection pool statistics of blocking queries, or <code>null</code> if the transport is
+	 * not pooled.
+	 */
+	public PoolStats getBlockingPoolStats() {
+		return blockingConnectionManager != null ? blockingConnectionManager.getTotalStats() : null;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (httpClient != null) {
+			httpClient.close();
+			blockingHttpClient.close();
+		}
+	}
+
+	private static PoolingHttpClientConnectionManager connectionManager(NomadDeployerProperties.Http http,
+			int maxTotal, int maxPerRoute) {
+		PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+				http.getKeepAlive(), TimeUnit.MILLISECONDS);
+		connectionManager.setMaxTotal(maxTotal);
+		connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+		return connectionManager;
+	}
+
+	private static CloseableHttpClient httpClient(NomadDeployerProperties.Http http,
+			PoolingHttpClientConnectionManager connectionManager) {
+		// Feign replaces the request config per request, without a connection request timeout
+		HttpRequestInterceptor connectionRequestTimeout = (request, context) -> {
+			HttpClientContext clientContext = HttpClientContext.adapt(context);
+			clientContext.setRequestConfig(RequestConfig.copy(clientContext.getRequestConfig())
+					.setConnectionRequestTimeout(http.getConnectionRequestTimeout())
+					.build());
+		};
+		// Nomad does not send a Keep-Alive header, connections are kept for the configured time
+		//@formatter:off
+		return HttpClientBuilder.create()
+			.setConnectionManager(connectionManager)
+			.setKeepAliveStrategy((response, context) -> http.getKeepAlive())
+			.addInterceptorFirst(connectionRequestTimeout)
+			.evictExpiredConnections()
+			.evictIdleConnections(http.getKeepAlive(), TimeUnit.MILLISECONDS)
+			.disableCookieManagement()
+			.build();
+		//@formatter:on
+	}
+
+	/**
+	 * The path of the request URL, with the id of a Job, allocation etc. replaced with
+	 * <code>{id}</code>. E.g. <code>/v1/job/{id}/allocations</code>.
+	 */
+	static String uriTemplate(String url) {
+		String[] segments = URI.create(url).getRawPath().split("/");
+		if (segments.length > 3 && ID_RESOURCES.contains(segments[2])) {
+			segments[3] = "{id}";
+		}
+		return String.join("/", segments);
+	}
+}
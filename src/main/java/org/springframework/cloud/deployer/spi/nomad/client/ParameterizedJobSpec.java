@@ -0,0 +1,77 @@
+package org.springframework.cloud.deployer.spi.nomad.client;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.github.zanella.nomad.v1.jobs.models.JobSpec;
+
+/**
+ * A {@link JobSpec} with a
+ * <a href="https://www.nomadproject.io/docs/job-specification/parameterized.html">parameterized</a>
+ * stanza. Parameterized Jobs are registered once and then dispatched, see
+ * {@link NomadApi#dispatchJob(String, JobDispatchRequest)}.
+ *
+ * @author Donovan Muller
+ */
+public class ParameterizedJobSpec extends JobSpec {
+
+	@JsonProperty("ParameterizedJob")
+	private ParameterizedJob parameterizedJob;
+
+	public ParameterizedJob getParameterizedJob() {
+		return parameterizedJob;
+	}
+
+	public void setParameterizedJob(ParameterizedJob parameterizedJob) {
+		this.parameterizedJob = parameterizedJob;
+	}
+
+	public static class ParameterizedJob {
+
+		/**
+		 * One of <code>optional</code>, <code>required</code> or <code>forbidden</code>.
+		 */
+		@JsonProperty("Payload")
+		private String payload;
+
+		@JsonProperty("MetaRequired")
+		private List<String> metaRequired;
+
+		@JsonProperty("MetaOptional")
+		private List<String> metaOptional;
+
+		public ParameterizedJob() {
+		}
+
+		public ParameterizedJob(String payload, List<String> metaRequired, List<String> metaOptional) {
+			this.payload = payload;
+			this.metaRequired = metaRequired;
+			this.metaOptional = metaOptional;
+		}
+
+		public String getPayload() {
+			return payload;
+		}
+
+		public void setPayload(String payload) {
+			this.payload = payload;
+		}
+
+		public List<String> getMetaRequired() {
+			return metaRequired;
+		}
+
+		public void setMetaRequired(List<String> metaRequired) {
+			this.metaRequired = metaRequired;
+		}
+
+		public List<String> getMetaOptional() {
+			return metaOptional;
+		}
+
+		public void setMetaOptional(List<String> metaOptional) {
+			this.metaOptional = metaOptional;
+		}
+	}
+}
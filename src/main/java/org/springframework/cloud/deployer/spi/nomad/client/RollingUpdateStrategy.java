@@ -0,0 +1,72 @@
+package org.springframework.cloud.deployer.spi.nomad.client;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.github.zanella.nomad.v1.common.models.UpdateStrategy;
+
+/**
+ * An {@link UpdateStrategy} with the
+ * <a href="https://www.nomadproject.io/docs/job-specification/update.html">update</a> stanza fields
+ * added in Nomad 0.6. Allocations are replaced <code>MaxParallel</code> at a time, each batch only
+ * once the previous one has been healthy for <code>MinHealthyTime</code>. If <code>Canary</code> is
+ * set, that many allocations of the new version are placed next to the existing ones, and the
+ * deployment must be promoted before the remaining allocations are replaced.
+ * <p>
+ * {@link NomadApiFactory#objectMapper()} deserializes every {@link UpdateStrategy} as a
+ * {@link RollingUpdateStrategy}, so that these fields survive reading a registered Job and
+ * registering it again.
+ *
+ * @author Donovan Muller
+ */
+public class RollingUpdateStrategy extends UpdateStrategy {
+
+	/**
+	 * In nanoseconds.
+	 */
+	@JsonProperty("MinHealthyTime")
+	private Long minHealthyTime;
+
+	/**
+	 * In nanoseconds.
+	 */
+	@JsonProperty("HealthyDeadline")
+	private Long healthyDeadline;
+
+	@JsonProperty("Canary")
+	private Integer canary;
+
+	@JsonProperty("AutoRevert")
+	private Boolean autoRevert;
+
+	public Long getMinHealthyTime() {
+		return minHealthyTime;
+	}
+
+	public void setMinHealthyTime(Long minHealthyTime) {
+		this.minHealthyTime = minHealthyTime;
+	}
+
+	public Long getHealthyDeadline() {
+		return healthyDeadline;
+	}
+
+	public void setHealthyDeadline(Long healthyDeadline) {
+		this.healthyDeadline = healthyDeadline;
+	}
+
+	public Integer getCanary() {
+		return canary;
+	}
+
+	public void setCanary(Integer canary) {
+		this.canary = canary;
+	}
+
+	public Boolean getAutoRevert() {
+		return autoRevert;
+	}
+
+	public void setAutoRevert(Boolean autoRevert) {
+		this.autoRevert = autoRevert;
+	}
+}
@@ -9,6 +9,8 @@ import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
 import org.springframework.cloud.deployer.spi.nomad.AbstractNomadDeployer;
 import org.springframework.cloud.deployer.spi.nomad.NomadDeployerProperties;
 import org.springframework.cloud.deployer.spi.nomad.NomadDeploymentPropertyKeys;
+import org.springframework.cloud.deployer.spi.nomad.NomadJobIndex;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApi;
 import org.springframework.util.StringUtils;
 
 import io.github.zanella.nomad.NomadClient;
@@ -16,7 +18,17 @@ import io.github.zanella.nomad.NomadClient;
 public abstract class AbstractDockerNomadDeployer extends AbstractNomadDeployer {
 
 	public AbstractDockerNomadDeployer(NomadClient client, NomadDeployerProperties deployerProperties) {
-		super(client, deployerProperties);
+		this(client, new NomadJobIndex(client), deployerProperties);
+	}
+
+	public AbstractDockerNomadDeployer(NomadClient client, NomadJobIndex jobIndex,
+			NomadDeployerProperties deployerProperties) {
+		super(client, jobIndex, deployerProperties);
+	}
+
+	public AbstractDockerNomadDeployer(NomadClient client, NomadApi nomadApi, NomadJobIndex jobIndex,
+			NomadDeployerProperties deployerProperties) {
+		super(client, nomadApi, jobIndex, deployerProperties);
 	}
 
 	protected EntryPointStyle determineEntryPointStyle(NomadDeployerProperties properties,
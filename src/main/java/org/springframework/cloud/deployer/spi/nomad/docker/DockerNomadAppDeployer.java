@@ -4,9 +4,13 @@ import static java.util.stream.Collectors.toList;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
@@ -17,8 +21,12 @@ import org.springframework.cloud.deployer.spi.app.AppStatus;
 import org.springframework.cloud.deployer.spi.app.DeploymentState;
 import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
 import org.springframework.cloud.deployer.spi.core.RuntimeEnvironmentInfo;
+import org.springframework.cloud.deployer.spi.nomad.AwaitableAppDeployer;
+import org.springframework.cloud.deployer.spi.nomad.DeploymentResult;
 import org.springframework.cloud.deployer.spi.nomad.NomadDeployerProperties;
+import org.springframework.cloud.deployer.spi.nomad.NomadJobIndex;
 import org.springframework.cloud.deployer.spi.nomad.NomadSupport;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApi;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -38,7 +46,7 @@ import io.github.zanella.nomad.v1.nodes.models.Task;
  *
  * @author Donovan Muller
  */
-public class DockerNomadAppDeployer extends AbstractDockerNomadDeployer implements AppDeployer, NomadSupport {
+public class DockerNomadAppDeployer extends AbstractDockerNomadDeployer implements AwaitableAppDeployer, NomadSupport {
 
 	private static final Logger logger = LoggerFactory.getLogger(DockerNomadAppDeployer.class);
 
@@ -46,7 +54,20 @@ public class DockerNomadAppDeployer extends AbstractDockerNomadDeployer implemen
 	private NomadDeployerProperties deployerProperties;
 
 	public DockerNomadAppDeployer(NomadClient client, NomadDeployerProperties deployerProperties) {
-		super(client, deployerProperties);
+		this(client, new NomadJobIndex(client), deployerProperties);
+	}
+
+	public DockerNomadAppDeployer(NomadClient client, NomadJobIndex jobIndex,
+			NomadDeployerProperties deployerProperties) {
+		super(client, jobIndex, deployerProperties);
+
+		this.client = client;
+		this.deployerProperties = deployerProperties;
+	}
+
+	public DockerNomadAppDeployer(NomadClient client, NomadApi nomadApi, NomadJobIndex jobIndex,
+			NomadDeployerProperties deployerProperties) {
+		super(client, nomadApi, jobIndex, deployerProperties);
 
 		this.client = client;
 		this.deployerProperties = deployerProperties;
@@ -55,19 +76,48 @@ public class DockerNomadAppDeployer extends AbstractDockerNomadDeployer implemen
 	@Override
 	public String deploy(AppDeploymentRequest request) {
 		String deploymentId = createDeploymentId(request);
+		registerJob(deploymentId, request);
+		return deploymentId;
+	}
+
+	@Override
+	public Supplier<DeploymentResult> deployAwaitable(AppDeploymentRequest request, long timeout) {
+		String deploymentId = createDeploymentId(request);
+		JobEvalResult jobEvalResult = registerJob(deploymentId, request);
+		return () -> awaitDeployment(deploymentId, jobEvalResult, timeout);
+	}
+
+	/**
+	 * Register the Job of the app, or update it if the app is already deployed and redeploys are
+	 * enabled, see {@link #isRedeploy(AppDeploymentRequest)}.
+	 *
+	 * @return the evaluation of the registration, <code>null</code> if the Job was unchanged
+	 */
+	protected JobEvalResult registerJob(String deploymentId, AppDeploymentRequest request) {
+		if (isRedeploy(request)) {
+			return redeploy(deploymentId, request);
+		}
 
 		AppStatus status = status(deploymentId);
 		if (!status.getState().equals(DeploymentState.unknown)) {
 			throw new IllegalStateException(String.format("App '%s' is already deployed", deploymentId));
 		}
 
-		JobSpec jobSpec = buildJobSpec(deploymentId, deployerProperties, request);
-		jobSpec.setTaskGroups(buildTaskGroups(deploymentId, request, deployerProperties));
-
-		JobEvalResult jobEvalResult = client.v1.jobs.postJob(jobSpec);
+		JobEvalResult jobEvalResult = client.v1.jobs.postJob(buildAppJobSpec(deploymentId, request));
 		logger.info("Deployed app '{}': {}", deploymentId, jobEvalResult);
 
-		return deploymentId;
+		return jobEvalResult;
+	}
+
+	/**
+	 * Scale a deployed app to <code>count</code> instances, by updating the registered Job instead of
+	 * redeploying the app. Only the added or removed allocations are placed or stopped, see
+	 * {@link #scaleJob(String, int)}.
+	 *
+	 * @throws IllegalStateException if the app is not deployed
+	 */
+	public void scale(String deploymentId, int count) {
+		scaleJob(deploymentId, count);
 	}
 
 	@Override
@@ -90,9 +140,35 @@ public class DockerNomadAppDeployer extends AbstractDockerNomadDeployer implemen
 			return AppStatus.of(deploymentId).build();
 		}
 
+		return status(deploymentId, job, getAllocationEvaluation(client, job));
+	}
+
+	/**
+	 * Get the status of multiple apps at once. The Jobs and allocations are resolved with a single
+	 * snapshot, instead of a Job and allocations lookup per app.
+	 *
+	 * @return the status of each app, in the order of the specified deployment ids
+	 */
+	public Map<String, AppStatus> statuses(Collection<String> deploymentIds) {
+		Map<String, JobSummary> jobs = getJobsByName(deploymentIds);
+		Map<String, List<JobAllocation>> allocations = getAllocationEvaluations(jobs.values());
+
+		Map<String, AppStatus> statuses = new LinkedHashMap<>();
+		for (String deploymentId : deploymentIds) {
+			JobSummary job = jobs.get(deploymentId);
+			statuses.put(deploymentId, job == null ? AppStatus.of(deploymentId).build()
+					: status(deploymentId, job, allocations.getOrDefault(job.getId(), Collections.emptyList())));
+		}
+
+		return statuses;
+	}
+
+	/**
+	 * Build the {@link AppStatus} of a deployed app from its Job and the Job's allocations.
+	 */
+	protected AppStatus status(String deploymentId, JobSummary job, List<JobAllocation> allocations) {
 		AppStatus appStatus;
 		if (!job.getStatus().equals("dead")) {
-			List<JobAllocation> allocations = getAllocationEvaluation(client, job);
 			appStatus = buildAppStatus(deploymentId, allocations);
 		}
 		else {
@@ -1,23 +1,43 @@
 package org.springframework.cloud.deployer.spi.nomad.docker;
 
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
 import org.springframework.cloud.deployer.spi.app.AppDeployer;
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
 import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
 import org.springframework.cloud.deployer.spi.core.RuntimeEnvironmentInfo;
 import org.springframework.cloud.deployer.spi.nomad.NomadDeployerProperties;
+import org.springframework.cloud.deployer.spi.nomad.NomadJobIndex;
+import org.springframework.cloud.deployer.spi.nomad.client.JobDispatchRequest;
+import org.springframework.cloud.deployer.spi.nomad.client.JobDispatchResponse;
+import org.springframework.cloud.deployer.spi.nomad.client.JobRegistration;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApi;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApiFactory;
+import org.springframework.cloud.deployer.spi.nomad.client.ParameterizedJobSpec;
 import org.springframework.cloud.deployer.spi.task.LaunchState;
 import org.springframework.cloud.deployer.spi.task.TaskLauncher;
 import org.springframework.cloud.deployer.spi.task.TaskStatus;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import feign.FeignException;
 
 import io.github.zanella.nomad.NomadClient;
 import io.github.zanella.nomad.v1.jobs.models.JobAllocation;
@@ -32,6 +52,10 @@ import io.github.zanella.nomad.v1.nodes.models.TaskGroup;
  * Deployer responsible for deploying
  * {@link org.springframework.cloud.deployer.resource.docker.DockerResource} based Task using the
  * Nomad <a href="https://www.nomadproject.io/docs/drivers/docker.html">Docker</a> driver.
+ * <p>
+ * By default a new batch Job is registered for every launch. With
+ * {@link NomadDeployerProperties.TaskDispatch#isEnabled()}, a parameterized Job is registered once
+ * per task definition and dispatched for every launch instead.
  *
  * @author Donovan Muller
  */
@@ -39,11 +63,28 @@ public class DockerNomadTaskLauncher extends AbstractDockerNomadDeployer impleme
 
 	private static Logger logger = LoggerFactory.getLogger(DockerNomadTaskLauncher.class);
 
+	private static final String SPRING_APPLICATION_JSON = "SPRING_APPLICATION_JSON";
+
 	private NomadClient client;
 	private NomadDeployerProperties deployerProperties;
 
+	private final Set<String> registeredJobs = ConcurrentHashMap.newKeySet();
+
 	public DockerNomadTaskLauncher(NomadClient client, NomadDeployerProperties deployerProperties) {
-		super(client, deployerProperties);
+		this(client, new NomadJobIndex(client), deployerProperties);
+	}
+
+	public DockerNomadTaskLauncher(NomadClient client, NomadJobIndex jobIndex,
+			NomadDeployerProperties deployerProperties) {
+		super(client, jobIndex, deployerProperties);
+
+		this.client = client;
+		this.deployerProperties = deployerProperties;
+	}
+
+	public DockerNomadTaskLauncher(NomadClient client, NomadApi nomadApi, NomadJobIndex jobIndex,
+			NomadDeployerProperties deployerProperties) {
+		super(client, nomadApi, jobIndex, deployerProperties);
 
 		this.client = client;
 		this.deployerProperties = deployerProperties;
@@ -51,6 +92,10 @@ public class DockerNomadTaskLauncher extends AbstractDockerNomadDeployer impleme
 
 	@Override
 	public String launch(AppDeploymentRequest request) {
+		if (deployerProperties.getTaskDispatch().isEnabled() && isDispatchable(request)) {
+			return dispatch(request);
+		}
+
 		String taskId = createTaskId(request);
 
 		JobSpec jobSpec = buildBatchJobSpec(taskId, deployerProperties, request);
@@ -62,6 +107,93 @@ public class DockerNomadTaskLauncher extends AbstractDockerNomadDeployer impleme
 		return taskId;
 	}
 
+	/**
+	 * Launch the task by dispatching the parameterized Job of the task definition, registering the
+	 * Job first if this launcher has not done so yet. Registering an unchanged Job is a no-op for
+	 * Nomad, so the Job is registered at most once per definition (and deployment properties).
+	 *
+	 * @return the id of the dispatched Job, which identifies the launched task
+	 */
+	protected String dispatch(AppDeploymentRequest request) {
+		ParameterizedJobSpec jobSpec = buildParameterizedJobSpec(request);
+		String jobId = jobSpec.getId();
+		if (!registeredJobs.contains(jobId)) {
+			registerJob(jobSpec);
+		}
+
+		JobDispatchRequest dispatchRequest = new JobDispatchRequest(
+				singletonMap(SPRING_APPLICATION_JSON, createApplicationJson(request)));
+		JobDispatchResponse response;
+		try {
+			response = getNomadApi().dispatchJob(jobId, dispatchRequest);
+		}
+		catch (FeignException e) {
+			if (e.status() != 404) {
+				throw e;
+			}
+			// the parameterized Job could have been stopped or purged since it was registered
+			logger.debug("Parameterized Job '{}' not found, registering the Job again", jobId);
+			registerJob(jobSpec);
+			response = getNomadApi().dispatchJob(jobId, dispatchRequest);
+		}
+		logger.info("Launched task '{}' by dispatching '{}': {}", response.getDispatchedJobId(), jobId, response);
+
+		return response.getDispatchedJobId();
+	}
+
+	/**
+	 * Whether the launch can be passed to the task entirely as <code>SPRING_APPLICATION_JSON</code>.
+	 * Only containers with the <code>boot</code> entry point style read their properties from
+	 * <code>SPRING_APPLICATION_JSON</code>, other styles are launched as separate Jobs. See
+	 * {@link #isApplicationJsonLaunch(AppDeploymentRequest)}.
+	 */
+	protected boolean isDispatchable(AppDeploymentRequest request) {
+		return determineEntryPointStyle(deployerProperties, request) == EntryPointStyle.boot
+				&& isApplicationJsonLaunch(request);
+	}
+
+	/**
+	 * Whether the properties and arguments of the launch can all be passed as
+	 * <code>SPRING_APPLICATION_JSON</code>. That is not the case if
+	 * <code>SPRING_APPLICATION_JSON</code> is already set or if there are command line arguments
+	 * other than <code>--key=value</code>.
+	 */
+	protected boolean isApplicationJsonLaunch(AppDeploymentRequest request) {
+		Map<String, String> env = new HashMap<>(getAppEnvironmentVariables(request));
+		env.putAll(arrayToMap(deployerProperties.getEnvironmentVariables()));
+
+		return !env.containsKey(SPRING_APPLICATION_JSON) && request.getCommandlineArguments().stream()
+				.allMatch(argument -> argument.startsWith("--") && argument.contains("="));
+	}
+
+	/**
+	 * Build the parameterized Job of the task definition, i.e. the request without the definition
+	 * properties and command line arguments, which are dispatched as meta instead. The Job id is
+	 * suffixed with a hash of the Job, so that a changed definition registers a new Job rather than
+	 * updating the Job that running tasks were dispatched from.
+	 */
+	protected ParameterizedJobSpec buildParameterizedJobSpec(AppDeploymentRequest request) {
+		AppDeploymentRequest template = new AppDeploymentRequest(
+				new AppDefinition(request.getDefinition().getName(), new HashMap<>()), request.getResource(),
+				request.getDeploymentProperties());
+		String templateId = createDeploymentId(template);
+
+		ParameterizedJobSpec jobSpec = new ParameterizedJobSpec();
+		BeanUtils.copyProperties(buildBatchJobSpec(templateId, deployerProperties, template), jobSpec);
+		jobSpec.setTaskGroups(buildTaskGroups(templateId, template, deployerProperties));
+		jobSpec.getTaskGroups().stream().flatMap(taskGroup -> taskGroup.getTasks().stream())
+				.forEach(task -> task.getEnv().put(SPRING_APPLICATION_JSON,
+						String.format("${NOMAD_META_%s}", SPRING_APPLICATION_JSON)));
+		jobSpec.setParameterizedJob(
+				new ParameterizedJobSpec.ParameterizedJob("forbidden", singletonList(SPRING_APPLICATION_JSON), null));
+
+		String jobId = String.format("%s-%s", templateId, hash(jobSpec));
+		jobSpec.setId(jobId);
+		jobSpec.setName(jobId);
+
+		return jobSpec;
+	}
+
 	@Override
 	public void cancel(String taskId) {
 		logger.info("Cancelling task '{}'", taskId);
@@ -87,9 +219,25 @@ public class DockerNomadTaskLauncher extends AbstractDockerNomadDeployer impleme
 		cancel(taskId);
 	}
 
+	/**
+	 * Cancel the task and deregister the parameterized Jobs registered for the task definition, see
+	 * {@link #buildParameterizedJobSpec(AppDeploymentRequest)}.
+	 */
 	@Override
-	public void destroy(String taskId) {
-		cancel(taskId);
+	public void destroy(String taskName) {
+		cancel(taskName);
+
+		Pattern parameterizedJobId = Pattern
+				.compile(String.format("(.+-)?%s-[0-9a-f]{8}", Pattern.quote(taskName.replace('.', '-'))));
+		client.v1.jobs.getJobs().stream()
+				.filter(job -> "batch".equals(job.getType()) && parameterizedJobId.matcher(job.getId()).matches())
+				.map(job -> client.v1.job.getJob(job.getId()))
+				.filter(job -> isParameterizedJob(job.getId(), job.getMeta()))
+				.forEach(job -> {
+					logger.info("Deregistering parameterized Job '{}' of task '{}'", job.getId(), taskName);
+					client.v1.job.deleteJob(job.getId());
+					registeredJobs.remove(job.getId());
+				});
 	}
 
 	@Override
@@ -176,10 +324,6 @@ public class DockerNomadTaskLauncher extends AbstractDockerNomadDeployer impleme
 		return taskBuilder.build();
 	}
 
-	protected List<JobAllocation> getAllocationEvaluation(NomadClient client, JobSummary jobSummary) {
-		return client.v1.job.getJobAllocations(jobSummary.getId());
-	}
-
 	protected TaskStatus buildTaskStatus(String id, JobAllocation allocation) {
 		if (allocation == null) {
 			return new TaskStatus(id, LaunchState.unknown, new HashMap<>());
@@ -208,6 +352,50 @@ public class DockerNomadTaskLauncher extends AbstractDockerNomadDeployer impleme
 		}
 	}
 
+	/**
+	 * Whether the Job is a parameterized Job of this launcher, i.e. its id is the templated
+	 * <code>spring-app-id</code> suffixed with a hash.
+	 */
+	private boolean isParameterizedJob(String jobId, Map<String, String> meta) {
+		return isDeployerMeta(meta) && meta.containsKey(SPRING_APP_KEY)
+				&& jobId.matches(Pattern.quote(meta.get(SPRING_APP_KEY)) + "-[0-9a-f]{8}");
+	}
+
+	private void registerJob(ParameterizedJobSpec jobSpec) {
+		JobEvalResult jobEvalResult = getNomadApi().registerJob(new JobRegistration(jobSpec));
+		logger.info("Registered parameterized Job '{}': {}", jobSpec.getId(), jobEvalResult);
+		registeredJobs.add(jobSpec.getId());
+	}
+
+	/**
+	 * The definition properties and <code>--key=value</code> command line arguments as JSON.
+	 */
+	private String createApplicationJson(AppDeploymentRequest request) {
+		Map<String, String> properties = new LinkedHashMap<>(request.getDefinition().getProperties());
+		for (String argument : request.getCommandlineArguments()) {
+			String[] property = argument.substring(2).split("=", 2);
+			properties.put(property[0], property[1]);
+		}
+
+		try {
+			return new ObjectMapper().writeValueAsString(properties);
+		}
+		catch (JsonProcessingException e) {
+			throw new IllegalStateException("Unable to create SPRING_APPLICATION_JSON", e);
+		}
+	}
+
+	private String hash(ParameterizedJobSpec jobSpec) {
+		try {
+			return DigestUtils.md5Hex(NomadApiFactory.objectMapper()
+					.configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true).writeValueAsBytes(jobSpec))
+					.substring(0, 8);
+		}
+		catch (JsonProcessingException e) {
+			throw new IllegalStateException("Unable to hash Job " + jobSpec.getId(), e);
+		}
+	}
+
 	private String createTaskId(AppDeploymentRequest request) {
 		String groupId = request.getDeploymentProperties().get(AppDeployer.GROUP_PROPERTY_KEY);
 		String taskId;
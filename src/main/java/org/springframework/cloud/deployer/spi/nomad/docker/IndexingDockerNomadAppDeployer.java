@@ -10,6 +10,8 @@ import java.util.stream.Stream;
 import org.springframework.cloud.deployer.spi.app.AppDeployer;
 import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
 import org.springframework.cloud.deployer.spi.nomad.NomadDeployerProperties;
+import org.springframework.cloud.deployer.spi.nomad.NomadJobIndex;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApi;
 
 import io.github.zanella.nomad.NomadClient;
 import io.github.zanella.nomad.v1.nodes.models.Task;
@@ -31,7 +33,17 @@ import io.github.zanella.nomad.v1.nodes.models.TaskGroup;
 public class IndexingDockerNomadAppDeployer extends DockerNomadAppDeployer {
 
 	public IndexingDockerNomadAppDeployer(NomadClient client, NomadDeployerProperties deployerProperties) {
-		super(client, deployerProperties);
+		this(client, new NomadJobIndex(client), deployerProperties);
+	}
+
+	public IndexingDockerNomadAppDeployer(NomadClient client, NomadJobIndex jobIndex,
+			NomadDeployerProperties deployerProperties) {
+		super(client, jobIndex, deployerProperties);
+	}
+
+	public IndexingDockerNomadAppDeployer(NomadClient client, NomadApi nomadApi, NomadJobIndex jobIndex,
+			NomadDeployerProperties deployerProperties) {
+		super(client, nomadApi, jobIndex, deployerProperties);
 	}
 
 	@Override
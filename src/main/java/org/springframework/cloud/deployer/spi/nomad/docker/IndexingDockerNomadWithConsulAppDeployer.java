@@ -7,17 +7,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.cloud.deployer.spi.app.AppDeployer;
 import org.springframework.cloud.deployer.spi.app.AppStatus;
 import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.nomad.ConsulHealthChecks;
 import org.springframework.cloud.deployer.spi.nomad.NomadConsulAppInstanceStatus;
 import org.springframework.cloud.deployer.spi.nomad.NomadDeployerProperties;
+import org.springframework.cloud.deployer.spi.nomad.NomadJobIndex;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApi;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApiFactory;
 
 import com.ecwid.consul.v1.ConsulClient;
-import com.ecwid.consul.v1.QueryParams;
-import com.ecwid.consul.v1.Response;
 import com.ecwid.consul.v1.health.model.Check;
 
 import io.github.zanella.nomad.NomadClient;
@@ -37,17 +37,29 @@ import io.github.zanella.nomad.v1.nodes.models.TaskGroup;
  */
 public class IndexingDockerNomadWithConsulAppDeployer extends DockerNomadWithConsulAppDeployer {
 
-	private static final Logger logger = LoggerFactory.getLogger(IndexingDockerNomadWithConsulAppDeployer.class);
-
-	private final NomadClient client;
-	private final ConsulClient consul;
+	private final ConsulHealthChecks healthChecks;
 
 	public IndexingDockerNomadWithConsulAppDeployer(NomadClient client, ConsulClient consul,
 			NomadDeployerProperties deployerProperties) {
-		super(client, consul, deployerProperties);
+		this(client, consul, new NomadJobIndex(client), deployerProperties);
+	}
+
+	public IndexingDockerNomadWithConsulAppDeployer(NomadClient client, ConsulClient consul, NomadJobIndex jobIndex,
+			NomadDeployerProperties deployerProperties) {
+		this(client, consul, jobIndex, new ConsulHealthChecks(consul), deployerProperties);
+	}
 
-		this.client = client;
-		this.consul = consul;
+	public IndexingDockerNomadWithConsulAppDeployer(NomadClient client, ConsulClient consul, NomadJobIndex jobIndex,
+			ConsulHealthChecks healthChecks, NomadDeployerProperties deployerProperties) {
+		this(client, consul, new NomadApiFactory(deployerProperties).create(), jobIndex, healthChecks,
+				deployerProperties);
+	}
+
+	public IndexingDockerNomadWithConsulAppDeployer(NomadClient client, ConsulClient consul, NomadApi nomadApi,
+			NomadJobIndex jobIndex, ConsulHealthChecks healthChecks, NomadDeployerProperties deployerProperties) {
+		super(client, consul, nomadApi, jobIndex, healthChecks, deployerProperties);
+
+		this.healthChecks = healthChecks;
 	}
 
 	@Override
@@ -81,30 +93,21 @@ public class IndexingDockerNomadWithConsulAppDeployer extends DockerNomadWithCon
 	}
 
 	@Override
-	public AppStatus status(String deploymentId) {
-		JobSummary job = getJobByName(deploymentId);
-		if (job == null) {
-			return AppStatus.of(deploymentId).build();
-		}
-
-		List<JobAllocation> allocations = getAllocationEvaluation(client, job);
-		return buildAppStatus(deploymentId, allocations, consul);
+	protected AppStatus status(String deploymentId, JobSummary job, List<JobAllocation> allocations) {
+		return buildAppStatus(deploymentId, allocations, healthChecks);
 	}
 
 	/**
 	 * Build the {@link AppStatus} based on a Job allocations. Each allocation will get it's own
-	 * corresponding health check from Consul.
+	 * corresponding health check from Consul, the checks for all allocations are resolved at once.
 	 */
-	protected AppStatus buildAppStatus(String id, List<JobAllocation> allocations, ConsulClient consul) {
+	protected AppStatus buildAppStatus(String id, List<JobAllocation> allocations, ConsulHealthChecks healthChecks) {
+		Map<String, Check> checks = healthChecks
+				.getChecks(allocations.stream().map(JobAllocation::getTaskGroup).collect(toList()));
+
 		AppStatus.Builder statusBuilder = AppStatus.of(id);
-		allocations.forEach(allocation -> {
-			Response<List<Check>> healthChecks = consul.getHealthChecksForService(allocation.getTaskGroup(),
-					QueryParams.DEFAULT);
-			logger.debug("Health checks for '{}': {}", allocation.getTaskGroup(), healthChecks);
-			Check check = healthChecks.getValue().isEmpty() ? null : healthChecks.getValue().get(0);
-			statusBuilder.with(
-					new NomadConsulAppInstanceStatus(client.v1.allocation.getAllocation(allocation.getId()), check));
-		});
+		allocations.forEach(allocation -> statusBuilder.with(new NomadConsulAppInstanceStatus(allocation,
+				allocationDetails(allocation), checks.get(allocation.getTaskGroup()))));
 		return statusBuilder.build();
 	}
 
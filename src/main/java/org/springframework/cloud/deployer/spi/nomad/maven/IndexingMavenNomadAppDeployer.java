@@ -10,6 +10,8 @@ import java.util.stream.Stream;
 import org.springframework.cloud.deployer.spi.app.AppDeployer;
 import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
 import org.springframework.cloud.deployer.spi.nomad.NomadDeployerProperties;
+import org.springframework.cloud.deployer.spi.nomad.NomadJobIndex;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApi;
 
 import io.github.zanella.nomad.NomadClient;
 import io.github.zanella.nomad.v1.nodes.models.Task;
@@ -27,7 +29,22 @@ import io.github.zanella.nomad.v1.nodes.models.TaskGroup;
 public class IndexingMavenNomadAppDeployer extends MavenNomadAppDeployer {
 
 	public IndexingMavenNomadAppDeployer(NomadClient client, NomadDeployerProperties deployerProperties) {
-		super(client, deployerProperties);
+		this(client, new NomadJobIndex(client), deployerProperties);
+	}
+
+	public IndexingMavenNomadAppDeployer(NomadClient client, NomadJobIndex jobIndex,
+			NomadDeployerProperties deployerProperties) {
+		super(client, jobIndex, deployerProperties);
+	}
+
+	public IndexingMavenNomadAppDeployer(NomadClient client, NomadApi nomadApi, NomadJobIndex jobIndex,
+			NomadDeployerProperties deployerProperties) {
+		super(client, nomadApi, jobIndex, deployerProperties);
+	}
+
+	public IndexingMavenNomadAppDeployer(NomadClient client, NomadApi nomadApi, NomadJobIndex jobIndex,
+			ResourceChecksum resourceChecksum, NomadDeployerProperties deployerProperties) {
+		super(client, nomadApi, jobIndex, resourceChecksum, deployerProperties);
 	}
 
 	@Override
@@ -7,17 +7,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.cloud.deployer.spi.app.AppDeployer;
 import org.springframework.cloud.deployer.spi.app.AppStatus;
 import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.nomad.ConsulHealthChecks;
 import org.springframework.cloud.deployer.spi.nomad.NomadConsulAppInstanceStatus;
 import org.springframework.cloud.deployer.spi.nomad.NomadDeployerProperties;
+import org.springframework.cloud.deployer.spi.nomad.NomadJobIndex;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApi;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApiFactory;
 
 import com.ecwid.consul.v1.ConsulClient;
-import com.ecwid.consul.v1.QueryParams;
-import com.ecwid.consul.v1.Response;
 import com.ecwid.consul.v1.health.model.Check;
 
 import io.github.zanella.nomad.NomadClient;
@@ -38,17 +38,37 @@ import io.github.zanella.nomad.v1.nodes.models.TaskGroup;
  */
 public class IndexingMavenNomadWithConsulAppDeployer extends MavenNomadWithConsulAppDeployer {
 
-	private static final Logger logger = LoggerFactory.getLogger(IndexingMavenNomadWithConsulAppDeployer.class);
-
 	private final NomadClient client;
-	private final ConsulClient consul;
+	private final ConsulHealthChecks healthChecks;
 
 	public IndexingMavenNomadWithConsulAppDeployer(NomadClient client, ConsulClient consul,
 			NomadDeployerProperties deployerProperties) {
-		super(client, consul, deployerProperties);
+		this(client, consul, new NomadJobIndex(client), deployerProperties);
+	}
+
+	public IndexingMavenNomadWithConsulAppDeployer(NomadClient client, ConsulClient consul, NomadJobIndex jobIndex,
+			NomadDeployerProperties deployerProperties) {
+		this(client, consul, jobIndex, new ConsulHealthChecks(consul), deployerProperties);
+	}
+
+	public IndexingMavenNomadWithConsulAppDeployer(NomadClient client, ConsulClient consul, NomadJobIndex jobIndex,
+			ConsulHealthChecks healthChecks, NomadDeployerProperties deployerProperties) {
+		this(client, consul, new NomadApiFactory(deployerProperties).create(), jobIndex, healthChecks,
+				deployerProperties);
+	}
+
+	public IndexingMavenNomadWithConsulAppDeployer(NomadClient client, ConsulClient consul, NomadApi nomadApi,
+			NomadJobIndex jobIndex, ConsulHealthChecks healthChecks, NomadDeployerProperties deployerProperties) {
+		this(client, consul, nomadApi, jobIndex, new ResourceChecksum(), healthChecks, deployerProperties);
+	}
+
+	public IndexingMavenNomadWithConsulAppDeployer(NomadClient client, ConsulClient consul, NomadApi nomadApi,
+			NomadJobIndex jobIndex, ResourceChecksum resourceChecksum, ConsulHealthChecks healthChecks,
+			NomadDeployerProperties deployerProperties) {
+		super(client, consul, nomadApi, jobIndex, resourceChecksum, healthChecks, deployerProperties);
 
 		this.client = client;
-		this.consul = consul;
+		this.healthChecks = healthChecks;
 	}
 
 	@Override
@@ -87,23 +107,20 @@ public class IndexingMavenNomadWithConsulAppDeployer extends MavenNomadWithConsu
 		}
 
 		List<JobAllocation> allocations = getAllocationEvaluation(client, job);
-		return buildAppStatus(deploymentId, allocations, consul);
+		return buildAppStatus(deploymentId, allocations, healthChecks);
 	}
 
 	/**
 	 * Build the {@link AppStatus} based on a Job allocations. Each allocation will get it's own
-	 * corresponding health check from Consul.
+	 * corresponding health check from Consul, the checks for all allocations are resolved at once.
 	 */
-	protected AppStatus buildAppStatus(String id, List<JobAllocation> allocations, ConsulClient consul) {
+	protected AppStatus buildAppStatus(String id, List<JobAllocation> allocations, ConsulHealthChecks healthChecks) {
+		Map<String, Check> checks = healthChecks
+				.getChecks(allocations.stream().map(JobAllocation::getTaskGroup).collect(toList()));
+
 		AppStatus.Builder statusBuilder = AppStatus.of(id);
-		allocations.forEach(allocation -> {
-			Response<List<Check>> healthChecks = consul.getHealthChecksForService(allocation.getTaskGroup(),
-					QueryParams.DEFAULT);
-			logger.debug("Health checks for '{}': {}", allocation.getTaskGroup(), healthChecks);
-			Check check = healthChecks.getValue().isEmpty() ? null : healthChecks.getValue().get(0);
-			statusBuilder.with(
-					new NomadConsulAppInstanceStatus(client.v1.allocation.getAllocation(allocation.getId()), check));
-		});
+		allocations.forEach(allocation -> statusBuilder.with(new NomadConsulAppInstanceStatus(allocation,
+				allocationDetails(allocation), checks.get(allocation.getTaskGroup()))));
 		return statusBuilder.build();
 	}
 
@@ -1,12 +1,23 @@
 package org.springframework.cloud.deployer.spi.nomad.maven;
 
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toCollection;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
@@ -18,20 +29,33 @@ import org.springframework.cloud.deployer.spi.app.DeploymentState;
 import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
 import org.springframework.cloud.deployer.spi.core.RuntimeEnvironmentInfo;
 import org.springframework.cloud.deployer.spi.nomad.AbstractNomadDeployer;
+import org.springframework.cloud.deployer.spi.nomad.AwaitableAppDeployer;
+import org.springframework.cloud.deployer.spi.nomad.DeploymentResult;
+import org.springframework.cloud.deployer.spi.nomad.JobTypes;
 import org.springframework.cloud.deployer.spi.nomad.NomadDeployerProperties;
 import org.springframework.cloud.deployer.spi.nomad.NomadDeploymentPropertyKeys;
+import org.springframework.cloud.deployer.spi.nomad.NomadDeploymentWatcher;
+import org.springframework.cloud.deployer.spi.nomad.NomadJobIndex;
+import org.springframework.cloud.deployer.spi.nomad.client.IndexedResponse;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApi;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApiFactory;
+import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.github.zanella.nomad.NomadClient;
+import io.github.zanella.nomad.v1.common.models.Constraint;
 import io.github.zanella.nomad.v1.jobs.models.JobAllocation;
 import io.github.zanella.nomad.v1.jobs.models.JobEvalResult;
 import io.github.zanella.nomad.v1.jobs.models.JobSpec;
 import io.github.zanella.nomad.v1.jobs.models.JobSummary;
+import io.github.zanella.nomad.v1.nodes.models.NodeInfo;
+import io.github.zanella.nomad.v1.nodes.models.NodeSummary;
 import io.github.zanella.nomad.v1.nodes.models.Resources;
 import io.github.zanella.nomad.v1.nodes.models.Task;
+import io.github.zanella.nomad.v1.nodes.models.TaskGroup;
 
 /**
  * Deployer responsible for deploying
@@ -40,35 +64,407 @@ import io.github.zanella.nomad.v1.nodes.models.Task;
  *
  * @author Donovan Muller
  */
-public class MavenNomadAppDeployer extends AbstractNomadDeployer implements AppDeployer, MavenSupport {
+public class MavenNomadAppDeployer extends AbstractNomadDeployer implements AwaitableAppDeployer, MavenSupport {
 
 	private static final Logger logger = LoggerFactory.getLogger(MavenNomadAppDeployer.class);
 
+	private static final Pattern CACHEABLE_FILENAME = Pattern.compile("[A-Za-z0-9._-]+");
+
+	private static final Pattern CACHEABLE_HOST_PATH = Pattern.compile("(/[A-Za-z0-9._-]+)+");
+
+	private static final Pattern ARTIFACT_CACHE_JOB_ID = Pattern.compile("artifact-cache-([0-9a-f]{32})");
+
+	private static final String ARTIFACT_CACHE_PURGE_JOB_ID = "artifact-cache-purge";
+
 	private NomadClient client;
 	private NomadDeployerProperties deployerProperties;
+	private ResourceChecksum resourceChecksum;
+
+	/**
+	 * Whether a node has the <code>raw_exec</code> driver, with the node's modify index when it was
+	 * read.
+	 */
+	private final Map<String, Map.Entry<Integer, Boolean>> rawExecNodes = new ConcurrentHashMap<>();
 
 	public MavenNomadAppDeployer(NomadClient client, NomadDeployerProperties deployerProperties) {
-		super(client, deployerProperties);
+		this(client, new NomadJobIndex(client), deployerProperties);
+	}
+
+	public MavenNomadAppDeployer(NomadClient client, NomadJobIndex jobIndex,
+			NomadDeployerProperties deployerProperties) {
+		this(client, new NomadApiFactory(deployerProperties).create(), jobIndex, deployerProperties);
+	}
+
+	public MavenNomadAppDeployer(NomadClient client, NomadApi nomadApi, NomadJobIndex jobIndex,
+			NomadDeployerProperties deployerProperties) {
+		this(client, nomadApi, jobIndex, new ResourceChecksum(), deployerProperties);
+	}
+
+	/**
+	 * @param resourceChecksum shared with the {@link MavenResourceController}, so an artifact is only
+	 * hashed once
+	 */
+	public MavenNomadAppDeployer(NomadClient client, NomadApi nomadApi, NomadJobIndex jobIndex,
+			ResourceChecksum resourceChecksum, NomadDeployerProperties deployerProperties) {
+		super(client, nomadApi, jobIndex, deployerProperties);
 		this.client = client;
+		this.resourceChecksum = resourceChecksum;
 		this.deployerProperties = deployerProperties;
 	}
 
 	@Override
 	public String deploy(AppDeploymentRequest request) {
 		String deploymentId = createDeploymentId(request);
+		registerJob(deploymentId, request);
+		return deploymentId;
+	}
+
+	@Override
+	public Supplier<DeploymentResult> deployAwaitable(AppDeploymentRequest request, long timeout) {
+		String deploymentId = createDeploymentId(request);
+		JobEvalResult jobEvalResult = registerJob(deploymentId, request);
+		return () -> awaitDeployment(deploymentId, jobEvalResult, timeout);
+	}
+
+	/**
+	 * Register the Job of the app, or update it if the app is already deployed and redeploys are
+	 * enabled, see {@link #isRedeploy(AppDeploymentRequest)}.
+	 *
+	 * @return the evaluation of the registration, <code>null</code> if the Job was unchanged
+	 */
+	protected JobEvalResult registerJob(String deploymentId, AppDeploymentRequest request) {
+		if (isRedeploy(request)) {
+			return redeploy(deploymentId, request);
+		}
 
 		AppStatus status = status(deploymentId);
 		if (!status.getState().equals(DeploymentState.unknown)) {
 			throw new IllegalStateException(String.format("App '%s' is already deployed", deploymentId));
 		}
 
-		JobSpec jobSpec = buildJobSpec(deploymentId, deployerProperties, request);
-		jobSpec.setTaskGroups(buildTaskGroups(deploymentId, request, deployerProperties));
-
-		JobEvalResult jobEvalResult = client.v1.jobs.postJob(jobSpec);
+		JobEvalResult jobEvalResult = client.v1.jobs.postJob(buildAppJobSpec(deploymentId, request));
 		logger.info("Deployed app '{}': {}", deploymentId, jobEvalResult);
 
-		return deploymentId;
+		return jobEvalResult;
+	}
+
+	/**
+	 * Scale a deployed app to <code>count</code> instances, by updating the registered Job instead of
+	 * redeploying the app. Only the added or removed allocations are placed or stopped, see
+	 * {@link #scaleJob(String, int)}.
+	 *
+	 * @throws IllegalStateException if the app is not deployed
+	 */
+	public void scale(String deploymentId, int count) {
+		scaleJob(deploymentId, count);
+	}
+
+	/**
+	 * The Job of the app, running the cached artifact if the artifact cache is enabled, see
+	 * {@link #useArtifactCache(AppDeploymentRequest, JobSpec)}.
+	 */
+	@Override
+	protected JobSpec buildAppJobSpec(String deploymentId, AppDeploymentRequest request) {
+		JobSpec jobSpec = super.buildAppJobSpec(deploymentId, request);
+		useArtifactCache(request, jobSpec);
+		return jobSpec;
+	}
+
+	/**
+	 * If the artifact cache is enabled, pre-warm the app's artifact, see
+	 * {@link #prewarmArtifact(MavenResource, String)}, and run the cached jar instead of downloading
+	 * the artifact into every allocation. The app is constrained to the nodes the artifact was cached
+	 * on. If it could not be cached on any node, the Job is left as is.
+	 * <p>
+	 * An unchanged pre-warm Job is not run again, so a cached jar that was removed from a node would
+	 * go unnoticed. If the app has failed allocations, e.g. because its jar is gone, the pre-warm Job
+	 * is purged first so that it runs on every node again.
+	 */
+	protected void useArtifactCache(AppDeploymentRequest request, JobSpec jobSpec) {
+		if (!isArtifactCacheEnabled(request)) {
+			return;
+		}
+
+		MavenResource resource = (MavenResource) request.getResource();
+		if (!isCacheable(resource)) {
+			logger.warn("Artifact '{}' can't be cached in '{}', only plain file names and absolute paths are "
+					+ "supported, app '{}' will download it", resource.getFilename(),
+					deployerProperties.getArtifactCache().getHostPath(), jobSpec.getId());
+			return;
+		}
+
+		String checksum = resourceChecksum.generateMD5Checksum(resource);
+		if (client.v1.job.getJobAllocations(jobSpec.getId()).stream()
+				.anyMatch(allocation -> "failed".equals(allocation.getClientStatus()))) {
+			logger.info("App '{}' has failed allocations, caching artifact '{}' on every node again", jobSpec.getId(),
+					resource.getFilename());
+			getNomadApi().purgeJob(getArtifactCacheJobId(checksum));
+		}
+		Set<String> nodeIds = prewarmArtifact(resource, checksum);
+		if (nodeIds.isEmpty()) {
+			logger.warn("Artifact '{}' could not be cached on any node, app '{}' will download it",
+					resource.getFilename(), jobSpec.getId());
+			return;
+		}
+
+		String jarPath = getCachedJarPath(resource, checksum);
+		jobSpec.getTaskGroups().stream().flatMap(taskGroup -> taskGroup.getTasks().stream()).forEach(task -> {
+			task.getConfig().setJarPath(jarPath);
+			task.setArtifacts(null);
+		});
+		jobSpec.getConstraints()
+				.add(new Constraint("regexp", "${node.unique.id}", nodeIds.stream().collect(joining("|", "^(", ")$"))));
+		logger.info("App '{}' runs cached artifact '{}' on node(s) {}", jobSpec.getId(), jarPath, nodeIds);
+	}
+
+	/**
+	 * The artifact file name and the cache host path are used as paths by the pre-warm Job, see
+	 * {@link #buildArtifactCacheJobSpec(MavenResource, String, int)}. Only names of letters, digits,
+	 * <code>.</code>, <code>_</code> and <code>-</code> are supported.
+	 */
+	protected boolean isCacheable(MavenResource resource) {
+		return CACHEABLE_FILENAME.matcher(resource.getFilename()).matches()
+				&& CACHEABLE_HOST_PATH.matcher(deployerProperties.getArtifactCache().getHostPath()).matches();
+	}
+
+	protected boolean isArtifactCacheEnabled(AppDeploymentRequest request) {
+		String enabledProperty = request.getDeploymentProperties()
+				.get(NomadDeploymentPropertyKeys.NOMAD_ARTIFACT_CACHE);
+		if (StringUtils.isEmpty(enabledProperty)) {
+			return deployerProperties.getArtifactCache().isEnabled();
+		}
+
+		return Boolean.parseBoolean(enabledProperty.toLowerCase());
+	}
+
+	/**
+	 * Cache the artifact on every ready, non draining node of the configured datacenters with the
+	 * <code>raw_exec</code> driver, by registering a batch Job with one allocation per node (see
+	 * {@link #buildArtifactCacheJobSpec(MavenResource, String, int)}) and waiting for its
+	 * allocations to finish. The Job is named after the artifact checksum and only registered if it
+	 * changed, so an artifact that is already cached on every node is not downloaded again.
+	 *
+	 * @return the ids of the nodes the artifact is cached on, sorted
+	 */
+	protected Set<String> prewarmArtifact(MavenResource resource, String checksum) {
+		int nodes = getRawExecNodeCount();
+		if (nodes == 0) {
+			return Collections.emptySet();
+		}
+
+		long deadline = System.currentTimeMillis() + deployerProperties.getArtifactCache().getTimeout();
+		JobSpec jobSpec = buildArtifactCacheJobSpec(resource, checksum, nodes);
+		JobEvalResult jobEvalResult = planAndRegisterJob(jobSpec);
+		if (jobEvalResult != null) {
+			// a batch Job has no deployment, this waits until the allocations started or failed
+			DeploymentResult result = new NomadDeploymentWatcher(getNomadApi(),
+					deployerProperties.getJobIndex().getWaitTime()).await(jobSpec.getId(), jobEvalResult.getEvalID(),
+							Math.max(0, deadline - System.currentTimeMillis()));
+			if (!result.isDeployed()) {
+				logger.warn("Artifact '{}' is not cached on every node: {}", resource.getFilename(), result);
+			}
+		}
+
+		return awaitArtifactCache(jobSpec.getId(), deadline);
+	}
+
+	/**
+	 * A batch Job that downloads the artifact, verifying its checksum, and copies it to
+	 * {@link #getCachedJarPath(MavenResource, String)} on the host, unless it is already there. The
+	 * <code>distinct_hosts</code> constraint places each of the <code>nodes</code> allocations on a
+	 * different node. The jar is copied to a temporary file first and then moved, so the app never
+	 * sees a partially written jar. The paths are passed to the script as positional parameters, so
+	 * they are never interpreted by the shell, see also {@link #isCacheable(MavenResource)}.
+	 */
+	protected JobSpec buildArtifactCacheJobSpec(MavenResource resource, String checksum, int nodes) {
+		String cachedJarPath = getCachedJarPath(resource, checksum);
+		String temporaryJarPath = cachedJarPath + ".${NOMAD_ALLOC_ID}";
+		Task.Config.ConfigBuilder configBuilder = Task.Config.builder();
+		configBuilder.command("/bin/sh");
+		configBuilder.args(Stream.of("-c",
+				"mkdir -p \"$1\" && if [ ! -f \"$2\" ]; then cp \"$3\" \"$4\" && mv \"$4\" \"$2\"; fi",
+				"artifact-cache", getArtifactCacheDirectory(checksum), cachedJarPath, "local/" + resource.getFilename(),
+				temporaryJarPath).collect(toList()));
+
+		Map<String, String> options = new HashMap<>();
+		options.put("checksum", String.format("md5:%s", checksum));
+
+		Task.TaskBuilder taskBuilder = Task.builder();
+		taskBuilder.name("artifact-cache");
+		taskBuilder.driver("raw_exec");
+		taskBuilder.config(configBuilder.build());
+		taskBuilder.artifacts(Stream.of(new Task.Artifacts(toURIString(resource, deployerProperties), "local",
+				options)).collect(toList()));
+		taskBuilder.resources(new Resources(100, 64, null, 0, Collections.emptyList()));
+		taskBuilder.logConfig(new Task.LogConfig(1, 1));
+
+		return buildRawExecJobSpec(getArtifactCacheJobId(checksum), nodes, taskBuilder.build());
+	}
+
+	/**
+	 * Purge the pre-warm Jobs of artifacts that no registered Job runs anymore and remove their
+	 * cached jars from the nodes, with a batch Job like the pre-warm Job. Nothing else removes them,
+	 * so the cache grows with every artifact version deployed. This is not done automatically, call
+	 * it periodically, e.g. from a scheduled task, while no apps of these artifacts are deployed.
+	 *
+	 * @return the checksums of the purged artifacts, sorted
+	 */
+	public Set<String> purgeArtifactCache() {
+		List<JobSummary> jobs = client.v1.jobs.getJobs();
+		Set<String> checksums = new TreeSet<>();
+		List<String> jobIds = new ArrayList<>();
+		for (JobSummary job : jobs) {
+			Matcher matcher = ARTIFACT_CACHE_JOB_ID.matcher(job.getId());
+			if (matcher.matches()) {
+				checksums.add(matcher.group(1));
+			}
+			else if (!ARTIFACT_CACHE_PURGE_JOB_ID.equals(job.getId())) {
+				jobIds.add(job.getId());
+			}
+		}
+		if (checksums.isEmpty()) {
+			return checksums;
+		}
+
+		// stopped Jobs count as well, they could be started again
+		jobIds.stream()
+				.map(id -> getNomadApi().getJob(id))
+				.filter(job -> job != null && job.getTaskGroups() != null)
+				.flatMap(job -> job.getTaskGroups().stream())
+				.filter(taskGroup -> taskGroup.getTasks() != null)
+				.flatMap(taskGroup -> taskGroup.getTasks().stream())
+				.map(task -> task.getConfig() != null ? task.getConfig().getJarPath() : null)
+				.filter(Objects::nonNull)
+				.forEach(jarPath -> checksums
+						.removeIf(checksum -> jarPath.startsWith(getArtifactCacheDirectory(checksum) + "/")));
+		if (checksums.isEmpty()) {
+			return checksums;
+		}
+
+		checksums.forEach(checksum -> getNomadApi().purgeJob(getArtifactCacheJobId(checksum)));
+		int nodes = getRawExecNodeCount();
+		if (nodes > 0 && CACHEABLE_HOST_PATH.matcher(deployerProperties.getArtifactCache().getHostPath()).matches()) {
+			planAndRegisterJob(buildArtifactCachePurgeJobSpec(checksums, nodes));
+		}
+		logger.info("Purged cached artifact(s) {}", checksums);
+		return checksums;
+	}
+
+	/**
+	 * A batch Job that removes the cache directories of the given artifacts from every node. As with
+	 * the pre-warm Job, the paths are passed as positional parameters.
+	 */
+	protected JobSpec buildArtifactCachePurgeJobSpec(Set<String> checksums, int nodes) {
+		Task.Config.ConfigBuilder configBuilder = Task.Config.builder();
+		configBuilder.command("/bin/sh");
+		configBuilder.args(Stream.concat(Stream.of("-c", "rm -rf -- \"$@\"", ARTIFACT_CACHE_PURGE_JOB_ID),
+				checksums.stream().map(this::getArtifactCacheDirectory)).collect(toList()));
+
+		Task.TaskBuilder taskBuilder = Task.builder();
+		taskBuilder.name(ARTIFACT_CACHE_PURGE_JOB_ID);
+		taskBuilder.driver("raw_exec");
+		taskBuilder.config(configBuilder.build());
+		taskBuilder.resources(new Resources(100, 64, null, 0, Collections.emptyList()));
+		taskBuilder.logConfig(new Task.LogConfig(1, 1));
+
+		return buildRawExecJobSpec(ARTIFACT_CACHE_PURGE_JOB_ID, nodes, taskBuilder.build());
+	}
+
+	/**
+	 * A batch Job running the task once on each of <code>nodes</code> nodes with the
+	 * <code>raw_exec</code> driver, the <code>distinct_hosts</code> constraint places each allocation
+	 * on a different node.
+	 */
+	private JobSpec buildRawExecJobSpec(String id, int nodes, Task task) {
+		JobSpec jobSpec = new JobSpec();
+		jobSpec.setId(id);
+		jobSpec.setName(id);
+		jobSpec.setRegion(deployerProperties.getRegion());
+		jobSpec.setType(JobTypes.BATCH.name().toLowerCase());
+		jobSpec.setDatacenters(deployerProperties.getDatacenters());
+		jobSpec.setPriority(deployerProperties.getPriority());
+		jobSpec.setConstraints(Stream.of(new Constraint("=", "${attr.driver.raw_exec}", "1"),
+				new Constraint("distinct_hosts", null, "true")).collect(toList()));
+
+		TaskGroup taskGroup = new TaskGroup();
+		taskGroup.setName(task.getName());
+		taskGroup.setCount(nodes);
+		taskGroup.setRestartPolicy(
+				new TaskGroup.RestartPolicy(milliToNanoseconds(deployerProperties.getRestartPolicyDelay()),
+						milliToNanoseconds(deployerProperties.getRestartPolicyInterval()),
+						deployerProperties.getRestartPolicyAttempts(), "fail"));
+		taskGroup.setEphemeralDisk(new TaskGroup.EphemeralDisk(false, false,
+				deployerProperties.getEphemeralDisk().getSize()));
+		taskGroup.setTasks(Stream.of(task).collect(toList()));
+		jobSpec.setTaskGroups(Stream.of(taskGroup).collect(toList()));
+
+		return jobSpec;
+	}
+
+	/**
+	 * The number of ready, non draining nodes of the configured datacenters with the
+	 * <code>raw_exec</code> driver. A node is only read (<code>/v1/node/:id</code>) when it is new or
+	 * its modify index changed, e.g. because its drivers changed.
+	 */
+	private int getRawExecNodeCount() {
+		List<String> datacenters = deployerProperties.getDatacenters();
+		List<NodeSummary> nodes = client.v1.nodes.getNodes();
+		rawExecNodes.keySet().retainAll(nodes.stream().map(NodeSummary::getId).collect(toList()));
+		return (int) nodes.stream()
+				.filter(node -> "ready".equals(node.getStatus()) && !Boolean.TRUE.equals(node.getDrain()))
+				.filter(node -> CollectionUtils.isEmpty(datacenters) || datacenters.contains(node.getDatacenter()))
+				.filter(this::isRawExecNode)
+				.count();
+	}
+
+	private boolean isRawExecNode(NodeSummary node) {
+		Map.Entry<Integer, Boolean> rawExec = rawExecNodes.get(node.getId());
+		if (rawExec == null || !Objects.equals(rawExec.getKey(), node.getModifyIndex())) {
+			NodeInfo nodeInfo = client.v1.node.getNode(node.getId());
+			rawExec = new AbstractMap.SimpleImmutableEntry<>(node.getModifyIndex(), nodeInfo != null
+					&& nodeInfo.getAttributes() != null && "1".equals(nodeInfo.getAttributes().get("driver.raw_exec")));
+			rawExecNodes.put(node.getId(), rawExec);
+		}
+		return rawExec.getValue();
+	}
+
+	/**
+	 * Wait with blocking queries until no allocation of the pre-warm Job is pending or running
+	 * anymore, or the deadline has passed.
+	 *
+	 * @return the ids of the nodes with a <code>complete</code> allocation, sorted
+	 */
+	private Set<String> awaitArtifactCache(String jobId, long deadline) {
+		long queryWait = deployerProperties.getJobIndex().getWaitTime();
+		long index = 0;
+		while (true) {
+			long remaining = deadline - System.currentTimeMillis();
+			IndexedResponse<List<JobAllocation>> response = getNomadApi().getJobAllocations(jobId, index,
+					Math.max(1, Math.min(queryWait, remaining)) + "ms");
+			List<JobAllocation> allocations = response.getValue() != null ? response.getValue()
+					: Collections.emptyList();
+			boolean finished = allocations.stream().noneMatch(
+					allocation -> "pending".equals(allocation.getClientStatus())
+							|| "running".equals(allocation.getClientStatus()));
+			if (finished || remaining <= 0) {
+				return allocations.stream().filter(allocation -> "complete".equals(allocation.getClientStatus()))
+						.map(JobAllocation::getNodeId).collect(toCollection(TreeSet::new));
+			}
+			// the index can go backwards, e.g. after a leader election, in which case we start over
+			index = response.getIndex() >= index ? response.getIndex() : 0;
+		}
+	}
+
+	private String getArtifactCacheJobId(String checksum) {
+		return String.format("artifact-cache-%s", checksum);
+	}
+
+	private String getArtifactCacheDirectory(String checksum) {
+		return String.format("%s/%s", deployerProperties.getArtifactCache().getHostPath(), checksum);
+	}
+
+	private String getCachedJarPath(MavenResource resource, String checksum) {
+		return String.format("%s/%s", getArtifactCacheDirectory(checksum), resource.getFilename());
 	}
 
 	@Override
@@ -133,7 +529,7 @@ public class MavenNomadAppDeployer extends AbstractNomadDeployer implements AppD
 		// see
 		// https://www.nomadproject.io/docs/job-specification/artifact.html#download-and-verify-checksums
 		Map<String, String> options = new HashMap<>();
-		options.put("checksum", String.format("md5:%s", new ResourceChecksum().generateMD5Checksum(resource)));
+		options.put("checksum", String.format("md5:%s", resourceChecksum.generateMD5Checksum(resource)));
 		taskBuilder.artifacts(
 				Stream.of(new Task.Artifacts(toURIString((MavenResource) request.getResource(), deployerProperties),
 						deployerProperties.getArtifactDestination(), options)).collect(toList()));
@@ -11,6 +11,9 @@ import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
 import org.springframework.cloud.deployer.spi.core.RuntimeEnvironmentInfo;
 import org.springframework.cloud.deployer.spi.nomad.NomadDeployerProperties;
 import org.springframework.cloud.deployer.spi.nomad.NomadDeploymentPropertyKeys;
+import org.springframework.cloud.deployer.spi.nomad.NomadJobIndex;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApi;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApiFactory;
 import org.springframework.cloud.deployer.spi.nomad.docker.DockerNomadTaskLauncher;
 import org.springframework.cloud.deployer.spi.task.TaskLauncher;
 import org.springframework.util.StringUtils;
@@ -31,11 +34,30 @@ public class MavenNomadTaskLauncher extends DockerNomadTaskLauncher implements T
 	private final NomadDeployerProperties deployerProperties;
 
 	public MavenNomadTaskLauncher(NomadClient nomadClient, NomadDeployerProperties deployerProperties) {
-		super(nomadClient, deployerProperties);
+		this(nomadClient, new NomadJobIndex(nomadClient), deployerProperties);
+	}
+
+	public MavenNomadTaskLauncher(NomadClient nomadClient, NomadJobIndex jobIndex,
+			NomadDeployerProperties deployerProperties) {
+		this(nomadClient, new NomadApiFactory(deployerProperties).create(), jobIndex, deployerProperties);
+	}
+
+	public MavenNomadTaskLauncher(NomadClient nomadClient, NomadApi nomadApi, NomadJobIndex jobIndex,
+			NomadDeployerProperties deployerProperties) {
+		super(nomadClient, nomadApi, jobIndex, deployerProperties);
 
 		this.deployerProperties = deployerProperties;
 	}
 
+	/**
+	 * Maven artifacts are Spring Boot jars, which read <code>SPRING_APPLICATION_JSON</code>
+	 * regardless of the entry point style.
+	 */
+	@Override
+	protected boolean isDispatchable(AppDeploymentRequest request) {
+		return isApplicationJsonLaunch(request);
+	}
+
 	@Override
 	protected Task buildTask(AppDeploymentRequest request, String taskId) {
 		Task.TaskBuilder taskBuilder = Task.builder();
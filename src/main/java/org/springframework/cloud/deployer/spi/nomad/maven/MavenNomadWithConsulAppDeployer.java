@@ -3,6 +3,7 @@ package org.springframework.cloud.deployer.spi.nomad.maven;
 import static java.util.stream.Collectors.toList;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -11,12 +12,14 @@ import org.slf4j.LoggerFactory;
 import org.springframework.cloud.deployer.resource.maven.MavenResource;
 import org.springframework.cloud.deployer.spi.app.AppStatus;
 import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.nomad.ConsulHealthChecks;
 import org.springframework.cloud.deployer.spi.nomad.NomadConsulAppInstanceStatus;
 import org.springframework.cloud.deployer.spi.nomad.NomadDeployerProperties;
+import org.springframework.cloud.deployer.spi.nomad.NomadJobIndex;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApi;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApiFactory;
 
 import com.ecwid.consul.v1.ConsulClient;
-import com.ecwid.consul.v1.QueryParams;
-import com.ecwid.consul.v1.Response;
 import com.ecwid.consul.v1.health.model.Check;
 
 import io.github.zanella.nomad.NomadClient;
@@ -40,28 +43,49 @@ public class MavenNomadWithConsulAppDeployer extends MavenNomadAppDeployer {
 
 	private NomadClient client;
 	private ConsulClient consul;
+	private ConsulHealthChecks healthChecks;
 	private NomadDeployerProperties deployerProperties;
 
 	public MavenNomadWithConsulAppDeployer(NomadClient client, ConsulClient consul,
 			NomadDeployerProperties deployerProperties) {
-		super(client, deployerProperties);
+		this(client, consul, new NomadJobIndex(client), deployerProperties);
+	}
+
+	public MavenNomadWithConsulAppDeployer(NomadClient client, ConsulClient consul, NomadJobIndex jobIndex,
+			NomadDeployerProperties deployerProperties) {
+		this(client, consul, jobIndex, new ConsulHealthChecks(consul), deployerProperties);
+	}
+
+	public MavenNomadWithConsulAppDeployer(NomadClient client, ConsulClient consul, NomadJobIndex jobIndex,
+			ConsulHealthChecks healthChecks, NomadDeployerProperties deployerProperties) {
+		this(client, consul, new NomadApiFactory(deployerProperties).create(), jobIndex, healthChecks,
+				deployerProperties);
+	}
+
+	public MavenNomadWithConsulAppDeployer(NomadClient client, ConsulClient consul, NomadApi nomadApi,
+			NomadJobIndex jobIndex, ConsulHealthChecks healthChecks, NomadDeployerProperties deployerProperties) {
+		this(client, consul, nomadApi, jobIndex, new ResourceChecksum(), healthChecks, deployerProperties);
+	}
+
+	public MavenNomadWithConsulAppDeployer(NomadClient client, ConsulClient consul, NomadApi nomadApi,
+			NomadJobIndex jobIndex, ResourceChecksum resourceChecksum, ConsulHealthChecks healthChecks,
+			NomadDeployerProperties deployerProperties) {
+		super(client, nomadApi, jobIndex, resourceChecksum, deployerProperties);
 
 		this.client = client;
 		this.consul = consul;
+		this.healthChecks = healthChecks;
 		this.deployerProperties = deployerProperties;
 	}
 
 	@Override
 	public AppStatus status(String deploymentId) {
-		Response<List<Check>> healthChecks = consul.getHealthChecksForService(deploymentId, QueryParams.DEFAULT);
-		logger.debug("Health checks for '{}': {}", deploymentId, healthChecks);
-
 		JobSummary job = getJobByName(deploymentId);
 		if (job == null) {
 			return AppStatus.of(deploymentId).build();
 		}
 
-		Check check = healthChecks.getValue().isEmpty() ? null : healthChecks.getValue().get(0);
+		Check check = healthChecks.getChecks(Collections.singletonList(deploymentId)).get(deploymentId);
 		List<JobAllocation> allocations = getAllocationEvaluation(client, job);
 		return buildAppStatus(deploymentId, check, allocations);
 	}
@@ -72,7 +96,7 @@ public class MavenNomadWithConsulAppDeployer extends MavenNomadAppDeployer {
 	protected AppStatus buildAppStatus(String id, Check check, List<JobAllocation> allocations) {
 		AppStatus.Builder statusBuilder = AppStatus.of(id);
 		allocations.forEach(allocation -> statusBuilder
-				.with(new NomadConsulAppInstanceStatus(client.v1.allocation.getAllocation(allocation.getId()), check)));
+				.with(new NomadConsulAppInstanceStatus(allocation, allocationDetails(allocation), check)));
 		return statusBuilder.build();
 	}
 
@@ -1,50 +1,223 @@
 package org.springframework.cloud.deployer.spi.nomad.maven;
 
-import java.io.FileInputStream;
+import static java.nio.file.StandardOpenOption.READ;
+
+import java.io.EOFException;
+import java.io.File;
 import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
-import org.apache.tomcat.util.http.fileupload.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cloud.deployer.resource.maven.MavenResource;
+import org.springframework.cloud.deployer.spi.nomad.NomadMetrics;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
+/**
+ * Serves resolved Maven artifacts to Nomad clients. Files are served with Tomcat's sendfile support
+ * when available, so the bytes are copied from the page cache to the socket by the kernel. Otherwise
+ * the file is written to the response output stream with
+ * {@link FileChannel#transferTo(long, long, WritableByteChannel)}, which copies it through a heap
+ * buffer, see {@link #transfer(File, long, long, HttpServletRequest, HttpServletResponse)}.
+ * <p>
+ * Single byte ranges (<code>Range</code> and <code>If-Range</code>) are supported, so that
+ * interrupted downloads can be resumed. Responses carry a strong <code>ETag</code>, the MD5 checksum
+ * of the artifact, and <code>Last-Modified</code>. Conditional requests for an unchanged artifact
+ * get a <code>304 Not Modified</code>. Every download is recorded with {@link NomadMetrics}.
+ *
+ * @author Donovan Muller
+ */
 @RestController
 public class MavenResourceController {
 
 	private static final Logger logger = LoggerFactory.getLogger(MavenResourceController.class);
 
+	private static final String SENDFILE_SUPPORTED_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+	private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+	private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+	private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
 	private MavenResourceResolver mavenResourceResolver;
+	private ResourceChecksum resourceChecksum;
+	private NomadMetrics metrics;
 
 	public MavenResourceController(MavenResourceResolver mavenResourceResolver) {
+		this(mavenResourceResolver, NomadMetrics.NONE);
+	}
+
+	public MavenResourceController(MavenResourceResolver mavenResourceResolver, NomadMetrics metrics) {
+		this(mavenResourceResolver, new ResourceChecksum(), metrics);
+	}
+
+	public MavenResourceController(MavenResourceResolver mavenResourceResolver, ResourceChecksum resourceChecksum,
+			NomadMetrics metrics) {
 		this.mavenResourceResolver = mavenResourceResolver;
+		this.resourceChecksum = resourceChecksum;
+		this.metrics = metrics;
 	}
 
 	@GetMapping("/resources/maven/{groupId}/{artifactId:[a-z-]+}-{version}.jar")
 	public void stream(@PathVariable String groupId, @PathVariable String artifactId, @PathVariable String version,
-			HttpServletResponse response) throws IOException {
+			HttpServletRequest request, HttpServletResponse response) throws IOException {
 		logger.debug("Getting resource for '{}/{}-{}.jar'", groupId, artifactId, version);
 
-		MavenResource mavenResource;
+		long start = System.nanoTime();
+		long bytes = 0;
+		int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+		try {
+			bytes = serve(groupId, artifactId, version, request, response);
+			status = response.getStatus();
+		}
+		finally {
+			// with sendfile, Tomcat only writes the file after this method returns
+			boolean sendfile = request.getAttribute(SENDFILE_FILENAME_ATTRIBUTE) != null;
+			metrics.recordArtifactDownload(status, bytes, sendfile ? -1 : System.nanoTime() - start, sendfile);
+		}
+	}
+
+	/**
+	 * @return the number of bytes of the artifact served
+	 */
+	private long serve(String groupId, String artifactId, String version, HttpServletRequest request,
+			HttpServletResponse response) throws IOException {
+		String uri;
 		/**
 		 * Perhaps identify the classifier better with regex. See
 		 * {@link org.springframework.cloud.deployer.resource.maven.MavenResource#parse}
 		 */
 		if (version.contains("exec")) {
-			mavenResource = mavenResourceResolver.resolveUri(String.format("%s:%s:jar:%s:%s", groupId, artifactId,
-					version.substring(version.lastIndexOf("-") + 1), version.substring(0, version.lastIndexOf("-"))));
+			uri = String.format("%s:%s:jar:%s:%s", groupId, artifactId, version.substring(version.lastIndexOf("-") + 1),
+					version.substring(0, version.lastIndexOf("-")));
 		}
 		else {
-			mavenResource = mavenResourceResolver.resolveUri(String.format("%s:%s:%s", groupId, artifactId, version));
+			uri = String.format("%s:%s:%s", groupId, artifactId, version);
 		}
 
-		response.addHeader("Content-disposition", String.format("attachment;filename=%s", mavenResource.getFilename()));
+		File file = mavenResourceResolver.resolveFile(uri);
+		response.addHeader("Content-disposition", String.format("attachment;filename=%s", file.getName()));
 		response.setContentType("application/java-archive");
-		IOUtils.copy(new FileInputStream(mavenResource.getFile()), response.getOutputStream());
+		long length = file.length();
+		String etag = String.format("\"%s\"", resourceChecksum.generateMD5Checksum(new FileSystemResource(file)));
+		response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+		if (new ServletWebRequest(request, response).checkNotModified(etag, file.lastModified())) {
+			logger.debug("Resource '{}' not modified", file);
+			return 0;
+		}
+
+		HttpRange range = getRange(request, file, etag);
+		if (range == null) {
+			transfer(file, 0, length, request, response);
+			return length;
+		}
+
+		long start = range.getRangeStart(length);
+		long end = Math.min(range.getRangeEnd(length), length - 1);
+		if (start >= length || start > end) {
+			response.setHeader(HttpHeaders.CONTENT_RANGE, String.format("bytes */%d", length));
+			response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+			return 0;
+		}
+
+		logger.debug("Serving range {}-{} of '{}'", start, end, file);
+		response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+		response.setHeader(HttpHeaders.CONTENT_RANGE, String.format("bytes %d-%d/%d", start, end, length));
+		transfer(file, start, end + 1, request, response);
+		return end + 1 - start;
+	}
+
+	/**
+	 * The single byte range requested with a <code>Range</code> header. The full file is served
+	 * (<code>null</code> is returned) if no range, multiple ranges or an invalid range is requested,
+	 * or if the <code>If-Range</code> validator does not match the file.
+	 */
+	protected HttpRange getRange(HttpServletRequest request, File file, String etag) {
+		String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+		if (rangeHeader == null || !isRangeValidatorMatched(request, file, etag)) {
+			return null;
+		}
+
+		try {
+			List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+			return ranges.size() == 1 ? ranges.get(0) : null;
+		}
+		catch (IllegalArgumentException e) {
+			logger.debug("Ignoring invalid range '{}'", rangeHeader);
+			return null;
+		}
+	}
+
+	/**
+	 * Whether the <code>If-Range</code> validator, if any, still matches the file. The validator is
+	 * either the strong <code>ETag</code> or the <code>Last-Modified</code> date, compared with
+	 * second precision.
+	 */
+	protected boolean isRangeValidatorMatched(HttpServletRequest request, File file, String etag) {
+		String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+		if (ifRange == null) {
+			return true;
+		}
+		if (ifRange.startsWith("\"")) {
+			return ifRange.equals(etag);
+		}
+
+		try {
+			return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == file.lastModified() / 1000;
+		}
+		catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Write the bytes of the file from <code>start</code> (inclusive) to <code>end</code>
+	 * (exclusive) to the response. With sendfile, the container writes the file from the page cache
+	 * to the socket after the request has been handled. Otherwise the response output stream is
+	 * neither a <code>FileChannel</code> nor a <code>SocketChannel</code>, so
+	 * {@link FileChannel#transferTo(long, long, WritableByteChannel)} is not zero-copy: the JDK
+	 * reads the file into a heap buffer in chunks and writes each chunk to the stream.
+	 *
+	 * @throws EOFException if the file is shorter than <code>end</code>, e.g. because it was
+	 * truncated during the transfer
+	 */
+	protected void transfer(File file, long start, long end, HttpServletRequest request,
+			HttpServletResponse response) throws IOException {
+		response.setContentLengthLong(end - start);
+
+		if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTRIBUTE))) {
+			request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.getAbsolutePath());
+			request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+			request.setAttribute(SENDFILE_END_ATTRIBUTE, end);
+			return;
+		}
+
+		try (FileChannel fileChannel = FileChannel.open(file.toPath(), READ)) {
+			WritableByteChannel responseChannel = Channels.newChannel(response.getOutputStream());
+			// the file can get shorter while it is transferred, e.g. when a SNAPSHOT is resolved again
+			long available = Math.min(end, fileChannel.size());
+			long position = start;
+			while (position < available) {
+				long transferred = fileChannel.transferTo(position, available - position, responseChannel);
+				if (transferred <= 0) {
+					break;
+				}
+				position += transferred;
+			}
+			if (position < end) {
+				throw new EOFException(String.format("File '%s' was truncated, only %d of %d bytes were sent", file,
+						position - start, end - start));
+			}
+		}
 		response.flushBuffer();
 	}
 }
@@ -1,16 +1,57 @@
 package org.springframework.cloud.deployer.spi.nomad.maven;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.cloud.deployer.resource.maven.MavenProperties;
 import org.springframework.cloud.deployer.resource.maven.MavenResource;
 import org.springframework.cloud.deployer.spi.nomad.ResourceResolver;
 import org.springframework.util.Assert;
 
+/**
+ * Resolves Maven coordinates to {@link MavenResource}s and, via {@link #resolveFile(String)}, to
+ * the artifact in the local repository. Resolved files are cached by coordinates in a bounded,
+ * least recently used cache, so repeated requests for the same artifact skip resolution. Release
+ * artifacts are cached until evicted, SNAPSHOT artifacts are resolved again once their time to live
+ * has passed, to pick up newly published SNAPSHOTs.
+ *
+ * @author Donovan Muller
+ */
 public class MavenResourceResolver implements ResourceResolver {
 
+	private static final Logger logger = LoggerFactory.getLogger(MavenResourceResolver.class);
+
+	private static final int DEFAULT_MAX_ENTRIES = 256;
+
+	private static final long DEFAULT_SNAPSHOT_TTL = 60000L;
+
 	private MavenProperties mavenProperties;
+	private long snapshotTtl;
+
+	private final Map<String, ResolvedFile> resolvedFiles;
 
 	public MavenResourceResolver(final MavenProperties mavenProperties) {
+		this(mavenProperties, DEFAULT_MAX_ENTRIES, DEFAULT_SNAPSHOT_TTL);
+	}
+
+	/**
+	 * @param maxEntries the maximum number of resolved files to cache
+	 * @param snapshotTtl how long (in milliseconds) a resolved SNAPSHOT artifact is cached for
+	 */
+	public MavenResourceResolver(final MavenProperties mavenProperties, int maxEntries, long snapshotTtl) {
 		this.mavenProperties = mavenProperties;
+		this.snapshotTtl = snapshotTtl;
+		this.resolvedFiles = Collections.synchronizedMap(new LinkedHashMap<String, ResolvedFile>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, ResolvedFile> eldest) {
+				return size() > maxEntries;
+			}
+		});
 	}
 
 	@Override
@@ -19,4 +60,40 @@ public class MavenResourceResolver implements ResourceResolver {
 
 		return MavenResource.parse(uri, mavenProperties);
 	}
+
+	/**
+	 * Resolve the Maven coordinates to the artifact in the local repository, downloading it if
+	 * necessary. Served from the cache if the artifact was resolved before and the cached entry has
+	 * not expired.
+	 */
+	public File resolveFile(String uri) throws IOException {
+		ResolvedFile resolvedFile = resolvedFiles.get(uri);
+		if (resolvedFile != null && resolvedFile.isValid()) {
+			return resolvedFile.file;
+		}
+
+		MavenResource mavenResource = resolveUri(uri);
+		File file = mavenResource.getFile();
+		long expires = mavenResource.getVersion().endsWith("SNAPSHOT") ? System.currentTimeMillis() + snapshotTtl
+				: Long.MAX_VALUE;
+		resolvedFiles.put(uri, new ResolvedFile(file, expires));
+		logger.debug("Resolved '{}' to '{}'", uri, file);
+
+		return file;
+	}
+
+	private static class ResolvedFile {
+
+		private final File file;
+		private final long expires;
+
+		ResolvedFile(File file, long expires) {
+			this.file = file;
+			this.expires = expires;
+		}
+
+		boolean isValid() {
+			return System.currentTimeMillis() < expires && file.exists();
+		}
+	}
 }
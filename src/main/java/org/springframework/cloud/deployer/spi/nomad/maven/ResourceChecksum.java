@@ -1,29 +1,91 @@
 package org.springframework.cloud.deployer.spi.nomad.maven;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.apache.commons.codec.digest.DigestUtils;
 import org.springframework.core.io.Resource;
 
+/**
+ * Generates checksums for resolved resources. Checksums are cached by file identity (path, size and
+ * last modified time), so the same artifact is only read once per version. Share a single instance
+ * between the deployers and the {@link MavenResourceController} so they use the same cache. The
+ * cache is bounded, evicting the least recently used checksum.
+ *
+ * @author Donovan Muller
+ */
 public class ResourceChecksum {
 
+	public static final int DEFAULT_MAX_ENTRIES = 256;
+
+	private final Map<String, CompletableFuture<String>> checksums;
+
+	public ResourceChecksum() {
+		this(DEFAULT_MAX_ENTRIES);
+	}
+
+	public ResourceChecksum(final int maxEntries) {
+		this.checksums = Collections
+				.synchronizedMap(new LinkedHashMap<String, CompletableFuture<String>>(16, 0.75f, true) {
+					@Override
+					protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<String>> eldest) {
+						return size() > maxEntries;
+					}
+				});
+	}
+
 	/**
-	 * Generates a MDF5 hash of the provided {@link Resource} which represents the checksum.
+	 * Generates a MDF5 hash of the provided {@link Resource} which represents the checksum. Concurrent
+	 * requests for the same file wait for the first request to hash it, instead of each reading the
+	 * file.
 	 *
 	 * @param resource
 	 * @return Resource checksum
 	 */
 	public String generateMD5Checksum(Resource resource) {
+		String key;
+		File file;
 		try {
-			File file = resource.getFile();
-			String checksum = DigestUtils.md5Hex(new FileInputStream(file));
-
-			return checksum;
+			file = resource.getFile();
+			key = String.format("%s:%d:%d", file.getAbsolutePath(), file.length(), file.lastModified());
 		}
 		catch (IOException e) {
 			throw new RuntimeException("Could not read resource to generate checksum", e);
 		}
+
+		CompletableFuture<String> checksum = new CompletableFuture<>();
+		CompletableFuture<String> existing = checksums.putIfAbsent(key, checksum);
+		if (existing != null) {
+			try {
+				return existing.join();
+			}
+			catch (CompletionException e) {
+				throw new RuntimeException("Could not read resource to generate checksum", e.getCause());
+			}
+		}
+
+		try {
+			checksum.complete(md5Hex(file));
+			return checksum.join();
+		}
+		catch (IOException | RuntimeException e) {
+			// don't cache failures, the next request should try again
+			checksums.remove(key, checksum);
+			checksum.completeExceptionally(e);
+			throw new RuntimeException("Could not read resource to generate checksum", e);
+		}
+	}
+
+	protected String md5Hex(File file) throws IOException {
+		try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+			return DigestUtils.md5Hex(inputStream);
+		}
 	}
 }
@@ -44,6 +44,6 @@ public class AbstractNomadDeployerTest {
 
 		JobSpec jobSpec = deployer.buildJobSpec("1", new NomadDeployerProperties(), request, JobTypes.SERVICE);
 
-		assertThat(jobSpec.getMeta()).containsEntry("test", "value");
+		assertThat(jobSpec.getMeta()).containsEntry("test", "value").containsEntry("spring-app-id", "1");
 	}
 }
@@ -0,0 +1,103 @@
+package org.springframework.cloud.deployer.spi.nomad;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cloud.deployer.spi.app.AppDeployer;
+import org.springframework.cloud.deployer.spi.app.AppStatus;
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.nomad.DeploymentResult.Outcome;
+import org.springframework.core.io.ClassPathResource;
+
+public class AsyncNomadAppDeployerTest {
+
+	private AppDeployer appDeployer;
+
+	private AsyncNomadAppDeployer asyncAppDeployer;
+
+	@Before
+	public void setup() {
+		appDeployer = mock(AppDeployer.class);
+		asyncAppDeployer = new AsyncNomadAppDeployer(appDeployer, 2);
+	}
+
+	@After
+	public void tearDown() {
+		asyncAppDeployer.shutdown();
+	}
+
+	@Test
+	public void testDeployAllInParallel() throws Exception {
+		CountDownLatch deploying = new CountDownLatch(2);
+		when(appDeployer.deploy(any(AppDeploymentRequest.class))).thenAnswer(invocation -> {
+			deploying.countDown();
+			// both deployments must be in flight at the same time to get past this point
+			assertThat(deploying.await(5, TimeUnit.SECONDS)).isTrue();
+			return ((AppDeploymentRequest) invocation.getArguments()[0]).getDefinition().getName();
+		});
+
+		assertThat(asyncAppDeployer.deployAll(Arrays.asList(request("app1"), request("app2"))).get(5, TimeUnit.SECONDS))
+				.containsExactly("app1", "app2");
+	}
+
+	@Test(expected = ExecutionException.class)
+	public void testDeployFailure() throws Exception {
+		when(appDeployer.deploy(any(AppDeploymentRequest.class))).thenThrow(new IllegalStateException("deployed"));
+
+		asyncAppDeployer.deploy(request("app1")).get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void testDeployAndAwaitDoesNotHoldDeploymentThreads() throws Exception {
+		AwaitableAppDeployer awaitableAppDeployer = mock(AwaitableAppDeployer.class);
+		CountDownLatch deployed = new CountDownLatch(1);
+		when(awaitableAppDeployer.deployAwaitable(any(AppDeploymentRequest.class), anyLong()))
+				.thenAnswer(invocation -> (Supplier<DeploymentResult>) () -> {
+					try {
+						deployed.await(5, TimeUnit.SECONDS);
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return new DeploymentResult("app1", Outcome.DEPLOYED, "Deployment successful");
+				});
+		when(awaitableAppDeployer.status("app2")).thenReturn(AppStatus.of("app2").build());
+		AsyncNomadAppDeployer asyncAppDeployer = new AsyncNomadAppDeployer(awaitableAppDeployer, 1);
+
+		try {
+			CompletableFuture<DeploymentResult> first = asyncAppDeployer.deployAndAwait(request("app1"), 5000);
+			CompletableFuture<DeploymentResult> second = asyncAppDeployer.deployAndAwait(request("app1"), 5000);
+
+			// both deployments are being awaited, yet the single deployment thread is free
+			assertThat(asyncAppDeployer.status("app2").get(5, TimeUnit.SECONDS).getDeploymentId()).isEqualTo("app2");
+			assertThat(first.isDone()).isFalse();
+
+			deployed.countDown();
+			assertThat(first.get(5, TimeUnit.SECONDS).isDeployed()).isTrue();
+			assertThat(second.get(5, TimeUnit.SECONDS).isDeployed()).isTrue();
+		}
+		finally {
+			asyncAppDeployer.shutdown();
+		}
+	}
+
+	private AppDeploymentRequest request(String name) {
+		return new AppDeploymentRequest(new AppDefinition(name, Collections.emptyMap()),
+				new ClassPathResource("test-app-1.0-SNAPSHOT.jar"));
+	}
+}
@@ -0,0 +1,65 @@
+package org.springframework.cloud.deployer.spi.nomad;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ecwid.consul.v1.ConsulClient;
+import com.ecwid.consul.v1.QueryParams;
+import com.ecwid.consul.v1.Response;
+import com.ecwid.consul.v1.health.model.Check;
+
+public class ConsulHealthCacheTest {
+
+	private ConsulClient consul;
+
+	private ConsulHealthCache healthCache;
+
+	@Before
+	public void setup() {
+		consul = mock(ConsulClient.class);
+		healthCache = new ConsulHealthCache(consul, 1000);
+	}
+
+	@After
+	public void tearDown() {
+		healthCache.stop();
+	}
+
+	@Test
+	public void testChecksFromCache() throws InterruptedException {
+		when(consul.getHealthChecksState(any(QueryParams.class))).thenAnswer(invocation -> {
+			TimeUnit.MILLISECONDS.sleep(10);
+			return new Response<>(Arrays.asList(check("test-app"), check("other-app")), 7L, true, 0L);
+		});
+
+		healthCache.start();
+		for (int attempt = 0; attempt < 100 && !healthCache.isSynced(); attempt++) {
+			TimeUnit.MILLISECONDS.sleep(10);
+		}
+
+		assertThat(healthCache.isSynced()).isTrue();
+		assertThat(healthCache.getLastIndex()).isEqualTo(7);
+		assertThat(healthCache.getChecks(Collections.singletonList("test-app"))).containsOnlyKeys("test-app");
+		verify(consul, never()).getHealthChecksForService(anyString(), any(QueryParams.class));
+	}
+
+	private Check check(String serviceName) {
+		Check check = new Check();
+		check.setServiceName(serviceName);
+		check.setStatus(Check.CheckStatus.PASSING);
+		return check;
+	}
+}
@@ -0,0 +1,66 @@
+package org.springframework.cloud.deployer.spi.nomad;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ecwid.consul.v1.ConsulClient;
+import com.ecwid.consul.v1.QueryParams;
+import com.ecwid.consul.v1.Response;
+import com.ecwid.consul.v1.health.model.Check;
+
+public class ConsulHealthChecksTest {
+
+	private ConsulClient consul;
+
+	private ConsulHealthChecks healthChecks;
+
+	@Before
+	public void setup() {
+		consul = mock(ConsulClient.class);
+		healthChecks = new ConsulHealthChecks(consul);
+	}
+
+	@Test
+	public void testChecksForMultipleServicesInOneQuery() {
+		when(consul.getHealthChecksState(any(QueryParams.class))).thenReturn(new Response<>(
+				Arrays.asList(check("test-app-0"), check("test-app-1"), check("other-app")), 1L, true, 1L));
+
+		assertThat(healthChecks.getChecks(Arrays.asList("test-app-0", "test-app-1", "test-app-2")))
+				.containsOnlyKeys("test-app-0", "test-app-1");
+		verify(consul, never()).getHealthChecksForService(anyString(), any(QueryParams.class));
+	}
+
+	@Test
+	public void testChecksForSingleService() {
+		when(consul.getHealthChecksForService("test-app", QueryParams.DEFAULT))
+				.thenReturn(new Response<>(Collections.singletonList(check("test-app")), 1L, true, 1L));
+
+		assertThat(healthChecks.getChecks(Collections.singletonList("test-app"))).containsOnlyKeys("test-app");
+		verify(consul, never()).getHealthChecksState(any(QueryParams.class));
+	}
+
+	@Test
+	public void testNoChecksForNoServices() {
+		assertThat(healthChecks.getChecks(Collections.emptyList())).isEmpty();
+		verifyZeroInteractions(consul);
+	}
+
+	private Check check(String serviceName) {
+		Check check = new Check();
+		check.setServiceName(serviceName);
+		check.setStatus(Check.CheckStatus.PASSING);
+		return check;
+	}
+}
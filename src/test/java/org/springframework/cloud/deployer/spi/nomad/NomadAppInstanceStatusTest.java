@@ -0,0 +1,37 @@
+package org.springframework.cloud.deployer.spi.nomad;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.springframework.cloud.deployer.spi.app.DeploymentState;
+
+import io.github.zanella.nomad.v1.jobs.models.JobAllocation;
+import io.github.zanella.nomad.v1.nodes.models.NodeAllocation;
+
+public class NomadAppInstanceStatusTest {
+
+	@Test
+	public void testAllocationDetailsFetchedLazily() {
+		JobAllocation allocation = new JobAllocation();
+		allocation.setId("1");
+		allocation.setName("test-app.test-app[0]");
+		allocation.setJobId("test-app");
+		allocation.setClientStatus("running");
+
+		AtomicInteger fetches = new AtomicInteger();
+		NomadAppInstanceStatus status = new NomadAppInstanceStatus(allocation, () -> {
+			fetches.incrementAndGet();
+			return new NodeAllocation();
+		});
+
+		assertThat(status.getId()).isEqualTo("test-app.test-app[0]");
+		assertThat(status.getState()).isEqualTo(DeploymentState.deployed);
+		assertThat(fetches.get()).isZero();
+
+		assertThat(status.getAttributes()).containsEntry("job_id", "test-app");
+		status.getAttributes();
+		assertThat(fetches.get()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,77 @@
+package org.springframework.cloud.deployer.spi.nomad;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cloud.deployer.spi.nomad.client.IndexedResponse;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApi;
+
+import io.github.zanella.nomad.v1.jobs.models.JobAllocation;
+import io.github.zanella.nomad.v1.jobs.models.JobSummary;
+
+public class NomadClusterStateCacheTest {
+
+	private NomadApi nomadApi;
+
+	private NomadClusterStateCache stateCache;
+
+	@Before
+	public void setup() {
+		nomadApi = mock(NomadApi.class);
+		stateCache = new NomadClusterStateCache(null, nomadApi, 1000);
+	}
+
+	@After
+	public void tearDown() {
+		stateCache.stop();
+	}
+
+	@Test
+	public void testAllocationsFromCache() throws InterruptedException {
+		when(nomadApi.getJobs(anyLong(), anyString())).thenAnswer(invocation -> {
+			TimeUnit.MILLISECONDS.sleep(10);
+			return new IndexedResponse<List<JobSummary>>(Collections.singletonList(jobSummary("test-app")), 42, 5);
+		});
+		when(nomadApi.getAllocations(anyLong(), anyString())).thenAnswer(invocation -> {
+			TimeUnit.MILLISECONDS.sleep(10);
+			return new IndexedResponse<>(Arrays.asList(allocation("1", "test-app"), allocation("2", "test-app"),
+					allocation("3", "other-app")), 43, 10);
+		});
+
+		stateCache.start();
+		for (int attempt = 0; attempt < 100 && !stateCache.isSynced(); attempt++) {
+			TimeUnit.MILLISECONDS.sleep(10);
+		}
+
+		assertThat(stateCache.isSynced()).isTrue();
+		assertThat(stateCache.getLastAllocationIndex()).isEqualTo(43);
+		assertThat(stateCache.getLag()).isEqualTo(10);
+		assertThat(stateCache.getJobAllocations(stateCache.find("test-app")))
+				.extracting(JobAllocation::getId).containsExactlyInAnyOrder("1", "2");
+		assertThat(stateCache.getJobAllocations(jobSummary("missing-app"))).isEmpty();
+		assertThat(stateCache.getJobAllocations(Arrays.asList(jobSummary("test-app"), jobSummary("missing-app"))))
+				.containsOnlyKeys("test-app");
+	}
+
+	private JobSummary jobSummary(String name) {
+		return new JobSummary(name, name, "service", 50, "running", null, 1, 1);
+	}
+
+	private JobAllocation allocation(String id, String jobId) {
+		JobAllocation allocation = new JobAllocation();
+		allocation.setId(id);
+		allocation.setJobId(jobId);
+		return allocation;
+	}
+}
@@ -0,0 +1,71 @@
+package org.springframework.cloud.deployer.spi.nomad;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cloud.deployer.spi.nomad.client.IndexedResponse;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApi;
+
+import io.github.zanella.nomad.v1.jobs.models.JobSummary;
+
+public class NomadJobIndexTest {
+
+	private NomadApi nomadApi;
+
+	private NomadJobIndex jobIndex;
+
+	@Before
+	public void setup() {
+		nomadApi = mock(NomadApi.class);
+		jobIndex = new NomadJobIndex(null, nomadApi, 1000);
+	}
+
+	@After
+	public void tearDown() {
+		jobIndex.stop();
+	}
+
+	@Test
+	public void testFindFromIndex() throws InterruptedException {
+		when(nomadApi.getJobs(anyLong(), anyString())).thenAnswer(invocation -> {
+			TimeUnit.MILLISECONDS.sleep(10);
+			return new IndexedResponse<List<JobSummary>>(
+					Arrays.asList(jobSummary("test-app"), jobSummary("test-app-2")), 42);
+		});
+
+		jobIndex.start();
+		awaitSynced();
+
+		assertThat(jobIndex.getLastIndex()).isEqualTo(42);
+		assertThat(jobIndex.find("test-app").getName()).isEqualTo("test-app");
+		assertThat(jobIndex.find("test")).isNull();
+		assertThat(jobIndex.findAll(Arrays.asList("test-app-2", "test", "test-app")))
+				.containsOnlyKeys("test-app", "test-app-2");
+	}
+
+	@Test
+	public void testNotSyncedUntilStarted() {
+		assertThat(jobIndex.isSynced()).isFalse();
+	}
+
+	private void awaitSynced() throws InterruptedException {
+		for (int attempt = 0; attempt < 100 && !jobIndex.isSynced(); attempt++) {
+			TimeUnit.MILLISECONDS.sleep(10);
+		}
+		assertThat(jobIndex.isSynced()).isTrue();
+	}
+
+	private JobSummary jobSummary(String name) {
+		return new JobSummary(name, name, "service", 50, "running", null, 1, 1);
+	}
+}
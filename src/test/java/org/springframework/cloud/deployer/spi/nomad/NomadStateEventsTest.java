@@ -0,0 +1,239 @@
+package org.springframework.cloud.deployer.spi.nomad;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cloud.deployer.spi.app.AppDeployer;
+import org.springframework.cloud.deployer.spi.app.AppInstanceStatus;
+import org.springframework.cloud.deployer.spi.app.AppStatus;
+import org.springframework.cloud.deployer.spi.app.DeploymentState;
+import org.springframework.cloud.deployer.spi.nomad.NomadStateEvents.StateEvent;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadClientFactory;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadHttpTransport;
+import org.springframework.cloud.deployer.spi.nomad.stub.StubNomadServer;
+import org.springframework.cloud.deployer.spi.task.TaskLauncher;
+
+import com.ecwid.consul.v1.health.model.Check;
+
+import io.github.zanella.nomad.NomadClient;
+import io.github.zanella.nomad.v1.jobs.models.JobAllocation;
+import io.github.zanella.nomad.v1.jobs.models.JobSpec;
+import io.github.zanella.nomad.v1.jobs.models.JobSummary;
+
+public class NomadStateEventsTest {
+
+	private StubNomadServer nomad;
+
+	private NomadHttpTransport transport;
+
+	private NomadClient client;
+
+	private NomadClusterStateCache stateCache;
+
+	private ConsulHealthCache healthCache;
+
+	private AppDeployer appDeployer;
+
+	private ExecutorService executor;
+
+	private NomadStateEvents stateEvents;
+
+	private List<StateEvent> events = new CopyOnWriteArrayList<>();
+
+	@Before
+	public void setup() throws Exception {
+		nomad = new StubNomadServer(1);
+		nomad.start();
+		NomadDeployerProperties deployerProperties = new NomadDeployerProperties();
+		deployerProperties.setNomadHost(nomad.getHost());
+		deployerProperties.setNomadPort(nomad.getPort());
+		transport = new NomadHttpTransport(deployerProperties, NomadMetrics.NONE);
+		client = new NomadClientFactory(deployerProperties, transport).create();
+
+		stateCache = mock(NomadClusterStateCache.class);
+		healthCache = mock(ConsulHealthCache.class);
+		appDeployer = mock(AppDeployer.class);
+		executor = Executors.newSingleThreadExecutor();
+		stateEvents = new NomadStateEvents(client, stateCache, healthCache, appDeployer, mock(TaskLauncher.class),
+				executor);
+		stateEvents.addListener(events::add);
+
+		register("test-app", Collections.singletonMap("spring-app-id", "test-app"));
+		register("other-app", Collections.emptyMap());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		stateEvents.stop();
+		transport.close();
+		nomad.close();
+	}
+
+	@Test
+	public void testAppStateTransitions() throws Exception {
+		when(appDeployer.status("test-app")).thenReturn(status(DeploymentState.deploying),
+				status(DeploymentState.deployed));
+		Consumer<Map<String, List<JobAllocation>>> allocationsListener = startAndCaptureAllocationsListener();
+
+		// the first state is recorded, not published
+		allocationsListener.accept(allocations(1));
+		awaitProcessed();
+		assertThat(events).isEmpty();
+		assertThat(stateEvents.getStates()).containsExactly(new StateEvent("test-app", "app", "deploying"));
+
+		allocationsListener.accept(allocations(2));
+		awaitProcessed();
+		assertThat(events).containsExactly(new StateEvent("test-app", "app", "deployed"));
+		assertThat(stateEvents.getStates()).containsExactly(new StateEvent("test-app", "app", "deployed"));
+
+		// Jobs not deployed by the deployer are ignored
+		verify(appDeployer, never()).status("other-app");
+	}
+
+	@Test
+	public void testHealthTransitions() throws Exception {
+		when(appDeployer.status("test-app")).thenReturn(status(DeploymentState.deploying),
+				status(DeploymentState.deployed));
+		startAndCaptureAllocationsListener().accept(allocations(1));
+		awaitProcessed();
+		Consumer<Map<String, Check>> checksListener = captureChecksListener();
+
+		checksListener.accept(checks(Check.CheckStatus.CRITICAL));
+		awaitProcessed();
+		assertThat(events).isEmpty();
+
+		// the services of indexed apps are named after the instance
+		checksListener.accept(checks(Check.CheckStatus.PASSING));
+		awaitProcessed();
+		assertThat(events).containsExactly(new StateEvent("test-app", "app", "deployed"));
+	}
+
+	@Test(timeout = 10000)
+	public void testSlowListenerDoesNotBlockWatch() throws Exception {
+		when(appDeployer.status("test-app")).thenReturn(status(DeploymentState.deploying),
+				status(DeploymentState.deployed), status(DeploymentState.failed));
+		CountDownLatch blocked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		stateEvents.addListener(event -> {
+			blocked.countDown();
+			try {
+				release.await();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		Consumer<Map<String, List<JobAllocation>>> allocationsListener = startAndCaptureAllocationsListener();
+		allocationsListener.accept(allocations(1));
+		awaitProcessed();
+
+		// the listener blocks the event thread, changes in the meantime are only handed over
+		allocationsListener.accept(allocations(2));
+		blocked.await();
+		for (int modifyIndex = 3; modifyIndex < 100; modifyIndex++) {
+			allocationsListener.accept(allocations(modifyIndex));
+		}
+		release.countDown();
+		awaitProcessed();
+
+		// the changes that arrived while the listener was blocked are resolved once
+		assertThat(events).containsExactly(new StateEvent("test-app", "app", "deployed"),
+				new StateEvent("test-app", "app", "failed"));
+	}
+
+	/**
+	 * Wait for the changes handed over so far to be processed.
+	 */
+	private void awaitProcessed() throws Exception {
+		executor.submit(() -> {
+		}).get(5, TimeUnit.SECONDS);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Consumer<Map<String, List<JobAllocation>>> startAndCaptureAllocationsListener() {
+		stateEvents.start();
+
+		ArgumentCaptor<Consumer> listener = ArgumentCaptor.forClass(Consumer.class);
+		verify(stateCache).addListener(listener.capture());
+		return listener.getValue();
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Consumer<Map<String, Check>> captureChecksListener() {
+		ArgumentCaptor<Consumer> listener = ArgumentCaptor.forClass(Consumer.class);
+		verify(healthCache).addListener(listener.capture());
+		return listener.getValue();
+	}
+
+	private void register(String id, Map<String, String> meta) {
+		JobSpec jobSpec = new JobSpec();
+		jobSpec.setId(id);
+		jobSpec.setName(id);
+		jobSpec.setType("service");
+		jobSpec.setMeta(meta);
+		jobSpec.setTaskGroups(new ArrayList<>());
+		client.v1.jobs.postJob(jobSpec);
+
+		when(stateCache.find(id)).thenReturn(new JobSummary(id, id, "service", 50, "running", null, 1, 1));
+	}
+
+	private Map<String, List<JobAllocation>> allocations(int modifyIndex) {
+		Map<String, List<JobAllocation>> allocations = new HashMap<>();
+		allocations.put("test-app", Collections.singletonList(allocation("test-app", modifyIndex)));
+		allocations.put("other-app", Collections.singletonList(allocation("other-app", modifyIndex)));
+		return allocations;
+	}
+
+	private JobAllocation allocation(String jobId, int modifyIndex) {
+		JobAllocation allocation = new JobAllocation();
+		allocation.setId(jobId + "-alloc");
+		allocation.setJobId(jobId);
+		allocation.setModifyIndex(modifyIndex);
+		return allocation;
+	}
+
+	private Map<String, Check> checks(Check.CheckStatus status) {
+		Check check = new Check();
+		check.setServiceName("test-app-0");
+		check.setStatus(status);
+		return Collections.singletonMap("test-app-0", check);
+	}
+
+	private AppStatus status(DeploymentState state) {
+		return AppStatus.of("test-app").with(new AppInstanceStatus() {
+			@Override
+			public String getId() {
+				return "test-app-0";
+			}
+
+			@Override
+			public DeploymentState getState() {
+				return state;
+			}
+
+			@Override
+			public Map<String, String> getAttributes() {
+				return Collections.emptyMap();
+			}
+		}).build();
+	}
+}
@@ -0,0 +1,77 @@
+package org.springframework.cloud.deployer.spi.nomad;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.nomad.ResourceAwareNomadTaskLauncher.LaunchResult;
+import org.springframework.cloud.deployer.spi.nomad.docker.DockerNomadTaskLauncher;
+import org.springframework.core.io.ClassPathResource;
+
+public class ResourceAwareNomadTaskLauncherTest {
+
+	private DockerNomadTaskLauncher dockerTaskLauncher;
+
+	private ResourceAwareNomadTaskLauncher taskLauncher;
+
+	@Before
+	public void setup() {
+		dockerTaskLauncher = mock(DockerNomadTaskLauncher.class);
+		taskLauncher = new ResourceAwareNomadTaskLauncher(dockerTaskLauncher, null, 2);
+	}
+
+	@After
+	public void tearDown() {
+		taskLauncher.shutdown();
+	}
+
+	@Test
+	public void testLaunchAllInParallel() {
+		CountDownLatch launching = new CountDownLatch(2);
+		when(dockerTaskLauncher.launch(any(AppDeploymentRequest.class))).thenAnswer(invocation -> {
+			launching.countDown();
+			// both launches must be in flight at the same time to get past this point
+			assertThat(launching.await(5, TimeUnit.SECONDS)).isTrue();
+			return ((AppDeploymentRequest) invocation.getArguments()[0]).getDefinition().getName() + "-1";
+		});
+
+		List<LaunchResult> results = taskLauncher.launchAll(Arrays.asList(request("task1"), request("task2")));
+
+		assertThat(results).extracting(LaunchResult::getTaskId).containsExactly("task1-1", "task2-1");
+		assertThat(results).extracting(LaunchResult::isLaunched).containsOnly(true);
+	}
+
+	@Test
+	public void testLaunchAllWithFailure() {
+		when(dockerTaskLauncher.launch(any(AppDeploymentRequest.class))).thenAnswer(invocation -> {
+			String name = ((AppDeploymentRequest) invocation.getArguments()[0]).getDefinition().getName();
+			if (name.equals("task1")) {
+				throw new IllegalStateException("launch failed");
+			}
+			return name + "-1";
+		});
+
+		List<LaunchResult> results = taskLauncher.launchAll(Arrays.asList(request("task1"), request("task2")));
+
+		assertThat(results.get(0).isLaunched()).isFalse();
+		assertThat(results.get(0).getFailure()).isInstanceOf(IllegalStateException.class);
+		assertThat(results.get(1).getTaskId()).isEqualTo("task2-1");
+	}
+
+	private AppDeploymentRequest request(String name) {
+		return new AppDeploymentRequest(new AppDefinition(name, Collections.emptyMap()),
+				new ClassPathResource("test-app-1.0-SNAPSHOT.jar"));
+	}
+}
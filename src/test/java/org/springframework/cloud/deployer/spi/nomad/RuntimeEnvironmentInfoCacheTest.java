@@ -0,0 +1,92 @@
+package org.springframework.cloud.deployer.spi.nomad;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cloud.deployer.spi.core.RuntimeEnvironmentInfo;
+
+public class RuntimeEnvironmentInfoCacheTest {
+
+	private final AtomicLong clock = new AtomicLong();
+	private final AtomicInteger loads = new AtomicInteger();
+	private final List<Runnable> refreshes = new ArrayList<>();
+
+	private volatile boolean failing;
+
+	private RuntimeEnvironmentInfoCache cache;
+
+	@Before
+	public void setup() {
+		cache = new RuntimeEnvironmentInfoCache(() -> {
+			loads.incrementAndGet();
+			if (failing) {
+				throw new IllegalStateException("agent unavailable");
+			}
+			return mock(RuntimeEnvironmentInfo.class);
+		}, 1000, refreshes::add, clock::get);
+	}
+
+	@Test
+	public void testCachedWithinRefreshInterval() {
+		RuntimeEnvironmentInfo environmentInfo = cache.get();
+		clock.set(999);
+
+		assertThat(cache.get()).isSameAs(environmentInfo);
+		assertThat(loads.get()).isEqualTo(1);
+		assertThat(refreshes).isEmpty();
+	}
+
+	@Test
+	public void testRefreshedInBackground() {
+		RuntimeEnvironmentInfo environmentInfo = cache.get();
+		clock.set(1000);
+
+		// stale info is returned while a single refresh is pending
+		assertThat(cache.get()).isSameAs(environmentInfo);
+		assertThat(cache.get()).isSameAs(environmentInfo);
+		assertThat(refreshes).hasSize(1);
+		assertThat(loads.get()).isEqualTo(1);
+
+		refreshes.remove(0).run();
+
+		assertThat(cache.get()).isNotSameAs(environmentInfo);
+		assertThat(loads.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void testFailedRefreshKeepsPreviousInfo() {
+		RuntimeEnvironmentInfo environmentInfo = cache.get();
+		failing = true;
+		clock.set(1000);
+
+		cache.get();
+		refreshes.remove(0).run();
+
+		assertThat(cache.get()).isSameAs(environmentInfo);
+		assertThat(refreshes).isEmpty();
+
+		clock.set(2000);
+		cache.get();
+		assertThat(refreshes).hasSize(1);
+	}
+
+	@Test
+	public void testCachingDisabled() {
+		cache = new RuntimeEnvironmentInfoCache(() -> {
+			loads.incrementAndGet();
+			return mock(RuntimeEnvironmentInfo.class);
+		}, 0);
+
+		cache.get();
+		cache.get();
+
+		assertThat(loads.get()).isEqualTo(2);
+	}
+}
@@ -0,0 +1,46 @@
+package org.springframework.cloud.deployer.spi.nomad.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cloud.deployer.spi.nomad.NomadDeployerProperties;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import io.github.zanella.nomad.NomadClient;
+import io.github.zanella.nomad.v1.jobs.models.JobSummary;
+
+public class NomadClientFactoryTest {
+
+	@Test
+	public void testRequestsUseTransport() throws Exception {
+		Client client = mock(Client.class);
+		when(client.execute(any(Request.class), any(Request.Options.class))).thenReturn(Response.create(200, "OK",
+				Collections.<String, Collection<String>> singletonMap("Content-Type",
+						Collections.singletonList("application/json")),
+				"[{\"ID\":\"test-app\",\"Name\":\"test-app\"}]", StandardCharsets.UTF_8));
+
+		NomadDeployerProperties deployerProperties = new NomadDeployerProperties();
+		deployerProperties.getHttp().setReadTimeout(5000);
+		NomadClient nomadClient = new NomadClientFactory(deployerProperties, client).create();
+
+		assertThat(nomadClient.v1.jobs.getJobs()).extracting(JobSummary::getName).containsExactly("test-app");
+
+		ArgumentCaptor<Request> request = ArgumentCaptor.forClass(Request.class);
+		ArgumentCaptor<Request.Options> options = ArgumentCaptor.forClass(Request.Options.class);
+		verify(client).execute(request.capture(), options.capture());
+		assertThat(request.getValue().url()).isEqualTo("http://localhost:4646/v1/jobs");
+		assertThat(options.getValue().readTimeoutMillis()).isEqualTo(5000);
+	}
+}
@@ -0,0 +1,77 @@
+package org.springframework.cloud.deployer.spi.nomad.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.junit.Test;
+import org.springframework.cloud.deployer.spi.nomad.NomadDeployerProperties;
+import org.springframework.cloud.deployer.spi.nomad.stub.StubNomadServer;
+
+import feign.Request;
+import feign.Response;
+
+public class NomadHttpTransportTest {
+
+	private static final Request.Options OPTIONS = new Request.Options(1000, 10000);
+
+	@Test
+	public void testUriTemplate() {
+		assertThat(NomadHttpTransport.uriTemplate("http://localhost:4646/v1/jobs?index=42&wait=60s"))
+				.isEqualTo("/v1/jobs");
+		assertThat(NomadHttpTransport.uriTemplate("http://localhost:4646/v1/job/test-app"))
+				.isEqualTo("/v1/job/{id}");
+		assertThat(NomadHttpTransport.uriTemplate("http://localhost:4646/v1/job/test-task%2Fdispatch-1-abc/allocations"))
+				.isEqualTo("/v1/job/{id}/allocations");
+		assertThat(NomadHttpTransport.uriTemplate("http://localhost:4646/v1/agent/members"))
+				.isEqualTo("/v1/agent/members");
+	}
+
+	@Test(timeout = 10000)
+	public void testBlockingQueriesArePooledSeparately() throws Exception {
+		try (StubNomadServer nomad = new StubNomadServer(1)) {
+			nomad.start();
+			NomadDeployerProperties deployerProperties = new NomadDeployerProperties();
+			deployerProperties.getHttp().setMaxConnectionsPerRoute(1);
+			deployerProperties.getHttp().setMaxBlockingConnections(1);
+			deployerProperties.getHttp().setConnectionRequestTimeout(200);
+			String url = String.format("http://%s:%d/v1/jobs", nomad.getHost(), nomad.getPort());
+			String blockingUrl = String.format("%s?index=%d&wait=3s", url, nomad.getIndex());
+
+			try (NomadHttpTransport transport = new NomadHttpTransport(deployerProperties)) {
+				CompletableFuture<Response> blockingQuery = CompletableFuture
+						.supplyAsync(() -> execute(transport, blockingUrl));
+				while (transport.getBlockingPoolStats().getLeased() == 0) {
+					Thread.sleep(10);
+				}
+
+				// the blocking query does not hold up other requests
+				assertThat(execute(transport, url).status()).isEqualTo(200);
+
+				// but fails another blocking query once its pool is exhausted
+				Throwable throwable = catchThrowable(() -> transport.execute(request(blockingUrl), OPTIONS));
+				assertThat(throwable).isInstanceOf(ConnectionPoolTimeoutException.class);
+
+				assertThat(blockingQuery.get().status()).isEqualTo(200);
+			}
+		}
+	}
+
+	private Response execute(NomadHttpTransport transport, String url) {
+		try {
+			Response response = transport.execute(request(url), OPTIONS);
+			response.close();
+			return response;
+		}
+		catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private Request request(String url) {
+		return Request.create("GET", url, Collections.emptyMap(), null, null);
+	}
+}
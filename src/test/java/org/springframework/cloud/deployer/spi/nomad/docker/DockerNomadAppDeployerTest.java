@@ -0,0 +1,437 @@
+package org.springframework.cloud.deployer.spi.nomad.docker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cloud.deployer.resource.docker.DockerResource;
+import org.springframework.cloud.deployer.spi.app.AppDeployer;
+import org.springframework.cloud.deployer.spi.app.AppStatus;
+import org.springframework.cloud.deployer.spi.app.DeploymentState;
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.nomad.AsyncNomadAppDeployer;
+import org.springframework.cloud.deployer.spi.nomad.ConsulHealthChecks;
+import org.springframework.cloud.deployer.spi.nomad.DeploymentResult;
+import org.springframework.cloud.deployer.spi.nomad.DeploymentResult.Outcome;
+import org.springframework.cloud.deployer.spi.nomad.NomadDeployerProperties;
+import org.springframework.cloud.deployer.spi.nomad.NomadDeploymentPropertyKeys;
+import org.springframework.cloud.deployer.spi.nomad.NomadJobIndex;
+import org.springframework.cloud.deployer.spi.nomad.NomadMetrics;
+import org.springframework.cloud.deployer.spi.nomad.client.JobPlanRequest;
+import org.springframework.cloud.deployer.spi.nomad.client.JobPlanResponse;
+import org.springframework.cloud.deployer.spi.nomad.client.JobRegistration;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApi;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApiFactory;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadClientFactory;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadHttpTransport;
+import org.springframework.cloud.deployer.spi.nomad.client.RollingUpdateStrategy;
+import org.springframework.cloud.deployer.spi.nomad.stub.StubConsulServer;
+import org.springframework.cloud.deployer.spi.nomad.stub.StubNomadServer;
+
+import com.ecwid.consul.v1.ConsulClient;
+
+import feign.FeignException;
+import feign.Response;
+
+import io.github.zanella.nomad.NomadClient;
+import io.github.zanella.nomad.v1.nodes.models.Task;
+import io.github.zanella.nomad.v1.nodes.models.TaskGroup;
+
+public class DockerNomadAppDeployerTest {
+
+	private StubNomadServer nomad;
+	private NomadDeployerProperties deployerProperties;
+	private NomadHttpTransport transport;
+	private NomadClient client;
+	private NomadApi nomadApi;
+
+	@Before
+	public void setup() {
+		nomad = new StubNomadServer();
+		nomad.start();
+
+		deployerProperties = new NomadDeployerProperties();
+		deployerProperties.setNomadHost(nomad.getHost());
+		deployerProperties.setNomadPort(nomad.getPort());
+		deployerProperties.setRedeploy(true);
+		transport = new NomadHttpTransport(deployerProperties, NomadMetrics.NONE);
+		client = new NomadClientFactory(deployerProperties, transport).create();
+		nomadApi = new NomadApiFactory(deployerProperties, transport).create();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		transport.close();
+		nomad.close();
+	}
+
+	@Test
+	public void testRedeployUnchanged() {
+		DockerNomadAppDeployer appDeployer = appDeployer(nomadApi);
+
+		String deploymentId = appDeployer.deploy(request("test-app", "1"));
+		appDeployer.deploy(request("test-app", "1"));
+
+		assertThat(appDeployer.status(deploymentId).getState()).isEqualTo(DeploymentState.deployed);
+		assertThat(nomad.getRequestCount("POST /v1/job/{id}/plan")).isEqualTo(2);
+		assertThat(nomad.getRequestCount("POST /v1/jobs")).isEqualTo(1);
+	}
+
+	@Test
+	public void testRedeployChanged() {
+		DockerNomadAppDeployer appDeployer = appDeployer(nomadApi);
+
+		String deploymentId = appDeployer.deploy(request("test-app", "1"));
+		appDeployer.deploy(request("test-app", "2"));
+
+		assertThat(nomad.getRequestCount("POST /v1/jobs")).isEqualTo(2);
+		assertThat(nomad.getRegisteredJobs().get(deploymentId).getTaskGroups().get(0).getCount()).isEqualTo(2);
+		assertThat(appDeployer.status(deploymentId).getInstances()).hasSize(2);
+	}
+
+	@Test
+	public void testRedeployModifiedAfterPlan() {
+		NomadApi concurrentlyModifiedApi = mock(NomadApi.class, delegatesTo(nomadApi));
+		doAnswer(invocation -> {
+			JobPlanRequest planRequest = (JobPlanRequest) invocation.getArguments()[1];
+			JobPlanResponse plan = nomadApi.planJob(planRequest.getJob().getId(), planRequest);
+			// another deployer registers the Job between the plan and the registration
+			nomadApi.registerJob(new JobRegistration(planRequest.getJob()));
+			return plan;
+		}).when(concurrentlyModifiedApi).planJob(anyString(), any(JobPlanRequest.class));
+
+		try {
+			appDeployer(concurrentlyModifiedApi).deploy(request("test-app", "1"));
+			fail("Expected the check-and-set conflict to fail the deployment");
+		}
+		catch (IllegalStateException e) {
+			assertThat(e).hasMessageContaining("was modified after it was planned")
+					.hasCauseInstanceOf(FeignException.class);
+			assertThat(((FeignException) e.getCause()).status()).isEqualTo(500);
+			assertThat(e.getCause()).hasMessageContaining(
+					"Enforcing job modify index 0: job exists with conflicting job modify index:");
+		}
+	}
+
+	@Test(expected = FeignException.class)
+	public void testRedeployRegistrationFailure() {
+		NomadApi failingApi = mock(NomadApi.class, delegatesTo(nomadApi));
+		doThrow(FeignException.errorStatus("NomadApi#registerJob(JobRegistration)",
+				Response.create(500, "", Collections.emptyMap(), "job modify index out of range".getBytes())))
+						.when(failingApi).registerJob(any(JobRegistration.class));
+
+		// only a conflicting check-and-set index is reported as a concurrent modification
+		appDeployer(failingApi).deploy(request("test-app", "1"));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testDeployExistingWithoutRedeploy() {
+		DockerNomadAppDeployer appDeployer = appDeployer(nomadApi);
+		appDeployer.deploy(request("test-app", "1"));
+
+		Map<String, String> deploymentProperties = new HashMap<>();
+		deploymentProperties.put(NomadDeploymentPropertyKeys.NOMAD_REDEPLOY, "false");
+		appDeployer.deploy(new AppDeploymentRequest(new AppDefinition("test-app", new HashMap<>()),
+				new DockerResource("springcloud/spring-cloud-deployer-spi-test-app:latest"), deploymentProperties));
+	}
+
+	@Test
+	public void testStatuses() {
+		DockerNomadAppDeployer appDeployer = appDeployer(nomadApi);
+		String first = appDeployer.deploy(request("first-app", "2"));
+		String second = appDeployer.deploy(request("second-app", "1"));
+		nomad.setClientStatus(second, "failed");
+		nomad.resetRequestCounts();
+
+		Map<String, AppStatus> statuses = appDeployer.statuses(Arrays.asList(second, "unknown-app", first));
+
+		// a single snapshot of the Jobs and allocations, regardless of the number of apps
+		assertThat(nomad.getRequestCount("GET /v1/jobs")).isEqualTo(1);
+		assertThat(nomad.getRequestCount("GET /v1/allocations")).isEqualTo(1);
+		assertThat(nomad.getRequestCount("GET /v1/job/{id}")).isZero();
+		assertThat(nomad.getRequestCount("GET /v1/job/{id}/allocations")).isZero();
+
+		assertThat(statuses).containsOnlyKeys(second, "unknown-app", first);
+		assertThat(statuses.keySet()).containsExactly(second, "unknown-app", first);
+		assertThat(statuses.get(first).getState()).isEqualTo(DeploymentState.deployed);
+		assertThat(statuses.get(first).getInstances()).hasSize(2);
+		assertThat(statuses.get(second).getState()).isEqualTo(DeploymentState.failed);
+		assertThat(statuses.get(second).getInstances()).hasSize(1);
+		assertThat(statuses.get("unknown-app").getState()).isEqualTo(DeploymentState.unknown);
+		assertThat(statuses.get("unknown-app").getInstances()).isEmpty();
+
+		// the same instances as resolving each app on its own
+		assertThat(statuses.get(first).getInstances().keySet()).isEqualTo(allocations(appDeployer, first));
+		assertThat(statuses.get(second).getInstances().keySet()).isEqualTo(allocations(appDeployer, second));
+	}
+
+	@Test
+	public void testStatusesWithConsul() {
+		StubConsulServer consul = new StubConsulServer(nomad);
+		consul.start();
+		try {
+			ConsulClient consulClient = new ConsulClient(consul.getHost(), consul.getPort());
+			DockerNomadAppDeployer appDeployer = new DockerNomadWithConsulAppDeployer(client, consulClient, nomadApi,
+					new NomadJobIndex(client), new ConsulHealthChecks(consulClient), deployerProperties);
+			String healthy = appDeployer.deploy(request("healthy-app", "1"));
+			String unhealthy = appDeployer.deploy(request("unhealthy-app", "1"));
+			consul.setCheckStatus(unhealthy, "critical");
+			nomad.resetRequestCounts();
+
+			Map<String, AppStatus> statuses = appDeployer.statuses(Arrays.asList(healthy, unhealthy, "unknown-app"));
+
+			assertThat(nomad.getRequestCount("GET /v1/jobs")).isEqualTo(1);
+			assertThat(nomad.getRequestCount("GET /v1/allocations")).isEqualTo(1);
+			// each app's state is taken from its own health check
+			assertThat(statuses.get(healthy).getState()).isEqualTo(DeploymentState.deployed);
+			assertThat(statuses.get(unhealthy).getState()).isEqualTo(DeploymentState.deploying);
+			assertThat(statuses.get("unknown-app").getState()).isEqualTo(DeploymentState.unknown);
+		}
+		finally {
+			consul.close();
+		}
+	}
+
+	@Test
+	public void testScaleUp() {
+		DockerNomadAppDeployer appDeployer = appDeployer(nomadApi);
+		String deploymentId = appDeployer.deploy(request("test-app", "2"));
+		Set<String> allocations = allocations(appDeployer, deploymentId);
+
+		appDeployer.scale(deploymentId, 3);
+
+		assertThat(nomad.getRegisteredJobs().get(deploymentId).getTaskGroups().get(0).getCount()).isEqualTo(3);
+		// the existing allocations are kept, only the added instance is placed
+		assertThat(allocations(appDeployer, deploymentId)).hasSize(3).containsAll(allocations);
+	}
+
+	@Test
+	public void testScaleDown() {
+		DockerNomadAppDeployer appDeployer = appDeployer(nomadApi);
+		String deploymentId = appDeployer.deploy(request("test-app", "3"));
+		Set<String> allocations = allocations(appDeployer, deploymentId);
+
+		appDeployer.scale(deploymentId, 1);
+
+		assertThat(allocations).containsAll(allocations(appDeployer, deploymentId));
+		assertThat(allocations(appDeployer, deploymentId)).hasSize(1);
+	}
+
+	@Test
+	public void testScaleUnchanged() {
+		DockerNomadAppDeployer appDeployer = appDeployer(nomadApi);
+		String deploymentId = appDeployer.deploy(request("test-app", "2"));
+
+		appDeployer.scale(deploymentId, 2);
+
+		assertThat(nomad.getRequestCount("POST /v1/jobs")).isEqualTo(1);
+	}
+
+	@Test
+	public void testScaleIndexed() {
+		DockerNomadAppDeployer appDeployer = new IndexingDockerNomadAppDeployer(client, nomadApi,
+				new NomadJobIndex(client), deployerProperties);
+		Map<String, String> deploymentProperties = new HashMap<>();
+		deploymentProperties.put(AppDeployer.COUNT_PROPERTY_KEY, "2");
+		deploymentProperties.put(AppDeployer.INDEXED_PROPERTY_KEY, "true");
+		deploymentProperties.put(NomadDeploymentPropertyKeys.NOMAD_DOCKER_ENTRYPOINT_STYLE, "shell");
+		Map<String, String> definitionProperties = new HashMap<>();
+		definitionProperties.put("upstream", "test-app-1");
+		String deploymentId = appDeployer.deploy(new AppDeploymentRequest(
+				new AppDefinition("test-app", definitionProperties),
+				new DockerResource("springcloud/spring-cloud-deployer-spi-test-app:latest"), deploymentProperties));
+
+		appDeployer.scale(deploymentId, 3);
+
+		List<TaskGroup> taskGroups = nomad.getRegisteredJobs().get(deploymentId).getTaskGroups();
+		assertThat(taskGroups).extracting(TaskGroup::getName)
+				.containsExactly("test-app-0", "test-app-1", "test-app-2");
+		Task task = taskGroups.get(2).getTasks().get(0);
+		assertThat(task.getName()).isEqualTo("test-app-2");
+		assertThat(task.getEnv()).containsEntry(AppDeployer.INSTANCE_INDEX_PROPERTY_KEY, "2")
+				.containsEntry("SPRING_APPLICATION_INDEX", "2")
+				// only the names and tags of the copied TaskGroup are indexed, app properties are copied as is
+				.containsEntry("UPSTREAM", "test-app-1");
+
+		appDeployer.scale(deploymentId, 1);
+
+		assertThat(nomad.getRegisteredJobs().get(deploymentId).getTaskGroups()).extracting(TaskGroup::getName)
+				.containsExactly("test-app-0");
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testScaleNotDeployed() {
+		appDeployer(nomadApi).scale("test-app", 2);
+	}
+
+	@Test
+	public void testDeployWithoutUpdateStrategy() {
+		String deploymentId = appDeployer(nomadApi).deploy(request("test-app", "2"));
+
+		assertThat(nomad.getRegisteredJobs().get(deploymentId).getUpdate()).isNull();
+	}
+
+	@Test
+	public void testDeployWithUpdateStrategy() {
+		deployerProperties.getUpdate().setMaxParallel(1);
+		// the nomad-api client reads the update stanza without the rolling update fields
+		DockerNomadAppDeployer appDeployer = new DockerNomadAppDeployer(
+				new NomadClient(nomad.getHost(), nomad.getPort()), nomadApi, new NomadJobIndex(client),
+				deployerProperties);
+		AppDeploymentRequest request = request("test-app", "2");
+		Map<String, String> deploymentProperties = new HashMap<>(request.getDeploymentProperties());
+		deploymentProperties.put(NomadDeploymentPropertyKeys.NOMAD_UPDATE_MAX_PARALLEL, "2");
+		deploymentProperties.put(NomadDeploymentPropertyKeys.NOMAD_UPDATE_AUTO_REVERT, "true");
+		String deploymentId = appDeployer.deploy(new AppDeploymentRequest(request.getDefinition(),
+				request.getResource(), deploymentProperties));
+
+		RollingUpdateStrategy update = (RollingUpdateStrategy) nomad.getRegisteredJobs().get(deploymentId)
+				.getUpdate();
+		assertThat(update.getMaxParallel()).isEqualTo(2);
+		assertThat(update.getMinHealthyTime()).isEqualTo(TimeUnit.SECONDS.toNanos(10));
+		assertThat(update.getHealthyDeadline()).isEqualTo(TimeUnit.MINUTES.toNanos(5));
+		assertThat(update.getCanary()).isNull();
+		assertThat(update.getAutoRevert()).isTrue();
+
+		// the update stanza is kept when the registered Job is read and registered again
+		appDeployer.scale(deploymentId, 3);
+
+		assertThat(nomad.getRegisteredJobs().get(deploymentId).getUpdate()).isEqualToComparingFieldByField(update);
+	}
+
+	@Test
+	public void testDeployAndAwaitWithoutUpdateStrategy() {
+		DeploymentResult result = appDeployer(nomadApi).deployAndAwait(request("test-app", "2"), 5000);
+
+		assertThat(result.getOutcome()).isEqualTo(Outcome.DEPLOYED);
+		assertThat(nomad.getRequestCount("GET /v1/deployment/{id}")).isZero();
+	}
+
+	@Test
+	public void testDeployAndAwaitFailedAllocations() {
+		DockerNomadAppDeployer appDeployer = appDeployer(nomadApi);
+		AppDeploymentRequest request = request("test-app", "2");
+		Supplier<DeploymentResult> awaitable = appDeployer.deployAwaitable(request, 5000);
+		nomad.setClientStatus("test-app", "failed");
+
+		DeploymentResult result = awaitable.get();
+
+		assertThat(result.getOutcome()).isEqualTo(Outcome.FAILED);
+		assertThat(result.getDescription()).startsWith("Allocation(s) failed");
+	}
+
+	@Test
+	public void testRedeployUnchangedAwaitsAllocations() {
+		DockerNomadAppDeployer appDeployer = appDeployer(nomadApi);
+		String deploymentId = appDeployer.deploy(request("test-app", "2"));
+		nomad.setClientStatus(deploymentId, "pending");
+
+		DeploymentResult result = appDeployer.deployAndAwait(request("test-app", "2"), 500);
+
+		// the Job is unchanged, but its allocations have not started
+		assertThat(nomad.getRequestCount("POST /v1/jobs")).isEqualTo(1);
+		assertThat(result.getOutcome()).isEqualTo(Outcome.TIMED_OUT);
+		assertThat(result.getDescription()).isEqualTo("2/2 allocation(s) pending");
+
+		nomad.setClientStatus(deploymentId, "running");
+
+		assertThat(appDeployer.deployAndAwait(request("test-app", "2"), 500).getOutcome())
+				.isEqualTo(Outcome.DEPLOYED);
+	}
+
+	@Test
+	public void testDeployAndAwaitDeployment() {
+		deployerProperties.getUpdate().setMaxParallel(1);
+		deployerProperties.getUpdate().setMinHealthyTime(200L);
+
+		DeploymentResult result = appDeployer(nomadApi).deployAndAwait(request("test-app", "2"), 5000);
+
+		assertThat(result.getOutcome()).isEqualTo(Outcome.DEPLOYED);
+		// the deployment is followed with a blocking query instead of being polled
+		assertThat(nomad.getRequestCount("GET /v1/deployment/{id}")).isEqualTo(2);
+	}
+
+	@Test
+	public void testDeployAndAwaitUnpromotedCanaries() {
+		deployerProperties.getUpdate().setMaxParallel(1);
+		// canaries are not configured by the deployer, but may be added to the Job by a subclass
+		DockerNomadAppDeployer appDeployer = new DockerNomadAppDeployer(client, nomadApi, new NomadJobIndex(client),
+				deployerProperties) {
+
+			@Override
+			protected RollingUpdateStrategy buildUpdateStrategy(AppDeploymentRequest request,
+					NomadDeployerProperties deployerProperties) {
+				RollingUpdateStrategy updateStrategy = super.buildUpdateStrategy(request, deployerProperties);
+				updateStrategy.setCanary(1);
+				return updateStrategy;
+			}
+		};
+
+		DeploymentResult result = appDeployer.deployAndAwait(request("test-app", "2"), 500);
+
+		assertThat(result.getOutcome()).isEqualTo(Outcome.TIMED_OUT);
+		assertThat(result.getDescription()).contains("requires promotion");
+	}
+
+	@Test
+	public void testDeployAndAwaitPlacementFailure() {
+		nomad.setExhaustedDimension("memory exhausted");
+
+		DeploymentResult result = appDeployer(nomadApi).deployAndAwait(request("test-app", "2"), 5000);
+
+		assertThat(result.getOutcome()).isEqualTo(Outcome.PLACEMENT_FAILED);
+		assertThat(result.getDescription()).contains("TaskGroup 'test-app': 2 allocation(s) not placed")
+				.contains("1/1 nodes exhausted (memory exhausted: 1)").contains("blocked evaluation");
+	}
+
+	@Test
+	public void testDeployAndAwaitFailedDeployment() throws Exception {
+		deployerProperties.getUpdate().setMaxParallel(1);
+		deployerProperties.getUpdate().setMinHealthyTime(TimeUnit.MINUTES.toMillis(1));
+		AsyncNomadAppDeployer asyncAppDeployer = new AsyncNomadAppDeployer(appDeployer(nomadApi), 1);
+
+		CompletableFuture<DeploymentResult> result = asyncAppDeployer.deployAndAwait(request("test-app", "2"),
+				10000);
+		while (nomad.getRequestCount("GET /v1/deployment/{id}") == 0) {
+			TimeUnit.MILLISECONDS.sleep(10);
+		}
+		nomad.setDeploymentStatus("test-app", "failed", "Failed due to unhealthy allocations");
+
+		assertThat(result.get(5, TimeUnit.SECONDS).getOutcome()).isEqualTo(Outcome.FAILED);
+		asyncAppDeployer.shutdown();
+	}
+
+	private Set<String> allocations(DockerNomadAppDeployer appDeployer, String deploymentId) {
+		return appDeployer.status(deploymentId).getInstances().keySet();
+	}
+
+	private DockerNomadAppDeployer appDeployer(NomadApi nomadApi) {
+		return new DockerNomadAppDeployer(client, nomadApi, new NomadJobIndex(client), deployerProperties);
+	}
+
+	private AppDeploymentRequest request(String name, String count) {
+		Map<String, String> deploymentProperties = new HashMap<>();
+		deploymentProperties.put(AppDeployer.COUNT_PROPERTY_KEY, count);
+		return new AppDeploymentRequest(new AppDefinition(name, new HashMap<>()),
+				new DockerResource("springcloud/spring-cloud-deployer-spi-test-app:latest"), deploymentProperties);
+	}
+}
@@ -0,0 +1,149 @@
+package org.springframework.cloud.deployer.spi.nomad.docker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cloud.deployer.resource.docker.DockerResource;
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.nomad.NomadDeployerProperties;
+import org.springframework.cloud.deployer.spi.nomad.NomadDeploymentPropertyKeys;
+import org.springframework.cloud.deployer.spi.nomad.client.JobDispatchRequest;
+import org.springframework.cloud.deployer.spi.nomad.client.JobDispatchResponse;
+import org.springframework.cloud.deployer.spi.nomad.client.JobRegistration;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApi;
+import org.springframework.cloud.deployer.spi.nomad.client.ParameterizedJobSpec;
+
+import feign.FeignException;
+import feign.Response;
+
+import io.github.zanella.nomad.v1.jobs.models.JobEvalResult;
+
+public class DockerNomadTaskLauncherTest {
+
+	private NomadApi nomadApi;
+
+	private DockerNomadTaskLauncher taskLauncher;
+
+	@Before
+	public void setup() {
+		nomadApi = mock(NomadApi.class);
+		when(nomadApi.registerJob(any(JobRegistration.class))).thenReturn(new JobEvalResult());
+		when(nomadApi.dispatchJob(anyString(), any(JobDispatchRequest.class))).thenAnswer(invocation -> {
+			JobDispatchResponse response = new JobDispatchResponse();
+			response.setDispatchedJobId(invocation.getArgumentAt(0, String.class) + "/dispatch-1-abcdef12");
+			return response;
+		});
+
+		NomadDeployerProperties deployerProperties = new NomadDeployerProperties();
+		deployerProperties.getTaskDispatch().setEnabled(true);
+		deployerProperties.setEntryPointStyle(EntryPointStyle.boot);
+		taskLauncher = new DockerNomadTaskLauncher(null, nomadApi, null, deployerProperties);
+	}
+
+	@Test
+	public void testLaunchDispatchesRegisteredJob() {
+		String first = taskLauncher.launch(request(Collections.singletonMap("test.property", "first"), "--id=1"));
+		String second = taskLauncher.launch(request(Collections.singletonMap("test.property", "second"), "--id=2"));
+
+		ArgumentCaptor<JobRegistration> registration = ArgumentCaptor.forClass(JobRegistration.class);
+		verify(nomadApi).registerJob(registration.capture());
+		ParameterizedJobSpec jobSpec = (ParameterizedJobSpec) registration.getValue().getJob();
+		assertThat(jobSpec.getId()).matches("test-task-[0-9a-f]{8}");
+		assertThat(jobSpec.getParameterizedJob().getMetaRequired()).containsExactly("SPRING_APPLICATION_JSON");
+		assertThat(jobSpec.getTaskGroups().get(0).getTasks().get(0).getEnv())
+				.containsEntry("SPRING_APPLICATION_JSON", "${NOMAD_META_SPRING_APPLICATION_JSON}");
+
+		assertThat(first).isEqualTo(jobSpec.getId() + "/dispatch-1-abcdef12");
+		assertThat(second).isEqualTo(first);
+
+		ArgumentCaptor<JobDispatchRequest> dispatch = ArgumentCaptor.forClass(JobDispatchRequest.class);
+		verify(nomadApi, times(2)).dispatchJob(eq(jobSpec.getId()), dispatch.capture());
+		assertThat(dispatch.getAllValues().get(0).getMeta()).containsEntry("SPRING_APPLICATION_JSON",
+				"{\"test.property\":\"first\",\"id\":\"1\"}");
+		assertThat(dispatch.getAllValues().get(1).getMeta()).containsEntry("SPRING_APPLICATION_JSON",
+				"{\"test.property\":\"second\",\"id\":\"2\"}");
+	}
+
+	@Test
+	public void testChangedDefinitionRegistersNewJob() {
+		taskLauncher.launch(request(new HashMap<>()));
+		Map<String, String> deploymentProperties = new HashMap<>();
+		deploymentProperties.put(NomadDeploymentPropertyKeys.JOB_PRIORITY, "75");
+		taskLauncher.launch(new AppDeploymentRequest(new AppDefinition("test-task", new HashMap<>()),
+				new DockerResource("springcloud/timestamp-task"), deploymentProperties));
+
+		ArgumentCaptor<JobRegistration> registration = ArgumentCaptor.forClass(JobRegistration.class);
+		verify(nomadApi, times(2)).registerJob(registration.capture());
+		assertThat(registration.getAllValues().get(0).getJob().getId())
+				.isNotEqualTo(registration.getAllValues().get(1).getJob().getId());
+	}
+
+	@Test
+	public void testPositionalArgumentsAreNotDispatchable() {
+		assertThat(taskLauncher.isDispatchable(request(new HashMap<>(), "--id=1", "positional"))).isFalse();
+		verify(nomadApi, never()).registerJob(any(JobRegistration.class));
+	}
+
+	@Test
+	public void testOnlyBootEntryPointStyleIsDispatchable() {
+		Map<String, String> deploymentProperties = new HashMap<>();
+		deploymentProperties.put(NomadDeploymentPropertyKeys.NOMAD_DOCKER_ENTRYPOINT_STYLE, "exec");
+		AppDeploymentRequest request = new AppDeploymentRequest(
+				new AppDefinition("test-task", Collections.singletonMap("test.property", "value")),
+				new DockerResource("springcloud/timestamp-task"), deploymentProperties);
+
+		assertThat(taskLauncher.isDispatchable(request)).isFalse();
+		assertThat(taskLauncher.isDispatchable(request(new HashMap<>(), "--id=1"))).isTrue();
+	}
+
+	@Test
+	public void testDispatchRegistersJobAgainWhenNotFound() {
+		taskLauncher.launch(request(new HashMap<>()));
+		when(nomadApi.dispatchJob(anyString(), any(JobDispatchRequest.class)))
+				.thenThrow(feignException(404))
+				.thenAnswer(invocation -> new JobDispatchResponse());
+
+		taskLauncher.launch(request(new HashMap<>()));
+
+		verify(nomadApi, times(2)).registerJob(any(JobRegistration.class));
+	}
+
+	@Test(expected = FeignException.class)
+	public void testDispatchFailureIsNotRetried() {
+		taskLauncher.launch(request(new HashMap<>()));
+		when(nomadApi.dispatchJob(anyString(), any(JobDispatchRequest.class))).thenThrow(feignException(500));
+
+		try {
+			taskLauncher.launch(request(new HashMap<>()));
+		}
+		finally {
+			verify(nomadApi, times(1)).registerJob(any(JobRegistration.class));
+		}
+	}
+
+	private FeignException feignException(int status) {
+		return FeignException.errorStatus("NomadApi#dispatchJob(String,JobDispatchRequest)",
+				Response.create(status, "", Collections.emptyMap(), (byte[]) null));
+	}
+
+	private AppDeploymentRequest request(Map<String, String> properties, String... arguments) {
+		return new AppDeploymentRequest(new AppDefinition("test-task", properties),
+				new DockerResource("springcloud/timestamp-task"), new HashMap<>(), Arrays.asList(arguments));
+	}
+}
@@ -1,21 +1,83 @@
 package org.springframework.cloud.deployer.spi.nomad.maven;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
 
+import java.io.File;
+import java.nio.file.Files;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.cloud.deployer.resource.maven.MavenResource;
 import org.springframework.cloud.deployer.spi.core.AppDefinition;
 import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.nomad.NomadDeployerProperties;
+import org.springframework.cloud.deployer.spi.nomad.NomadJobIndex;
+import org.springframework.cloud.deployer.spi.nomad.NomadMetrics;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApiFactory;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadClientFactory;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadHttpTransport;
+import org.springframework.cloud.deployer.spi.nomad.stub.StubNomadServer;
 import org.springframework.core.io.Resource;
 
+import io.github.zanella.nomad.NomadClient;
+import io.github.zanella.nomad.v1.common.models.Job;
+import io.github.zanella.nomad.v1.nodes.models.Task;
+
 public class MavenNomadAppDeployerTest {
 
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private StubNomadServer nomad;
+	private NomadDeployerProperties deployerProperties;
+	private NomadHttpTransport transport;
+	private MavenNomadAppDeployer appDeployer;
+	private MavenResource resource;
+	private String checksum;
+
+	@Before
+	public void setup() throws Exception {
+		nomad = new StubNomadServer(2);
+		nomad.start();
+
+		deployerProperties = new NomadDeployerProperties();
+		deployerProperties.setNomadHost(nomad.getHost());
+		deployerProperties.setNomadPort(nomad.getPort());
+		deployerProperties.setDeployerHost("localhost");
+		deployerProperties.setDeployerPort(9393);
+		deployerProperties.setRedeploy(true);
+		deployerProperties.getArtifactCache().setEnabled(true);
+		deployerProperties.getArtifactCache().setTimeout(5000L);
+		transport = new NomadHttpTransport(deployerProperties, NomadMetrics.NONE);
+		NomadClient client = new NomadClientFactory(deployerProperties, transport).create();
+		appDeployer = new MavenNomadAppDeployer(client, new NomadApiFactory(deployerProperties, transport).create(),
+				new NomadJobIndex(client), deployerProperties);
+
+		File jar = temporaryFolder.newFile("test-app-1.0.0.jar");
+		Files.write(jar.toPath(), "test-app".getBytes());
+		resource = spy(MavenResource.parse("org.springframework.cloud:test-app:1.0.0"));
+		doReturn(jar).when(resource).getFile();
+		checksum = new ResourceChecksum().generateMD5Checksum(resource);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		transport.close();
+		nomad.close();
+	}
+
 	@Test
 	public void testToSpringApplicationJson() {
 		Map<String, String> definitionProperties = new HashMap<>();
@@ -27,7 +89,7 @@ public class MavenNomadAppDeployerTest {
 		AppDeploymentRequest request = new AppDeploymentRequest(new AppDefinition("test-app", definitionProperties),
 				mock(Resource.class), null, commandLineArguments);
 
-		String springApplicationJson = new MavenNomadAppDeployer(null, null).toSpringApplicationJson(request);
+		String springApplicationJson = appDeployer.toSpringApplicationJson(request);
 
 		assertThat(springApplicationJson).isEqualToIgnoringWhitespace("{" +
 			"\"cmdLineProp1\":\"cmdLineVal1\"," +
@@ -36,4 +98,129 @@ public class MavenNomadAppDeployerTest {
 			"\"definitionProperty1\":\"definitionValue1\"" +
 			"}");
 	}
+
+	@Test
+	public void testDeployWithArtifactCache() {
+		nomad.setBatchClientStatus("complete");
+
+		String deploymentId = appDeployer.deploy(request());
+
+		Job prewarmJob = nomad.getRegisteredJobs().get("artifact-cache-" + checksum);
+		assertThat(prewarmJob.getType()).isEqualTo("batch");
+		assertThat(prewarmJob.getTaskGroups().get(0).getCount()).isEqualTo(2);
+		Task prewarmTask = prewarmJob.getTaskGroups().get(0).getTasks().get(0);
+		assertThat(prewarmTask.getDriver()).isEqualTo("raw_exec");
+		assertThat(prewarmTask.getArtifacts().get(0).getOptions()).containsEntry("checksum", "md5:" + checksum);
+		// the paths are positional parameters of the script, not part of it
+		assertThat(prewarmTask.getConfig().getArgs()).hasSize(7).endsWith("local/test-app-1.0.0.jar",
+				"/var/cache/spring-cloud-deployer-nomad/" + checksum + "/test-app-1.0.0.jar.${NOMAD_ALLOC_ID}");
+
+		Job appJob = nomad.getRegisteredJobs().get(deploymentId);
+		Task appTask = appJob.getTaskGroups().get(0).getTasks().get(0);
+		assertThat(appTask.getConfig().getJarPath())
+				.isEqualTo("/var/cache/spring-cloud-deployer-nomad/" + checksum + "/test-app-1.0.0.jar");
+		assertThat(appTask.getArtifacts()).isNullOrEmpty();
+		assertThat(appJob.getConstraints()).extracting("operand", "value").contains(tuple("regexp",
+				nomad.getNodes().stream().sorted().collect(Collectors.joining("|", "^(", ")$"))));
+	}
+
+	@Test
+	public void testDeployWithArtifactCacheOnRawExecNodes() {
+		nomad.setBatchClientStatus("complete");
+		String node = nomad.getNodes().get(0);
+		nomad.setRawExec(nomad.getNodes().get(1), false);
+
+		String deploymentId = appDeployer.deploy(request());
+
+		Job prewarmJob = nomad.getRegisteredJobs().get("artifact-cache-" + checksum);
+		assertThat(prewarmJob.getTaskGroups().get(0).getCount()).isEqualTo(1);
+		assertThat(nomad.getRegisteredJobs().get(deploymentId).getConstraints()).extracting("operand", "value")
+				.contains(tuple("regexp", "^(" + node + ")$"));
+	}
+
+	@Test
+	public void testDeployWithUncacheableHostPath() {
+		deployerProperties.getArtifactCache().setHostPath("/var/cache/$(id)");
+
+		String deploymentId = appDeployer.deploy(request());
+
+		assertThat(nomad.getRegisteredJobs()).doesNotContainKey("artifact-cache-" + checksum);
+		Task appTask = nomad.getRegisteredJobs().get(deploymentId).getTaskGroups().get(0).getTasks().get(0);
+		assertThat(appTask.getConfig().getJarPath()).isEqualTo("local/test-app-1.0.0.jar");
+	}
+
+	@Test
+	public void testRedeployWithArtifactCacheUnchanged() {
+		nomad.setBatchClientStatus("complete");
+
+		appDeployer.deploy(request());
+		appDeployer.deploy(request());
+
+		// neither the pre-warm Job nor the app Job are registered again
+		assertThat(nomad.getRequestCount("POST /v1/jobs")).isEqualTo(2);
+	}
+
+	@Test
+	public void testDeployWithArtifactCacheReadsChangedNodes() {
+		nomad.setBatchClientStatus("complete");
+
+		appDeployer.deploy(request());
+		appDeployer.deploy(request());
+		assertThat(nomad.getRequestCount("GET /v1/node/{id}")).isEqualTo(2);
+
+		// only the changed node is read again
+		nomad.setRawExec(nomad.getNodes().get(1), false);
+		appDeployer.deploy(request());
+		assertThat(nomad.getRequestCount("GET /v1/node/{id}")).isEqualTo(3);
+	}
+
+	@Test
+	public void testRedeployWithArtifactCacheAfterFailedAllocations() {
+		nomad.setBatchClientStatus("complete");
+
+		String deploymentId = appDeployer.deploy(request());
+		nomad.setClientStatus(deploymentId, "failed");
+		appDeployer.deploy(request());
+
+		// the pre-warm Job is purged and registered again, the app Job is unchanged
+		assertThat(nomad.getRequestCount("DELETE /v1/job/{id}")).isEqualTo(1);
+		assertThat(nomad.getRequestCount("POST /v1/jobs")).isEqualTo(3);
+		assertThat(nomad.getRegisteredJobs()).containsKey("artifact-cache-" + checksum);
+	}
+
+	@Test
+	public void testPurgeArtifactCache() {
+		nomad.setBatchClientStatus("complete");
+		String deploymentId = appDeployer.deploy(request());
+
+		// the artifact is still used by the app
+		assertThat(appDeployer.purgeArtifactCache()).isEmpty();
+		assertThat(nomad.getRegisteredJobs()).containsKey("artifact-cache-" + checksum);
+
+		appDeployer.undeploy(deploymentId);
+		assertThat(appDeployer.purgeArtifactCache()).containsExactly(checksum);
+
+		assertThat(nomad.getRegisteredJobs()).doesNotContainKey("artifact-cache-" + checksum);
+		Job purgeJob = nomad.getRegisteredJobs().get("artifact-cache-purge");
+		assertThat(purgeJob.getTaskGroups().get(0).getCount()).isEqualTo(2);
+		assertThat(purgeJob.getTaskGroups().get(0).getTasks().get(0).getConfig().getArgs())
+				.endsWith("/var/cache/spring-cloud-deployer-nomad/" + checksum);
+	}
+
+	@Test
+	public void testDeployWithArtifactCacheFailed() {
+		nomad.setBatchClientStatus("failed");
+
+		String deploymentId = appDeployer.deploy(request());
+
+		Job appJob = nomad.getRegisteredJobs().get(deploymentId);
+		Task appTask = appJob.getTaskGroups().get(0).getTasks().get(0);
+		assertThat(appTask.getConfig().getJarPath()).isEqualTo("local/test-app-1.0.0.jar");
+		assertThat(appTask.getArtifacts()).hasSize(1);
+		assertThat(appJob.getConstraints()).extracting("operand").doesNotContain("regexp");
+	}
+
+	private AppDeploymentRequest request() {
+		return new AppDeploymentRequest(new AppDefinition("test-app", new HashMap<>()), resource, new HashMap<>());
+	}
 }
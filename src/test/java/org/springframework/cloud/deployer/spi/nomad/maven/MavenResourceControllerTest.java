@@ -1,25 +1,52 @@
 package org.springframework.cloud.deployer.spi.nomad.maven;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.cloud.deployer.resource.maven.MavenResource;
+import org.springframework.cloud.deployer.spi.nomad.MicrometerNomadMetrics;
+import org.springframework.cloud.deployer.spi.nomad.NomadMetrics;
 import org.springframework.context.annotation.Bean;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @RunWith(SpringRunner.class)
 @SpringBootTest(classes = MavenResourceControllerTest.Config.class)
 @AutoConfigureMockMvc
@@ -29,15 +56,26 @@ public class MavenResourceControllerTest {
 	@Autowired
 	private MockMvc mvc;
 
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private NomadMetrics nomadMetrics;
+
+	@Autowired
+	private MavenResourceController mavenResourceController;
+
 	@MockBean
 	private MavenResourceResolver mavenResourceResolver;
 
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 	@Test
 	public void testStreamingSnapshot() throws Exception {
-		MavenResource mavenResource = mock(MavenResource.class);
-		when(mavenResource.getFile()).thenReturn(new ClassPathResource("test-app-1.0-SNAPSHOT.jar").getFile());
-		when(mavenResourceResolver.resolveUri("io.switchbit:test-app:1.0.0-SNAPSHOT"))
-			.thenReturn(mavenResource);
+		File file = new ClassPathResource("test-app-1.0-SNAPSHOT.jar").getFile();
+		when(mavenResourceResolver.resolveFile("io.switchbit:test-app:1.0.0-SNAPSHOT"))
+			.thenReturn(file);
 
 		this.mvc.perform(get("/resources/maven/io.switchbit/test-app-1.0.0-SNAPSHOT.jar"))
 			.andExpect(status().isOk());
@@ -45,32 +83,167 @@ public class MavenResourceControllerTest {
 
 	@Test
 	public void testStreamingRelease() throws Exception {
-		MavenResource mavenResource = mock(MavenResource.class);
-		when(mavenResource.getFile()).thenReturn(new ClassPathResource("test-app-1.0-SNAPSHOT.jar").getFile());
-		when(mavenResourceResolver.resolveUri("io.switchbit:test-app:1.0.0"))
-			.thenReturn(mavenResource);
+		File file = new ClassPathResource("test-app-1.0-SNAPSHOT.jar").getFile();
+		when(mavenResourceResolver.resolveFile("io.switchbit:test-app:1.0.0"))
+			.thenReturn(file);
 
 		this.mvc.perform(get("/resources/maven/io.switchbit/test-app-1.0.0.jar"))
-			.andExpect(status().isOk());
+			.andExpect(status().isOk())
+			.andExpect(content().bytes(Files.readAllBytes(file.toPath())));
 	}
 
 	@Test
 	public void testStreamingExecClassifier() throws Exception {
-		MavenResource mavenResource = mock(MavenResource.class);
-		when(mavenResource.getFile()).thenReturn(new ClassPathResource("test-app-1.0-SNAPSHOT.jar").getFile());
-		when(mavenResourceResolver.resolveUri("org.springframework.cloud:spring-cloud-deployer-spi-test-app:jar:exec:1.1.1.RELEASE"))
-			.thenReturn(mavenResource);
+		File file = new ClassPathResource("test-app-1.0-SNAPSHOT.jar").getFile();
+		when(mavenResourceResolver.resolveFile("org.springframework.cloud:spring-cloud-deployer-spi-test-app:jar:exec:1.1.1.RELEASE"))
+			.thenReturn(file);
 
 		this.mvc.perform(get("/resources/maven/org.springframework.cloud/spring-cloud-deployer-spi-test-app-1.1.1.RELEASE-exec.jar"))
 			.andExpect(status().isOk());
 	}
 
+	@Test
+	public void testStreamingRange() throws Exception {
+		File file = new ClassPathResource("test-app-1.0-SNAPSHOT.jar").getFile();
+		when(mavenResourceResolver.resolveFile("io.switchbit:test-app:1.0.0")).thenReturn(file);
+
+		byte[] bytes = Files.readAllBytes(file.toPath());
+		this.mvc.perform(get("/resources/maven/io.switchbit/test-app-1.0.0.jar").header(HttpHeaders.RANGE, "bytes=10-"))
+			.andExpect(status().isPartialContent())
+			.andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+			.andExpect(header().string(HttpHeaders.CONTENT_RANGE,
+					String.format("bytes 10-%d/%d", bytes.length - 1, bytes.length)))
+			.andExpect(content().bytes(Arrays.copyOfRange(bytes, 10, bytes.length)));
+
+		this.mvc.perform(get("/resources/maven/io.switchbit/test-app-1.0.0.jar")
+				.header(HttpHeaders.RANGE, String.format("bytes=%d-", bytes.length)))
+			.andExpect(status().isRequestedRangeNotSatisfiable());
+
+		// a stale If-Range validator gets the full file
+		this.mvc.perform(get("/resources/maven/io.switchbit/test-app-1.0.0.jar")
+				.header(HttpHeaders.RANGE, "bytes=10-")
+				.header(HttpHeaders.IF_RANGE, "Thu, 01 Jan 1970 00:00:00 GMT"))
+			.andExpect(status().isOk())
+			.andExpect(content().bytes(bytes));
+	}
+
+	@Test(timeout = 10000)
+	public void testTransferTruncatedFile() throws Exception {
+		File file = temporaryFolder.newFile("test-app-1.0.0-SNAPSHOT.jar");
+		Files.write(file.toPath(), new byte[64 * 1024]);
+		HttpServletResponse response = mock(HttpServletResponse.class);
+		when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+
+			@Override
+			public void write(int b) throws IOException {
+				write(new byte[] { (byte) b }, 0, 1);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				// the SNAPSHOT is resolved again, over the file being transferred
+				try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+					channel.truncate(1024);
+				}
+			}
+
+			@Override
+			public boolean isReady() {
+				return true;
+			}
+
+			@Override
+			public void setWriteListener(WriteListener writeListener) {
+			}
+		});
+
+		try {
+			mavenResourceController.transfer(file, 0, file.length(), new MockHttpServletRequest(), response);
+			fail("Expected the truncated transfer to fail");
+		}
+		catch (EOFException e) {
+			assertThat(e).hasMessageContaining("was truncated");
+		}
+	}
+
+	@Test
+	public void testStreamingNotModified() throws Exception {
+		File file = new ClassPathResource("test-app-1.0-SNAPSHOT.jar").getFile();
+		when(mavenResourceResolver.resolveFile("io.switchbit:test-app:1.0.0")).thenReturn(file);
+
+		String etag = String.format("\"%s\"", DigestUtils.md5Hex(Files.readAllBytes(file.toPath())));
+		this.mvc.perform(get("/resources/maven/io.switchbit/test-app-1.0.0.jar"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, etag))
+			.andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, file.lastModified() / 1000 * 1000));
+
+		this.mvc.perform(get("/resources/maven/io.switchbit/test-app-1.0.0.jar").header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified());
+
+		this.mvc.perform(get("/resources/maven/io.switchbit/test-app-1.0.0.jar").header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+			.andExpect(status().isOk());
+
+		this.mvc.perform(get("/resources/maven/io.switchbit/test-app-1.0.0.jar")
+				.header(HttpHeaders.IF_MODIFIED_SINCE, file.lastModified()))
+			.andExpect(status().isNotModified());
+	}
+
+	@Test
+	public void testDownloadMetrics() throws Exception {
+		File file = new ClassPathResource("test-app-1.0-SNAPSHOT.jar").getFile();
+		when(mavenResourceResolver.resolveFile("io.switchbit:test-app:2.0.0")).thenReturn(file);
+
+		double bytes = downloadedBytes(false);
+		this.mvc.perform(get("/resources/maven/io.switchbit/test-app-2.0.0.jar"))
+			.andExpect(status().isOk());
+
+		assertThat(meterRegistry.get("nomad.artifact.downloads").tag("status", "200").timer().count())
+			.isGreaterThan(0);
+		assertThat(downloadedBytes(false) - bytes).isEqualTo(file.length());
+	}
+
+	@Test
+	public void testMetricsPublishedToMeterRegistry() {
+		assertThat(nomadMetrics).isInstanceOf(MicrometerNomadMetrics.class);
+	}
+
+	@Test
+	public void testSendfileDownloadMetrics() throws Exception {
+		File file = new ClassPathResource("test-app-1.0-SNAPSHOT.jar").getFile();
+		when(mavenResourceResolver.resolveFile("io.switchbit:test-app:3.0.0")).thenReturn(file);
+
+		Timer timer = meterRegistry.find("nomad.artifact.downloads").tag("status", "200").timer();
+		long timed = timer != null ? timer.count() : 0;
+		double bytes = downloadedBytes(true);
+		this.mvc.perform(get("/resources/maven/io.switchbit/test-app-3.0.0.jar")
+				.requestAttr("org.apache.tomcat.sendfile.support", true))
+			.andExpect(status().isOk())
+			.andExpect(request().attribute("org.apache.tomcat.sendfile.filename", file.getAbsolutePath()));
+
+		// the container writes the file after the request has been handled, so it is not timed
+		timer = meterRegistry.find("nomad.artifact.downloads").tag("status", "200").timer();
+		assertThat(timer != null ? timer.count() : 0).isEqualTo(timed);
+		assertThat(downloadedBytes(true) - bytes).isEqualTo(file.length());
+	}
+
+	private double downloadedBytes(boolean sendfile) {
+		DistributionSummary downloaded = meterRegistry.find("nomad.artifact.download.bytes").tag("status", "200")
+				.tag("sendfile", String.valueOf(sendfile)).summary();
+		return downloaded != null ? downloaded.totalAmount() : 0;
+	}
+
 	@SpringBootApplication
 	public static class Config {
 
 		@Bean
-		public MavenResourceController mavenResourceController(MavenResourceResolver mavenResourceResolver) {
-			return new MavenResourceController(mavenResourceResolver);
+		public MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+
+		@Bean
+		public MavenResourceController mavenResourceController(MavenResourceResolver mavenResourceResolver,
+				MeterRegistry meterRegistry) {
+			return new MavenResourceController(mavenResourceResolver, new MicrometerNomadMetrics(meterRegistry));
 		}
 	}
 }
@@ -0,0 +1,107 @@
+package org.springframework.cloud.deployer.spi.nomad.maven;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.cloud.deployer.resource.maven.MavenProperties;
+import org.springframework.cloud.deployer.resource.maven.MavenResource;
+
+public class MavenResourceResolverTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private Map<String, Integer> resolutions;
+
+	@Before
+	public void setup() {
+		resolutions = new HashMap<>();
+	}
+
+	@Test
+	public void testResolveFileCached() throws IOException {
+		MavenResourceResolver resolver = resolver(256, 60000L);
+
+		File file = resolver.resolveFile("maven://org.springframework.cloud:test-app:1.0.0");
+
+		assertThat(resolver.resolveFile("maven://org.springframework.cloud:test-app:1.0.0")).isEqualTo(file);
+		assertThat(resolutions.get("maven://org.springframework.cloud:test-app:1.0.0")).isEqualTo(1);
+	}
+
+	@Test
+	public void testResolveFileEvicted() throws IOException {
+		MavenResourceResolver resolver = resolver(1, 60000L);
+
+		resolver.resolveFile("maven://org.springframework.cloud:test-app:1.0.0");
+		resolver.resolveFile("maven://org.springframework.cloud:other-app:1.0.0");
+		resolver.resolveFile("maven://org.springframework.cloud:test-app:1.0.0");
+
+		assertThat(resolutions.get("maven://org.springframework.cloud:test-app:1.0.0")).isEqualTo(2);
+		assertThat(resolutions.get("maven://org.springframework.cloud:other-app:1.0.0")).isEqualTo(1);
+	}
+
+	@Test
+	public void testResolveFileSnapshotExpired() throws Exception {
+		MavenResourceResolver resolver = resolver(256, 50L);
+
+		resolver.resolveFile("maven://org.springframework.cloud:test-app:1.0.0-SNAPSHOT");
+		resolver.resolveFile("maven://org.springframework.cloud:test-app:1.0.0-SNAPSHOT");
+		assertThat(resolutions.get("maven://org.springframework.cloud:test-app:1.0.0-SNAPSHOT")).isEqualTo(1);
+
+		Thread.sleep(100);
+		resolver.resolveFile("maven://org.springframework.cloud:test-app:1.0.0-SNAPSHOT");
+		assertThat(resolutions.get("maven://org.springframework.cloud:test-app:1.0.0-SNAPSHOT")).isEqualTo(2);
+
+		// release artifacts do not expire
+		resolver.resolveFile("maven://org.springframework.cloud:test-app:1.0.0");
+		Thread.sleep(100);
+		resolver.resolveFile("maven://org.springframework.cloud:test-app:1.0.0");
+		assertThat(resolutions.get("maven://org.springframework.cloud:test-app:1.0.0")).isEqualTo(1);
+	}
+
+	@Test
+	public void testResolveFileDeleted() throws IOException {
+		MavenResourceResolver resolver = resolver(256, 60000L);
+
+		File file = resolver.resolveFile("maven://org.springframework.cloud:test-app:1.0.0");
+		assertThat(file.delete()).isTrue();
+
+		File resolved = resolver.resolveFile("maven://org.springframework.cloud:test-app:1.0.0");
+		assertThat(resolved).exists();
+		assertThat(resolutions.get("maven://org.springframework.cloud:test-app:1.0.0")).isEqualTo(2);
+	}
+
+	/**
+	 * A resolver that "downloads" artifacts into a temporary folder, counting resolutions per URI.
+	 */
+	private MavenResourceResolver resolver(int maxEntries, long snapshotTtl) {
+		return new MavenResourceResolver(new MavenProperties(), maxEntries, snapshotTtl) {
+			@Override
+			public MavenResource resolveUri(String uri) {
+				MavenResource resource = spy(super.resolveUri(uri));
+				try {
+					File file = new File(temporaryFolder.getRoot(), resource.getFilename());
+					if (!file.exists()) {
+						assertThat(file.createNewFile()).isTrue();
+					}
+					doReturn(file).when(resource).getFile();
+				}
+				catch (IOException e) {
+					throw new IllegalStateException(e);
+				}
+				resolutions.merge(uri, 1, Integer::sum);
+				return resource;
+			}
+		};
+	}
+}
@@ -2,11 +2,31 @@ package org.springframework.cloud.deployer.spi.nomad.maven;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
 
 public class ResourceChecksumTest {
 
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 	/**
 	 * Verify this test by running the following in the <code>src/main/test/resources</code>
 	 * directory:
@@ -22,4 +42,76 @@ public class ResourceChecksumTest {
 
 		assertThat(checksum).isEqualTo("40968ae82c5cee65930aca062b16fc0e");
 	}
+
+	@Test
+	public void testChecksumCachedByFileIdentity() throws IOException {
+		File file = temporaryFolder.newFile("app.jar");
+		Files.write(file.toPath(), "first".getBytes());
+		file.setLastModified(1000L);
+
+		ResourceChecksum resourceChecksum = new ResourceChecksum();
+		String checksum = resourceChecksum.generateMD5Checksum(new FileSystemResource(file));
+
+		// same path, size and modified time is served from the cache
+		Files.write(file.toPath(), "other".getBytes());
+		file.setLastModified(1000L);
+		assertThat(resourceChecksum.generateMD5Checksum(new FileSystemResource(file))).isEqualTo(checksum);
+
+		file.setLastModified(2000L);
+		assertThat(resourceChecksum.generateMD5Checksum(new FileSystemResource(file)))
+				.isEqualTo(DigestUtils.md5Hex("other"));
+	}
+
+	@Test
+	public void testChecksumGeneratedOnceForConcurrentRequests() throws Exception {
+		File file = temporaryFolder.newFile("app.jar");
+		Files.write(file.toPath(), "concurrent".getBytes());
+
+		AtomicInteger hashed = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		ResourceChecksum resourceChecksum = new ResourceChecksum() {
+			@Override
+			protected String md5Hex(File file) throws IOException {
+				hashed.incrementAndGet();
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return super.md5Hex(file);
+			}
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<String>> checksums = IntStream.range(0, 4)
+					.mapToObj(i -> executor.submit(
+							() -> resourceChecksum.generateMD5Checksum(new FileSystemResource(file))))
+					.collect(Collectors.toList());
+			Thread.sleep(200);
+			release.countDown();
+
+			for (Future<String> checksum : checksums) {
+				assertThat(checksum.get(5, TimeUnit.SECONDS)).isEqualTo(DigestUtils.md5Hex("concurrent"));
+			}
+			assertThat(hashed.get()).isEqualTo(1);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testChecksumCachedPerInstance() throws IOException {
+		File file = temporaryFolder.newFile("app.jar");
+		Files.write(file.toPath(), "first".getBytes());
+		file.setLastModified(1000L);
+		new ResourceChecksum().generateMD5Checksum(new FileSystemResource(file));
+
+		Files.write(file.toPath(), "other".getBytes());
+		file.setLastModified(1000L);
+		assertThat(new ResourceChecksum().generateMD5Checksum(new FileSystemResource(file)))
+				.isEqualTo(DigestUtils.md5Hex("other"));
+	}
 }
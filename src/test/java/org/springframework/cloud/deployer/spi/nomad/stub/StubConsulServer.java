@@ -0,0 +1,77 @@
+package org.springframework.cloud.deployer.spi.nomad.stub;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process fake of the Consul health API endpoints used by the deployer
+ * (<code>/v1/health/checks/:service</code> and <code>/v1/health/state/any</code>). Every service
+ * registered by a <code>running</code> allocation of the {@link StubNomadServer} has a single
+ * health check, which is <code>passing</code> unless configured otherwise. The
+ * <code>X-Consul-Index</code> follows the Nomad index, so blocking queries observe allocation
+ * changes.
+ *
+ * @author Donovan Muller
+ */
+public class StubConsulServer extends StubHttpServer {
+
+	private static final long DEFAULT_WAIT = TimeUnit.MINUTES.toMillis(5);
+
+	private final StubNomadServer nomad;
+
+	private final Map<String, String> checkStatuses = new ConcurrentHashMap<>();
+
+	public StubConsulServer(StubNomadServer nomad) {
+		super("stub-consul");
+		this.nomad = nomad;
+
+		route("GET", "/v1/health/checks/{service}", request -> indexed(nomad.getIndex(),
+				getChecks().stream().filter(check -> check.get("ServiceName").equals(request.getVariable("service")))
+						.collect(toList())));
+		route("GET", "/v1/health/state/{state}", request -> {
+			long requestIndex = request.getLongParameter("index", 0);
+			long index = requestIndex > 0
+					? nomad.awaitIndex(requestIndex, parseWait(request.getParameter("wait"), DEFAULT_WAIT))
+					: nomad.getIndex();
+			String state = request.getVariable("state");
+			return indexed(index, getChecks().stream()
+					.filter(check -> state.equals("any") || check.get("Status").equals(state))
+					.collect(toList()));
+		});
+	}
+
+	/**
+	 * Set the status of the health check of a service, e.g. <code>critical</code>.
+	 */
+	public void setCheckStatus(String service, String status) {
+		checkStatuses.put(service, status);
+		nomad.changed();
+	}
+
+	private List<Map<String, Object>> getChecks() {
+		return nomad.getServices().entrySet().stream().map(service -> {
+			Map<String, Object> check = new LinkedHashMap<>();
+			check.put("Node", service.getValue());
+			check.put("CheckID", String.format("service:%s", service.getKey()));
+			check.put("Name", String.format("Service '%s' check", service.getKey()));
+			check.put("Status", checkStatuses.getOrDefault(service.getKey(), "passing"));
+			check.put("Notes", "");
+			check.put("Output", "HTTP GET: 200 OK");
+			check.put("ServiceID", service.getKey());
+			check.put("ServiceName", service.getKey());
+			return check;
+		}).collect(toList());
+	}
+
+	private Response indexed(long index, Object body) {
+		return Response.ok(body)
+				.header("X-Consul-Index", index)
+				.header("X-Consul-Knownleader", true)
+				.header("X-Consul-Lastcontact", 0);
+	}
+}
@@ -0,0 +1,360 @@
+package org.springframework.cloud.deployer.spi.nomad.stub;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApiFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.StreamUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * In-process HTTP server that serves JSON routes, used to stub the Nomad and Consul HTTP APIs.
+ * Every request is delayed by the configured latency (plus a random jitter) and counted per route,
+ * e.g. <code>GET /v1/job/{id}</code>.
+ *
+ * @author Donovan Muller
+ */
+public abstract class StubHttpServer implements Closeable {
+
+	private static final Pattern VARIABLE = Pattern.compile("\\{[^/]+}");
+
+	private final String name;
+	private final List<Route> routes = new ArrayList<>();
+	private final Map<String, LongAdder> requestCounts = new ConcurrentHashMap<>();
+	private final ObjectMapper objectMapper = NomadApiFactory.objectMapper();
+
+	private HttpServer server;
+	private ExecutorService executor;
+
+	private volatile long latency;
+	private volatile long latencyJitter;
+
+	/**
+	 * @param name used to name the threads serving requests
+	 */
+	protected StubHttpServer(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Start serving on a random loopback port.
+	 */
+	public synchronized void start() {
+		if (server != null) {
+			return;
+		}
+
+		// without TCP_NODELAY small responses can be held back by delayed ACKs, adding ~40ms to requests
+		if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+			System.setProperty("sun.net.httpserver.nodelay", "true");
+		}
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(name + "-");
+		threadFactory.setDaemon(true);
+		executor = Executors.newCachedThreadPool(threadFactory);
+		try {
+			server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 128);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		server.setExecutor(executor);
+		server.createContext("/", this::handle);
+		server.start();
+	}
+
+	@Override
+	public synchronized void close() {
+		if (server != null) {
+			server.stop(0);
+			executor.shutdownNow();
+			server = null;
+		}
+	}
+
+	public String getHost() {
+		return server.getAddress().getHostString();
+	}
+
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * @param latency the time (in milliseconds) every request is delayed by before it is served
+	 */
+	public void setLatency(long latency) {
+		this.latency = latency;
+	}
+
+	/**
+	 * @param latencyJitter the maximum random time (in milliseconds) added to the latency
+	 */
+	public void setLatencyJitter(long latencyJitter) {
+		this.latencyJitter = latencyJitter;
+	}
+
+	/**
+	 * The number of requests served, keyed by route, e.g. <code>GET /v1/job/{id}</code>. Requests
+	 * that matched no route are counted as <code>{method} *</code>.
+	 */
+	public Map<String, Long> getRequestCounts() {
+		Map<String, Long> counts = new TreeMap<>();
+		requestCounts.forEach((route, count) -> counts.put(route, count.sum()));
+		return counts;
+	}
+
+	public long getRequestCount(String route) {
+		LongAdder count = requestCounts.get(route);
+		return count != null ? count.sum() : 0;
+	}
+
+	public void resetRequestCounts() {
+		requestCounts.clear();
+	}
+
+	/**
+	 * Register a route. Path variables, e.g. <code>/v1/job/{id}</code>, are available with
+	 * {@link Request#getVariable(String)}. Like the Nomad HTTP API, which allows Job ids containing
+	 * slashes (e.g. dispatched Jobs), a variable can span several path segments. Routes are matched
+	 * in the order they are registered, so more specific routes must be registered first.
+	 */
+	protected void route(String method, String path, Handler handler) {
+		routes.add(new Route(method, path, handler));
+	}
+
+	protected ObjectMapper getObjectMapper() {
+		return objectMapper;
+	}
+
+	/**
+	 * Parse a blocking query <code>wait</code> parameter, e.g. <code>500ms</code>, <code>5s</code> or
+	 * <code>1m</code>.
+	 *
+	 * @return the wait time in milliseconds
+	 */
+	protected static long parseWait(String wait, long defaultWait) {
+		if (wait == null || wait.isEmpty()) {
+			return defaultWait;
+		}
+		if (wait.endsWith("ms")) {
+			return Long.parseLong(wait.substring(0, wait.length() - 2));
+		}
+		if (wait.endsWith("s")) {
+			return TimeUnit.SECONDS.toMillis(Long.parseLong(wait.substring(0, wait.length() - 1)));
+		}
+		if (wait.endsWith("m")) {
+			return TimeUnit.MINUTES.toMillis(Long.parseLong(wait.substring(0, wait.length() - 1)));
+		}
+		return Long.parseLong(wait);
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			String method = exchange.getRequestMethod();
+			String path = exchange.getRequestURI().getRawPath();
+			for (Route route : routes) {
+				Map<String, String> variables = route.match(method, path);
+				if (variables != null) {
+					count(route.toString());
+					delay();
+					Request request = new Request(variables, parseQuery(exchange.getRequestURI().getRawQuery()),
+							readBody(exchange.getRequestBody()));
+					write(exchange, route.handler.handle(request));
+					return;
+				}
+			}
+
+			count(method + " *");
+			delay();
+			write(exchange, Response.status(404));
+		}
+		catch (Exception e) {
+			write(exchange, Response.status(500).body(Collections.singletonMap("Error", String.valueOf(e))));
+		}
+		finally {
+			exchange.close();
+		}
+	}
+
+	private void count(String route) {
+		requestCounts.computeIfAbsent(route, key -> new LongAdder()).increment();
+	}
+
+	private void delay() throws InterruptedException {
+		long delay = latency + (latencyJitter > 0 ? ThreadLocalRandom.current().nextLong(latencyJitter + 1) : 0);
+		if (delay > 0) {
+			TimeUnit.MILLISECONDS.sleep(delay);
+		}
+	}
+
+	private JsonNode readBody(InputStream body) throws IOException {
+		byte[] bytes = StreamUtils.copyToByteArray(body);
+		return bytes.length > 0 ? objectMapper.readTree(bytes) : null;
+	}
+
+	private void write(HttpExchange exchange, Response response) throws IOException {
+		response.headers.forEach((header, value) -> exchange.getResponseHeaders().set(header, value));
+		if (response.body == null) {
+			exchange.sendResponseHeaders(response.status, -1);
+			return;
+		}
+
+		byte[] body = objectMapper.writeValueAsBytes(response.body);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(response.status, body.length);
+		try (OutputStream outputStream = exchange.getResponseBody()) {
+			outputStream.write(body);
+		}
+	}
+
+	private static Map<String, String> parseQuery(String query) throws IOException {
+		Map<String, String> parameters = new HashMap<>();
+		if (query == null) {
+			return parameters;
+		}
+		for (String parameter : query.split("&")) {
+			String[] keyValue = parameter.split("=", 2);
+			parameters.put(URLDecoder.decode(keyValue[0], StandardCharsets.UTF_8.name()),
+					keyValue.length > 1 ? URLDecoder.decode(keyValue[1], StandardCharsets.UTF_8.name()) : "");
+		}
+		return parameters;
+	}
+
+	@FunctionalInterface
+	protected interface Handler {
+
+		Response handle(Request request) throws Exception;
+	}
+
+	protected static class Request {
+
+		private final Map<String, String> variables;
+		private final Map<String, String> parameters;
+		private final JsonNode body;
+
+		Request(Map<String, String> variables, Map<String, String> parameters, JsonNode body) {
+			this.variables = variables;
+			this.parameters = parameters;
+			this.body = body;
+		}
+
+		public String getVariable(String name) {
+			return variables.get(name);
+		}
+
+		public String getParameter(String name) {
+			return parameters.get(name);
+		}
+
+		public long getLongParameter(String name, long defaultValue) {
+			String value = parameters.get(name);
+			return value != null && !value.isEmpty() ? Long.parseLong(value) : defaultValue;
+		}
+
+		public JsonNode getBody() {
+			return body;
+		}
+	}
+
+	protected static class Response {
+
+		private final int status;
+		private final Map<String, String> headers = new LinkedHashMap<>();
+		private Object body;
+
+		private Response(int status) {
+			this.status = status;
+		}
+
+		public static Response ok(Object body) {
+			return new Response(200).body(body);
+		}
+
+		public static Response status(int status) {
+			return new Response(status);
+		}
+
+		public Response body(Object body) {
+			this.body = body;
+			return this;
+		}
+
+		public Response header(String name, Object value) {
+			headers.put(name, String.valueOf(value));
+			return this;
+		}
+	}
+
+	private static class Route {
+
+		private final String method;
+		private final String path;
+		private final Pattern pattern;
+		private final List<String> variables = new ArrayList<>();
+		private final Handler handler;
+
+		Route(String method, String path, Handler handler) {
+			this.method = method;
+			this.path = path;
+			this.handler = handler;
+
+			Matcher matcher = VARIABLE.matcher(path);
+			StringBuffer regex = new StringBuffer("^");
+			int end = 0;
+			while (matcher.find()) {
+				regex.append(Pattern.quote(path.substring(end, matcher.start()))).append("(.+)");
+				variables.add(matcher.group().substring(1, matcher.group().length() - 1));
+				end = matcher.end();
+			}
+			regex.append(Pattern.quote(path.substring(end))).append("$");
+			this.pattern = Pattern.compile(regex.toString());
+		}
+
+		Map<String, String> match(String method, String path) throws IOException {
+			if (!this.method.equals(method)) {
+				return null;
+			}
+			Matcher matcher = pattern.matcher(path);
+			if (!matcher.matches()) {
+				return null;
+			}
+			Map<String, String> values = new HashMap<>();
+			for (int i = 0; i < variables.size(); i++) {
+				values.put(variables.get(i), URLDecoder.decode(matcher.group(i + 1), StandardCharsets.UTF_8.name()));
+			}
+			return values;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s %s", method, path);
+		}
+	}
+}
@@ -0,0 +1,686 @@
+package org.springframework.cloud.deployer.spi.nomad.stub;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.cloud.deployer.spi.nomad.client.JobDispatchResponse;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.github.zanella.nomad.v1.agent.models.Members;
+import io.github.zanella.nomad.v1.agent.models.Self;
+import io.github.zanella.nomad.v1.common.models.Job;
+import io.github.zanella.nomad.v1.jobs.models.JobAllocation;
+import io.github.zanella.nomad.v1.jobs.models.JobEvalResult;
+import io.github.zanella.nomad.v1.jobs.models.JobSummary;
+import io.github.zanella.nomad.v1.nodes.models.NodeAllocation;
+import io.github.zanella.nomad.v1.nodes.models.NodeInfo;
+import io.github.zanella.nomad.v1.nodes.models.NodeSummary;
+import io.github.zanella.nomad.v1.nodes.models.Resources;
+import io.github.zanella.nomad.v1.nodes.models.Service;
+import io.github.zanella.nomad.v1.nodes.models.Task;
+import io.github.zanella.nomad.v1.nodes.models.TaskGroup;
+
+/**
+ * In-process fake of the Nomad HTTP API endpoints used by the deployer: Job registration (with
+ * check-and-set), plans, lookup, deregistration and dispatch, Job allocations, allocations,
+ * evaluations, deployments, nodes and agent members. State is kept in
+ * memory and every change increments the <code>X-Nomad-Index</code>, so that
+ * <a href="https://www.nomadproject.io/docs/http/index.html#blocking-queries">blocking
+ * queries</a> behave as they would against a Nomad server.
+ * <p>
+ * Allocations are created as soon as a Job is registered, one per TaskGroup <code>count</code>,
+ * spread across the client nodes of the simulated cluster, and are immediately
+ * <code>running</code>, see {@link #setBatchClientStatus(String)} for batch Jobs. Re-registering a Job only replaces the allocations of TaskGroups that
+ * changed, a changed <code>count</code> places or stops the difference. Deregistered Jobs are
+ * purged.
+ * <p>
+ * Every registration creates a <code>complete</code> evaluation. Registering a Job with an update
+ * stanza also starts a deployment, which succeeds once <code>MinHealthyTime</code> has elapsed,
+ * unless it places canaries, in which case it waits for a promotion that never comes. See
+ * {@link #setExhaustedDimension(String)} to simulate allocations that cannot be placed.
+ *
+ * @author Donovan Muller
+ */
+public class StubNomadServer extends StubHttpServer {
+
+	static final String NOMAD_INDEX_HEADER = "X-Nomad-Index";
+
+	private static final long DEFAULT_WAIT = TimeUnit.MINUTES.toMillis(5);
+
+	private final List<String> nodes;
+	private final Set<String> nodesWithoutRawExec = new HashSet<>();
+	private final Map<String, Integer> nodeModifyIndexes = new HashMap<>();
+
+	private final Map<String, Job> jobs = new LinkedHashMap<>();
+	private final Map<String, JsonNode> jobSpecs = new HashMap<>();
+	private final Map<String, Long> jobModifyIndexes = new HashMap<>();
+	private final Map<String, Boolean> parameterizedJobs = new HashMap<>();
+	private final Map<String, List<NodeAllocation>> jobAllocations = new HashMap<>();
+	private final Map<String, NodeAllocation> allocations = new HashMap<>();
+	private final Map<String, Map<String, Object>> evaluations = new HashMap<>();
+	private final Map<String, Map<String, Object>> deployments = new HashMap<>();
+	private final Map<String, String> latestDeployments = new HashMap<>();
+	private final ScheduledExecutorService scheduler;
+
+	private long index = 1;
+	private int placements;
+	private String exhaustedDimension;
+	private String batchClientStatus = "running";
+
+	public StubNomadServer() {
+		this(1);
+	}
+
+	/**
+	 * @param clusterSize the number of nodes in the simulated cluster. Every node is reported as an
+	 * agent member and allocations are placed on the nodes round robin
+	 */
+	public StubNomadServer(int clusterSize) {
+		super("stub-nomad");
+		this.nodes = IntStream.range(0, clusterSize).mapToObj(node -> UUID.randomUUID().toString())
+				.collect(toList());
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("stub-nomad-deployments-");
+		threadFactory.setDaemon(true);
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+
+		route("GET", "/v1/jobs", request -> blocking(request, this::getJobs));
+		route("POST", "/v1/jobs", request -> enforcedRegister(request.getBody()));
+		route("GET", "/v1/job/{id}/allocations",
+				request -> blocking(request, () -> getJobAllocations(request.getVariable("id"))));
+		route("POST", "/v1/job/{id}/plan", request -> Response.ok(plan(request.getBody().get("Job"))));
+		route("POST", "/v1/job/{id}/dispatch",
+				request -> found(dispatch(request.getVariable("id"), request.getBody())));
+		route("GET", "/v1/job/{id}", request -> found(getJob(request.getVariable("id"))));
+		route("DELETE", "/v1/job/{id}", request -> found(deregister(request.getVariable("id"))));
+		route("GET", "/v1/allocations", request -> blocking(request, this::getAllocations));
+		route("GET", "/v1/allocation/{id}", request -> found(getAllocation(request.getVariable("id"))));
+		route("GET", "/v1/evaluation/{id}",
+				request -> blocking(request, () -> evaluations.get(request.getVariable("id"))));
+		route("GET", "/v1/deployment/{id}",
+				request -> blocking(request, () -> deployments.get(request.getVariable("id"))));
+		route("GET", "/v1/nodes", request -> Response.ok(getNodeSummaries()));
+		route("GET", "/v1/node/{id}", request -> found(getNodeInfo(request.getVariable("id"))));
+		route("GET", "/v1/agent/members", request -> Response.ok(getMembers()));
+	}
+
+	@Override
+	public synchronized void close() {
+		super.close();
+		scheduler.shutdownNow();
+	}
+
+	/**
+	 * The current <code>X-Nomad-Index</code>.
+	 */
+	public synchronized long getIndex() {
+		return index;
+	}
+
+	/**
+	 * Wait until the state changes beyond the given index or the wait time elapses.
+	 *
+	 * @return the current index
+	 */
+	public synchronized long awaitIndex(long index, long wait) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + wait;
+		long remaining = wait;
+		while (this.index <= index && remaining > 0) {
+			wait(remaining);
+			remaining = deadline - System.currentTimeMillis();
+		}
+
+		return this.index;
+	}
+
+	/**
+	 * Record a change to the cluster state, waking up blocking queries.
+	 */
+	public synchronized void changed() {
+		index++;
+		notifyAll();
+	}
+
+	/**
+	 * Set the client status of every allocation of a Job, e.g. <code>failed</code> or
+	 * <code>complete</code>.
+	 */
+	public synchronized void setClientStatus(String jobId, String clientStatus) {
+		jobAllocations.getOrDefault(jobId, Collections.emptyList()).forEach(allocation -> {
+			allocation.setClientStatus(clientStatus);
+			allocation.setModifyIndex((int) index + 1);
+		});
+		changed();
+	}
+
+	/**
+	 * Simulate a cluster that is out of a resource: the allocations of Jobs registered afterwards
+	 * are not placed and their evaluations report the dimension as exhausted on every node.
+	 *
+	 * @param exhaustedDimension e.g. <code>memory exhausted</code>, <code>null</code> to place
+	 * allocations again
+	 */
+	public synchronized void setExhaustedDimension(String exhaustedDimension) {
+		this.exhaustedDimension = exhaustedDimension;
+	}
+
+	/**
+	 * Enable or disable the <code>raw_exec</code> driver of a node. Every node has it enabled by
+	 * default. Only the node's attributes and modify index change, allocations are still placed on
+	 * every node.
+	 */
+	public synchronized void setRawExec(String nodeId, boolean enabled) {
+		if (enabled) {
+			nodesWithoutRawExec.remove(nodeId);
+		}
+		else {
+			nodesWithoutRawExec.add(nodeId);
+		}
+		nodeModifyIndexes.put(nodeId, (int) index + 1);
+		changed();
+	}
+
+	/**
+	 * Set the client status the allocations of batch Jobs registered afterwards are created with,
+	 * e.g. <code>complete</code> to simulate Jobs that finish as soon as they are placed. Default is
+	 * <code>running</code>.
+	 */
+	public synchronized void setBatchClientStatus(String batchClientStatus) {
+		this.batchClientStatus = batchClientStatus;
+	}
+
+	/**
+	 * Set the status of the latest deployment of a Job, e.g. <code>failed</code>.
+	 */
+	public synchronized void setDeploymentStatus(String jobId, String status, String statusDescription) {
+		Map<String, Object> deployment = deployments.get(latestDeployments.get(jobId));
+		if (deployment != null) {
+			deployment.put("Status", status);
+			deployment.put("StatusDescription", statusDescription);
+			changed();
+		}
+	}
+
+	/**
+	 * The names of the services registered by <code>running</code> allocations, mapped to the node
+	 * each service is running on.
+	 */
+	public synchronized Map<String, String> getServices() {
+		Map<String, String> services = new LinkedHashMap<>();
+		jobs.values().stream()
+				.flatMap(job -> jobAllocations.getOrDefault(job.getId(), Collections.emptyList()).stream())
+				.filter(allocation -> allocation.getClientStatus().equals("running"))
+				.forEach(allocation -> taskGroup(allocation.getJob(), allocation.getTaskGroup()).getTasks().stream()
+						.filter(task -> task.getServices() != null)
+						.flatMap(task -> task.getServices().stream())
+						.map(Service::getName)
+						.forEach(service -> services.putIfAbsent(service, allocation.getNodeId())));
+
+		return services;
+	}
+
+	public synchronized Map<String, Job> getRegisteredJobs() {
+		return new LinkedHashMap<>(jobs);
+	}
+
+	public List<String> getNodes() {
+		return nodes;
+	}
+
+	private Response blocking(Request request, Supplier<Object> body) throws InterruptedException {
+		long requestIndex = request.getLongParameter("index", 0);
+		if (requestIndex > 0) {
+			awaitIndex(requestIndex, parseWait(request.getParameter("wait"), DEFAULT_WAIT));
+		}
+
+		synchronized (this) {
+			Object value = body.get();
+			return (value != null ? Response.ok(value) : Response.status(404))
+					.header(NOMAD_INDEX_HEADER, index)
+					.header("X-Nomad-LastContact", 0)
+					.header("X-Nomad-KnownLeader", true);
+		}
+	}
+
+	private Response found(Object body) {
+		return body != null ? Response.ok(body) : Response.status(404);
+	}
+
+	private synchronized List<JobSummary> getJobs() {
+		return jobs.values().stream().map(job -> {
+			JobSummary summary = new JobSummary();
+			BeanUtils.copyProperties(job, summary);
+			return summary;
+		}).collect(toList());
+	}
+
+	private synchronized Job getJob(String id) {
+		return jobs.get(id);
+	}
+
+	/**
+	 * Register a Job, enforcing the <code>JobModifyIndex</code> if requested. Like Nomad, a
+	 * conflicting index fails the request.
+	 */
+	private synchronized Response enforcedRegister(JsonNode registration) throws Exception {
+		JsonNode jobNode = registration.get("Job");
+		if (registration.path("EnforceIndex").asBoolean()) {
+			String id = jobNode.get("ID").asText();
+			long current = jobModifyIndexes.getOrDefault(id, 0L);
+			long enforced = registration.path("JobModifyIndex").asLong();
+			if (current != enforced) {
+				return Response.status(500).body(String.format(
+						"Enforcing job modify index %d: job exists with conflicting job modify index: %d", enforced,
+						current));
+			}
+		}
+
+		return Response.ok(register(jobNode));
+	}
+
+	/**
+	 * Plan a Job against the registered Job. The diff is <code>None</code> if the Job is identical to
+	 * the registered Job, unchanged TaskGroups are ignored and changed TaskGroups are destructively
+	 * updated.
+	 */
+	private synchronized Map<String, Object> plan(JsonNode jobNode) throws Exception {
+		JsonNode spec = normalize(jobNode);
+		String id = spec.get("ID").asText();
+		JsonNode registered = jobSpecs.get(id);
+
+		Map<String, JsonNode> registeredGroups = taskGroups(registered);
+		Map<String, Object> desiredUpdates = new LinkedHashMap<>();
+		taskGroups(spec).forEach((name, taskGroup) -> {
+			JsonNode registeredGroup = registeredGroups.remove(name);
+			int count = taskGroup.path("Count").asInt(1);
+			int registeredCount = registeredGroup == null ? 0 : registeredGroup.path("Count").asInt(1);
+			boolean unchanged = taskGroup.equals(registeredGroup);
+			desiredUpdates.put(name, desiredUpdates(unchanged ? count : 0, Math.max(0, count - registeredCount),
+					Math.max(0, registeredCount - count), unchanged ? 0 : Math.min(count, registeredCount)));
+		});
+		registeredGroups.forEach((name, taskGroup) -> desiredUpdates.put(name,
+				desiredUpdates(0, 0, taskGroup.path("Count").asInt(1), 0)));
+
+		Map<String, Object> plan = new LinkedHashMap<>();
+		plan.put("JobModifyIndex", jobModifyIndexes.getOrDefault(id, 0L));
+		plan.put("Diff", Collections.singletonMap("Type",
+				registered == null ? "Added" : spec.equals(registered) ? "None" : "Edited"));
+		plan.put("Annotations", Collections.singletonMap("DesiredTGUpdates", desiredUpdates));
+		plan.put("Warnings", "");
+		return plan;
+	}
+
+	private synchronized JobEvalResult register(JsonNode jobNode) throws Exception {
+		Job job = getObjectMapper().treeToValue(jobNode, Job.class);
+		JsonNode spec = normalize(jobNode);
+		Map<String, JsonNode> previousTaskGroups = taskGroups(jobSpecs.get(job.getId()));
+
+		Job existing = jobs.get(job.getId());
+		index++;
+		jobSpecs.put(job.getId(), spec);
+		jobModifyIndexes.put(job.getId(), index);
+		job.setStatus("running");
+		job.setCreateIndex(existing != null ? existing.getCreateIndex() : (int) index);
+		job.setModifyIndex((int) index);
+		jobs.put(job.getId(), job);
+
+		boolean parameterized = jobNode.hasNonNull("ParameterizedJob");
+		parameterizedJobs.put(job.getId(), parameterized);
+		Map<String, Object> failedAllocations = new LinkedHashMap<>();
+		String deploymentId = null;
+		if (!parameterized && exhaustedDimension != null) {
+			job.getTaskGroups().forEach(taskGroup -> failedAllocations.put(taskGroup.getName(),
+					failedAllocation(taskGroup.getCount() != null ? taskGroup.getCount() : 1)));
+		}
+		else if (!parameterized) {
+			placeAllocations(job, taskGroups(spec), previousTaskGroups);
+			deploymentId = startDeployment(job, spec.path("Update"));
+		}
+		notifyAll();
+
+		return evalResult(job.getId(), deploymentId, failedAllocations);
+	}
+
+	private synchronized JobEvalResult deregister(String id) {
+		if (jobs.remove(id) == null) {
+			return null;
+		}
+
+		jobSpecs.remove(id);
+		jobModifyIndexes.remove(id);
+		parameterizedJobs.remove(id);
+		removeAllocations(id);
+		changed();
+
+		return evalResult(id, null, Collections.emptyMap());
+	}
+
+	private synchronized JobDispatchResponse dispatch(String id, JsonNode dispatchRequest) throws Exception {
+		Job parent = jobs.get(id);
+		if (parent == null || !parameterizedJobs.get(id)) {
+			return null;
+		}
+
+		Job child = getObjectMapper().treeToValue(getObjectMapper().valueToTree(parent), Job.class);
+		String childId = String.format("%s/dispatch-%d-%s", id,
+				TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()), UUID.randomUUID().toString().substring(0, 8));
+		child.setId(childId);
+		child.setName(childId);
+		Map<String, String> meta = new HashMap<>(parent.getMeta() != null ? parent.getMeta() : Collections.emptyMap());
+		if (dispatchRequest != null && dispatchRequest.hasNonNull("Meta")) {
+			dispatchRequest.get("Meta").fields()
+					.forEachRemaining(field -> meta.put(field.getKey(), field.getValue().asText()));
+		}
+		child.setMeta(meta);
+
+		JobEvalResult evalResult = register(getObjectMapper().valueToTree(child));
+		JobDispatchResponse response = new JobDispatchResponse();
+		response.setDispatchedJobId(childId);
+		response.setEvalId(evalResult.getEvalID());
+		response.setEvalCreateIndex(index);
+		response.setJobCreateIndex(index);
+		response.setIndex(index);
+		return response;
+	}
+
+	private synchronized List<JobAllocation> getJobAllocations(String jobId) {
+		return jobAllocations.getOrDefault(jobId, Collections.emptyList()).stream()
+				.map(this::toJobAllocation)
+				.collect(toList());
+	}
+
+	private synchronized List<JobAllocation> getAllocations() {
+		return jobAllocations.values().stream()
+				.flatMap(List::stream)
+				.map(this::toJobAllocation)
+				.collect(toList());
+	}
+
+	private synchronized NodeAllocation getAllocation(String id) {
+		return allocations.get(id);
+	}
+
+	private synchronized List<NodeSummary> getNodeSummaries() {
+		return nodes.stream().map(id -> {
+			NodeSummary node = new NodeSummary();
+			node.setId(id);
+			node.setName(String.format("nomad-%d", nodes.indexOf(id)));
+			node.setDatacenter("dc1");
+			node.setStatus("ready");
+			node.setDrain(false);
+			node.setModifyIndex(nodeModifyIndexes.getOrDefault(id, 1));
+			return node;
+		}).collect(toList());
+	}
+
+	private synchronized NodeInfo getNodeInfo(String id) {
+		return getNodeSummaries().stream().filter(summary -> summary.getId().equals(id)).findFirst()
+				.map(summary -> {
+					NodeInfo node = new NodeInfo();
+					BeanUtils.copyProperties(summary, node);
+					node.setAttributes(nodesWithoutRawExec.contains(id) ? Collections.emptyMap()
+							: Collections.singletonMap("driver.raw_exec", "1"));
+					return node;
+				}).orElse(null);
+	}
+
+	private Members getMembers() {
+		List<Self.Member> members = new ArrayList<>();
+		for (int node = 0; node < nodes.size(); node++) {
+			Map<String, String> tags = new HashMap<>();
+			tags.put("build", "0.5.6");
+			tags.put("region", "global");
+			tags.put("dc", "dc1");
+			Self.Member member = new Self.Member();
+			member.setName(String.format("nomad-%d.global", node));
+			member.setAddr(String.format("10.0.0.%d", node + 1));
+			member.setPort(4648);
+			member.setStatus("alive");
+			member.setTags(tags);
+			members.add(member);
+		}
+
+		Members result = new Members();
+		result.setServerName("nomad-0");
+		result.setServerRegion("global");
+		result.setServerDc("dc1");
+		result.setMember(members);
+		return result;
+	}
+
+	/**
+	 * Place the allocations of every TaskGroup. The allocations of a TaskGroup that is unchanged,
+	 * apart from its count, are kept.
+	 */
+	private void placeAllocations(Job job, Map<String, JsonNode> taskGroups,
+			Map<String, JsonNode> previousTaskGroups) {
+		Map<String, NodeAllocation> previous = new HashMap<>();
+		jobAllocations.getOrDefault(job.getId(), Collections.emptyList())
+				.forEach(allocation -> previous.put(allocation.getName(), allocation));
+
+		List<NodeAllocation> placed = new ArrayList<>();
+		String evalId = UUID.randomUUID().toString();
+		for (TaskGroup taskGroup : job.getTaskGroups() != null ? job.getTaskGroups()
+				: Collections.<TaskGroup> emptyList()) {
+			boolean unchanged = withoutCount(taskGroups.get(taskGroup.getName()))
+					.equals(withoutCount(previousTaskGroups.get(taskGroup.getName())));
+			int count = taskGroup.getCount() != null ? taskGroup.getCount() : 1;
+			for (int instance = 0; instance < count; instance++) {
+				String name = String.format("%s.%s[%d]", job.getName(), taskGroup.getName(), instance);
+				NodeAllocation kept = unchanged ? previous.remove(name) : null;
+				if (kept != null) {
+					kept.setJob(job);
+					placed.add(kept);
+					continue;
+				}
+
+				int node = placements++ % nodes.size();
+				NodeAllocation allocation = new NodeAllocation();
+				allocation.setId(UUID.randomUUID().toString());
+				allocation.setEvalId(evalId);
+				allocation.setName(name);
+				allocation.setNodeId(nodes.get(node));
+				allocation.setJobId(job.getId());
+				allocation.setTaskGroup(taskGroup.getName());
+				allocation.setDesiredStatus("run");
+				allocation.setClientStatus("batch".equals(job.getType()) ? batchClientStatus : "running");
+				allocation.setCreateIndex((int) index);
+				allocation.setModifyIndex((int) index);
+				allocation.setCreateTime(TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()));
+				allocation.setJob(job);
+				allocation.setResources(resources(taskGroup, node));
+				placed.add(allocation);
+				allocations.put(allocation.getId(), allocation);
+			}
+		}
+		previous.values().forEach(allocation -> allocations.remove(allocation.getId()));
+		jobAllocations.put(job.getId(), placed);
+	}
+
+	private JsonNode withoutCount(JsonNode taskGroup) {
+		if (taskGroup == null) {
+			return NullNode.getInstance();
+		}
+		ObjectNode copy = taskGroup.deepCopy();
+		copy.remove("Count");
+		return copy;
+	}
+
+	private void removeAllocations(String jobId) {
+		jobAllocations.getOrDefault(jobId, Collections.emptyList())
+				.forEach(allocation -> allocations.remove(allocation.getId()));
+		jobAllocations.remove(jobId);
+	}
+
+	/**
+	 * The resources of the TaskGroup's tasks, as Nomad would assign them on the node, i.e. with an
+	 * IP and a value for every dynamic port.
+	 */
+	private Resources resources(TaskGroup taskGroup, int node) {
+		Resources resources = new Resources(0, 0, 300, 0, new ArrayList<>());
+		for (Task task : taskGroup.getTasks() != null ? taskGroup.getTasks() : Collections.<Task> emptyList()) {
+			Resources taskResources = task.getResources();
+			if (taskResources == null) {
+				continue;
+			}
+			resources.setCpu(resources.getCpu() + (taskResources.getCpu() != null ? taskResources.getCpu() : 0));
+			resources.setMemoryMB(resources.getMemoryMB()
+					+ (taskResources.getMemoryMB() != null ? taskResources.getMemoryMB() : 0));
+			if (taskResources.getNetworks() != null) {
+				taskResources.getNetworks().forEach(network -> {
+					Resources.Network assigned = new Resources.Network();
+					assigned.setIp(String.format("10.0.0.%d", node + 1));
+					assigned.setDevice("eth0");
+					assigned.setMBits(network.getMBits());
+					assigned.setDynamicPorts(network.getDynamicPorts() == null ? new ArrayList<>()
+							: network.getDynamicPorts().stream()
+									.map(port -> new Resources.Network.DynamicPort(20000 + placements, port.getLabel()))
+									.collect(toList()));
+					resources.getNetworks().add(assigned);
+				});
+			}
+		}
+		return resources;
+	}
+
+	private TaskGroup taskGroup(Job job, String name) {
+		return job.getTaskGroups().stream().filter(taskGroup -> taskGroup.getName().equals(name)).findFirst()
+				.orElseThrow(() -> new IllegalStateException("No TaskGroup " + name));
+	}
+
+	/**
+	 * The Job as it would be stored by Nomad, i.e. without fields the Job model does not know.
+	 */
+	private JsonNode normalize(JsonNode jobNode) throws Exception {
+		return getObjectMapper().valueToTree(getObjectMapper().treeToValue(jobNode, Job.class));
+	}
+
+	private Map<String, JsonNode> taskGroups(JsonNode spec) {
+		Map<String, JsonNode> taskGroups = new LinkedHashMap<>();
+		if (spec != null) {
+			spec.path("TaskGroups").forEach(taskGroup -> taskGroups.put(taskGroup.get("Name").asText(), taskGroup));
+		}
+		return taskGroups;
+	}
+
+	private Map<String, Object> desiredUpdates(int ignore, int place, int stop, int destructiveUpdate) {
+		Map<String, Object> updates = new LinkedHashMap<>();
+		updates.put("Ignore", ignore);
+		updates.put("Place", place);
+		updates.put("Migrate", 0);
+		updates.put("Stop", stop);
+		updates.put("InPlaceUpdate", 0);
+		updates.put("DestructiveUpdate", destructiveUpdate);
+		return updates;
+	}
+
+	private JobAllocation toJobAllocation(NodeAllocation allocation) {
+		JobAllocation jobAllocation = new JobAllocation();
+		BeanUtils.copyProperties(allocation, jobAllocation);
+		return jobAllocation;
+	}
+
+	/**
+	 * Start a deployment if the Job has an update stanza, cancelling the running deployment of the
+	 * previous version.
+	 *
+	 * @return the id of the deployment, <code>null</code> if the Job has no update stanza
+	 */
+	private String startDeployment(Job job, JsonNode update) {
+		if (update.path("MaxParallel").asInt() <= 0) {
+			return null;
+		}
+
+		Map<String, Object> previous = deployments.get(latestDeployments.get(job.getId()));
+		if (previous != null && "running".equals(previous.get("Status"))) {
+			previous.put("Status", "cancelled");
+			previous.put("StatusDescription", "Cancelled due to newer version of job");
+		}
+
+		int canaries = update.path("Canary").asInt();
+		Map<String, Object> taskGroups = new LinkedHashMap<>();
+		job.getTaskGroups().forEach(taskGroup -> {
+			Map<String, Object> state = new LinkedHashMap<>();
+			state.put("DesiredTotal", taskGroup.getCount() != null ? taskGroup.getCount() : 1);
+			state.put("DesiredCanaries", canaries);
+			taskGroups.put(taskGroup.getName(), state);
+		});
+		Map<String, Object> deployment = new LinkedHashMap<>();
+		String deploymentId = UUID.randomUUID().toString();
+		deployment.put("ID", deploymentId);
+		deployment.put("JobID", job.getId());
+		deployment.put("Status", "running");
+		deployment.put("StatusDescription",
+				canaries > 0 ? "Deployment is running but requires promotion" : "Deployment is running");
+		deployment.put("TaskGroups", taskGroups);
+		deployments.put(deploymentId, deployment);
+		latestDeployments.put(job.getId(), deploymentId);
+
+		if (canaries == 0) {
+			scheduler.schedule(() -> completeDeployment(deployment), update.path("MinHealthyTime").asLong(),
+					TimeUnit.NANOSECONDS);
+		}
+		return deploymentId;
+	}
+
+	private synchronized void completeDeployment(Map<String, Object> deployment) {
+		if ("running".equals(deployment.get("Status"))) {
+			deployment.put("Status", "successful");
+			deployment.put("StatusDescription", "Deployment completed successfully");
+			changed();
+		}
+	}
+
+	private Map<String, Object> failedAllocation(int count) {
+		Map<String, Object> metric = new LinkedHashMap<>();
+		metric.put("NodesEvaluated", nodes.size());
+		metric.put("NodesFiltered", 0);
+		metric.put("NodesExhausted", nodes.size());
+		metric.put("DimensionExhausted", Collections.singletonMap(exhaustedDimension, nodes.size()));
+		metric.put("CoalescedFailures", count - 1);
+		return metric;
+	}
+
+	/**
+	 * Record a <code>complete</code> evaluation. Allocations that could not be placed are left to a
+	 * blocked evaluation.
+	 */
+	private JobEvalResult evalResult(String jobId, String deploymentId, Map<String, Object> failedAllocations) {
+		Map<String, Object> evaluation = new LinkedHashMap<>();
+		String evalId = UUID.randomUUID().toString();
+		evaluation.put("ID", evalId);
+		evaluation.put("JobID", jobId);
+		evaluation.put("Status", "complete");
+		evaluation.put("DeploymentID", deploymentId);
+		if (!failedAllocations.isEmpty()) {
+			evaluation.put("BlockedEval", UUID.randomUUID().toString());
+			evaluation.put("FailedTGAllocs", failedAllocations);
+		}
+		evaluations.put(evalId, evaluation);
+
+		JobEvalResult evalResult = new JobEvalResult();
+		evalResult.setEvalID(evalId);
+		evalResult.setEvalCreateIndex((int) index);
+		evalResult.setNodeModifyIndex((int) index);
+		evalResult.setIndex((int) index);
+		return evalResult;
+	}
+}
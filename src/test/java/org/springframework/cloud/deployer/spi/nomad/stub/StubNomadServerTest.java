@@ -0,0 +1,195 @@
+package org.springframework.cloud.deployer.spi.nomad.stub;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cloud.deployer.resource.docker.DockerResource;
+import org.springframework.cloud.deployer.spi.app.AppDeployer;
+import org.springframework.cloud.deployer.spi.app.AppInstanceStatus;
+import org.springframework.cloud.deployer.spi.app.AppStatus;
+import org.springframework.cloud.deployer.spi.app.DeploymentState;
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.nomad.ConsulHealthChecks;
+import org.springframework.cloud.deployer.spi.nomad.NomadClusterStateCache;
+import org.springframework.cloud.deployer.spi.nomad.NomadDeployerProperties;
+import org.springframework.cloud.deployer.spi.nomad.NomadJobIndex;
+import org.springframework.cloud.deployer.spi.nomad.NomadMetrics;
+import org.springframework.cloud.deployer.spi.nomad.ResourceAwareNomadAppDeployer;
+import org.springframework.cloud.deployer.spi.nomad.ResourceAwareNomadTaskLauncher;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApi;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadApiFactory;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadClientFactory;
+import org.springframework.cloud.deployer.spi.nomad.client.NomadHttpTransport;
+import org.springframework.cloud.deployer.spi.nomad.docker.DockerNomadTaskLauncher;
+import org.springframework.cloud.deployer.spi.nomad.docker.EntryPointStyle;
+import org.springframework.cloud.deployer.spi.nomad.docker.IndexingDockerNomadAppDeployer;
+import org.springframework.cloud.deployer.spi.nomad.docker.IndexingDockerNomadWithConsulAppDeployer;
+import org.springframework.cloud.deployer.spi.nomad.maven.IndexingMavenNomadAppDeployer;
+import org.springframework.cloud.deployer.spi.nomad.maven.MavenNomadTaskLauncher;
+import org.springframework.cloud.deployer.spi.task.LaunchState;
+
+import com.ecwid.consul.v1.ConsulClient;
+
+import io.github.zanella.nomad.NomadClient;
+
+public class StubNomadServerTest {
+
+	private StubNomadServer nomad;
+	private StubConsulServer consul;
+	private NomadDeployerProperties deployerProperties;
+	private NomadHttpTransport transport;
+	private NomadClient client;
+	private NomadApi nomadApi;
+
+	@Before
+	public void setup() {
+		nomad = new StubNomadServer(3);
+		nomad.start();
+		consul = new StubConsulServer(nomad);
+		consul.start();
+
+		deployerProperties = new NomadDeployerProperties();
+		deployerProperties.setNomadHost(nomad.getHost());
+		deployerProperties.setNomadPort(nomad.getPort());
+		deployerProperties.getJobIndex().setWaitTime(1000L);
+		transport = new NomadHttpTransport(deployerProperties, NomadMetrics.NONE);
+		client = new NomadClientFactory(deployerProperties, transport).create();
+		nomadApi = new NomadApiFactory(deployerProperties, transport).create();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		transport.close();
+		consul.close();
+		nomad.close();
+	}
+
+	@Test
+	public void testDeployStatusUndeploy() {
+		NomadJobIndex jobIndex = new NomadJobIndex(client);
+		AppDeployer appDeployer = new ResourceAwareNomadAppDeployer(
+				new IndexingDockerNomadAppDeployer(client, jobIndex, deployerProperties),
+				new IndexingMavenNomadAppDeployer(client, jobIndex, deployerProperties));
+
+		String deploymentId = appDeployer
+				.deploy(request("test-app", Collections.singletonMap(AppDeployer.COUNT_PROPERTY_KEY, "2")));
+
+		AppStatus status = appDeployer.status(deploymentId);
+		assertThat(status.getState()).isEqualTo(DeploymentState.deployed);
+		assertThat(status.getInstances()).hasSize(2);
+		AppInstanceStatus instance = status.getInstances().values().iterator().next();
+		assertThat(nomad.getNodes()).contains(instance.getAttributes().get("node_id"));
+		assertThat(instance.getAttributes()).containsKey("ip[0]");
+
+		nomad.setClientStatus(nomad.getRegisteredJobs().keySet().iterator().next(), "failed");
+		assertThat(appDeployer.status(deploymentId).getState()).isEqualTo(DeploymentState.failed);
+
+		appDeployer.undeploy(deploymentId);
+		assertThat(appDeployer.status(deploymentId).getState()).isEqualTo(DeploymentState.unknown);
+		assertThat(nomad.getRequestCount("POST /v1/jobs")).isEqualTo(1);
+		assertThat(nomad.getRequestCount("DELETE /v1/job/{id}")).isEqualTo(1);
+	}
+
+	@Test
+	public void testEnvironmentInfo() {
+		deployerProperties.setRuntimePlatformVersion("0.10");
+		AppDeployer appDeployer = new IndexingDockerNomadAppDeployer(client, deployerProperties);
+
+		assertThat(appDeployer.environmentInfo().getPlatformHostVersion()).isEqualTo("0.5.6");
+		assertThat(appDeployer.environmentInfo().getPlatformSpecificInfo()).containsKeys("nomad-0.global-build",
+				"nomad-2.global-datacenter");
+		assertThat(nomad.getRequestCount("GET /v1/agent/members")).isEqualTo(1);
+	}
+
+	@Test
+	public void testLaunchDispatchedTask() {
+		deployerProperties.getTaskDispatch().setEnabled(true);
+		deployerProperties.setEntryPointStyle(EntryPointStyle.boot);
+		NomadJobIndex jobIndex = new NomadJobIndex(client);
+		ResourceAwareNomadTaskLauncher taskLauncher = new ResourceAwareNomadTaskLauncher(
+				new DockerNomadTaskLauncher(client, nomadApi, jobIndex, deployerProperties),
+				new MavenNomadTaskLauncher(client, nomadApi, jobIndex, deployerProperties));
+		try {
+			String taskId = taskLauncher.launch(request("test-task", Collections.emptyMap()));
+			String otherTaskId = taskLauncher.launch(request("test-task", Collections.emptyMap()));
+
+			assertThat(taskId).contains("/dispatch-").isNotEqualTo(otherTaskId);
+			assertThat(taskLauncher.status(taskId).getState()).isEqualTo(LaunchState.running);
+			assertThat(nomad.getRequestCount("POST /v1/jobs")).isEqualTo(1);
+			assertThat(nomad.getRequestCount("POST /v1/job/{id}/dispatch")).isEqualTo(2);
+
+			taskLauncher.cancel(taskId);
+			assertThat(taskLauncher.status(taskId).getState()).isEqualTo(LaunchState.unknown);
+
+			String parameterizedJobId = taskId.substring(0, taskId.indexOf("/dispatch-"));
+			assertThat(nomad.getRegisteredJobs()).containsKey(parameterizedJobId);
+			taskLauncher.destroy("test-task");
+			assertThat(nomad.getRegisteredJobs()).doesNotContainKey(parameterizedJobId);
+		}
+		finally {
+			taskLauncher.shutdown();
+		}
+	}
+
+	@Test
+	public void testStatusWithConsulHealthChecks() {
+		ConsulClient consulClient = new ConsulClient(consul.getHost(), consul.getPort());
+		IndexingDockerNomadWithConsulAppDeployer appDeployer = new IndexingDockerNomadWithConsulAppDeployer(client,
+				consulClient, new NomadJobIndex(client), new ConsulHealthChecks(consulClient), deployerProperties);
+
+		String deploymentId = appDeployer.deploy(request("test-app", Collections.emptyMap()));
+		assertThat(appDeployer.status(deploymentId).getState()).isEqualTo(DeploymentState.deployed);
+
+		consul.setCheckStatus(deploymentId, "warning");
+		assertThat(appDeployer.status(deploymentId).getState()).isEqualTo(DeploymentState.failed);
+		assertThat(consul.getRequestCount("GET /v1/health/checks/{service}")).isEqualTo(2);
+	}
+
+	@Test
+	public void testBlockingQueries() throws Exception {
+		NomadClusterStateCache stateCache = new NomadClusterStateCache(client, nomadApi, 1000);
+		stateCache.start();
+		try {
+			AppDeployer appDeployer = new IndexingDockerNomadAppDeployer(client, stateCache, deployerProperties);
+			String deploymentId = appDeployer.deploy(request("test-app", Collections.emptyMap()));
+
+			long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+			while ((!stateCache.isSynced() || stateCache.getLastIndex() < nomad.getIndex()
+					|| stateCache.getLastAllocationIndex() < nomad.getIndex()) && System.currentTimeMillis() < deadline) {
+				TimeUnit.MILLISECONDS.sleep(10);
+			}
+			nomad.resetRequestCounts();
+
+			assertThat(appDeployer.status(deploymentId).getState()).isEqualTo(DeploymentState.deployed);
+			assertThat(nomad.getRequestCount("GET /v1/job/{id}")).isZero();
+			assertThat(nomad.getRequestCount("GET /v1/job/{id}/allocations")).isZero();
+		}
+		finally {
+			stateCache.stop();
+		}
+	}
+
+	@Test
+	public void testLatency() {
+		nomad.setLatency(100);
+
+		long start = System.nanoTime();
+		client.v1.jobs.getJobs();
+
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(100);
+		assertThat(nomad.getRequestCounts()).containsEntry("GET /v1/jobs", 1L);
+	}
+
+	private AppDeploymentRequest request(String name, Map<String, String> deploymentProperties) {
+		return new AppDeploymentRequest(new AppDefinition(name, new HashMap<>()),
+				new DockerResource("springcloud/spring-cloud-deployer-spi-test-app:latest"), deploymentProperties);
+	}
+}